@@ -1,9 +1,15 @@
 package io.github.rosestack.exception;
 
+import java.util.Locale;
+
+import io.github.rosestack.util.FormattedMessage;
+import io.github.rosestack.util.MessageResolver;
+
 /**
  * 基础异常类
  *
- * <p>提供国际化消息支持和异常上下文信息
+ * <p>提供国际化消息支持和异常上下文信息。消息参数在首次读取 {@link #getMessage()} 时才格式化，
+ * 在重试等循环中被捕获、未读取消息的异常不产生格式化开销。
  *
  * @author rosestack
  * @since 1.0.0
@@ -21,6 +27,11 @@ public abstract class BaseException extends RuntimeException {
      */
     private final Object[] messageArgs;
 
+    /**
+     * 延迟格式化的消息
+     */
+    private final FormattedMessage message;
+
     /**
      * 构造基础异常
      *
@@ -30,6 +41,7 @@ public abstract class BaseException extends RuntimeException {
         super(messageKey);
         this.messageKey = messageKey;
         this.messageArgs = new Object[0];
+        this.message = FormattedMessage.of(messageKey);
     }
 
     /**
@@ -42,6 +54,7 @@ public abstract class BaseException extends RuntimeException {
         super(messageKey, cause);
         this.messageKey = messageKey;
         this.messageArgs = new Object[0];
+        this.message = FormattedMessage.of(messageKey);
     }
 
     /**
@@ -54,6 +67,7 @@ public abstract class BaseException extends RuntimeException {
         super(messageKey);
         this.messageKey = messageKey;
         this.messageArgs = messageArgs != null ? messageArgs : new Object[0];
+        this.message = FormattedMessage.of(messageKey, this.messageArgs);
     }
 
     /**
@@ -67,6 +81,51 @@ public abstract class BaseException extends RuntimeException {
         super(messageKey, cause);
         this.messageKey = messageKey;
         this.messageArgs = messageArgs != null ? messageArgs : new Object[0];
+        this.message = FormattedMessage.of(messageKey, this.messageArgs);
+    }
+
+    /**
+     * 构造基础异常
+     *
+     * @param message 延迟格式化的消息，模板作为消息键
+     */
+    protected BaseException(FormattedMessage message) {
+        super(message.getTemplate());
+        this.messageKey = message.getTemplate();
+        this.messageArgs = message.getArgs();
+        this.message = message;
+    }
+
+    /**
+     * 构造基础异常
+     *
+     * @param message 延迟格式化的消息，模板作为消息键
+     * @param cause   原始异常
+     */
+    protected BaseException(FormattedMessage message, Throwable cause) {
+        super(message.getTemplate(), cause);
+        this.messageKey = message.getTemplate();
+        this.messageArgs = message.getArgs();
+        this.message = message;
+    }
+
+    /**
+     * 获取格式化后的消息，首次调用时按消息参数渲染消息键
+     *
+     * @return 消息
+     */
+    @Override
+    public String getMessage() {
+        return message.toString();
+    }
+
+    /**
+     * 获取延迟格式化的消息，可直接作为日志参数
+     *
+     * @return 消息
+     */
+    public FormattedMessage getFormattedMessage() {
+        return message;
     }
 
     /**
@@ -86,4 +145,15 @@ public abstract class BaseException extends RuntimeException {
     public Object[] getMessageArgs() {
         return messageArgs;
     }
+
+    /**
+     * 使用消息解析器解析国际化消息
+     *
+     * @param resolver 消息解析器
+     * @param locale   语言，为null时使用默认语言
+     * @return 消息
+     */
+    public String getLocalizedMessage(MessageResolver resolver, Locale locale) {
+        return resolver.getMessage(messageKey, locale, messageArgs);
+    }
 }
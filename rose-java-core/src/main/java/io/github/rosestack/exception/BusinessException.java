@@ -1,5 +1,7 @@
 package io.github.rosestack.exception;
 
+import io.github.rosestack.util.FormattedMessage;
+
 /**
  * 业务异常类
  *
@@ -49,4 +51,35 @@ public class BusinessException extends BaseException {
     public BusinessException(String messageKey, Throwable cause, Object... args) {
         super(messageKey, cause, args);
     }
+
+    private BusinessException(FormattedMessage message) {
+        super(message);
+    }
+
+    private BusinessException(FormattedMessage message, Throwable cause) {
+        super(message, cause);
+    }
+
+    /**
+     * 使用延迟格式化的消息创建业务异常
+     *
+     * <p>使用工厂方法而非构造器，{@code new BusinessException(null)} 仍然调用 {@link #BusinessException(String)}
+     *
+     * @param message 延迟格式化的消息
+     * @return 业务异常
+     */
+    public static BusinessException of(FormattedMessage message) {
+        return new BusinessException(message);
+    }
+
+    /**
+     * 使用延迟格式化的消息创建业务异常
+     *
+     * @param message 延迟格式化的消息
+     * @param cause   原始异常
+     * @return 业务异常
+     */
+    public static BusinessException of(FormattedMessage message, Throwable cause) {
+        return new BusinessException(message, cause);
+    }
 }
@@ -0,0 +1,258 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.rosestack.lang;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+import static java.util.Collections.unmodifiableList;
+
+/**
+ * A copy-on-write registry keeping its components sorted in the order of {@link Prioritized#COMPARATOR}.
+ *
+ * <p>Reads take the current immutable snapshot without locking, so iterating the components on a hot path is a plain
+ * array loop. Writes are expected to be rare; they are serialized and insert by binary search into a new array.
+ * Components with equal priority keep their registration order, and components that are not {@link Prioritized} come
+ * after all the others, as with a stable sort by {@link Prioritized#COMPARATOR}.</p>
+ *
+ * <p>The priority of a component is read once when it is added, so it must not change while the component is
+ * registered.</p>
+ *
+ * <h3>Example Usage</h3>
+ * <pre>{@code
+ * PrioritizedRegistry<Interceptor> interceptors = new PrioritizedRegistry<>();
+ * interceptors.add(new TracingInterceptor());   // getPriority() == MAX_PRIORITY
+ * interceptors.add(new SecurityInterceptor());  // getPriority() == 0
+ *
+ * for (Interceptor interceptor : interceptors.snapshot()) {
+ *     interceptor.intercept(invocation);
+ * }
+ * }</pre>
+ *
+ * @param <T> the type of the components
+ * @see Prioritized
+ * @since 1.0.0
+ */
+public class PrioritizedRegistry<T> implements Iterable<T> {
+
+    /**
+     * The sort key of the components that are not {@link Prioritized}, after {@link Prioritized#MIN_PRIORITY}
+     */
+    private static final long UNPRIORITIZED_KEY = Prioritized.MIN_PRIORITY + 1L;
+
+    private static final State<?> EMPTY = new State<>(new Object[0], new long[0]);
+
+    private final Object lock = new Object();
+
+    @SuppressWarnings("unchecked")
+    private volatile State<T> state = (State<T>) EMPTY;
+
+    /**
+     * Adds a component after the registered components of the same priority
+     *
+     * @param component the component, may be {@code null}, in which case no action is taken
+     * @return {@code true} if added
+     */
+    public boolean add(T component) {
+        if (component == null) {
+            return false;
+        }
+        long key = keyOf(component);
+        synchronized (lock) {
+            State<T> current = state;
+            int index = upperBound(current.keys, key);
+            int length = current.elements.length;
+            Object[] elements = new Object[length + 1];
+            long[] keys = new long[length + 1];
+            System.arraycopy(current.elements, 0, elements, 0, index);
+            System.arraycopy(current.keys, 0, keys, 0, index);
+            elements[index] = component;
+            keys[index] = key;
+            System.arraycopy(current.elements, index, elements, index + 1, length - index);
+            System.arraycopy(current.keys, index, keys, index + 1, length - index);
+            state = new State<>(elements, keys);
+        }
+        return true;
+    }
+
+    /**
+     * Adds the components, publishing a single new snapshot
+     *
+     * @param components the components, {@code null} elements are ignored
+     * @return the number of components added
+     */
+    public int addAll(Collection<? extends T> components) {
+        Object[] added = components.stream().filter(Objects::nonNull).toArray();
+        if (added.length == 0) {
+            return 0;
+        }
+        long[] addedKeys = new long[added.length];
+        Integer[] order = new Integer[added.length];
+        for (int i = 0; i < added.length; i++) {
+            addedKeys[i] = keyOf(added[i]);
+            order[i] = i;
+        }
+        // Arrays.sort of objects is stable, so components of the same priority keep their order
+        Arrays.sort(order, (one, two) -> Long.compare(addedKeys[one], addedKeys[two]));
+
+        synchronized (lock) {
+            State<T> current = state;
+            int length = current.elements.length + added.length;
+            Object[] elements = new Object[length];
+            long[] keys = new long[length];
+            // merges, taking the registered components first on equal priority
+            for (int i = 0, j = 0, k = 0; k < length; k++) {
+                if (j == order.length || (i < current.keys.length && current.keys[i] <= addedKeys[order[j]])) {
+                    elements[k] = current.elements[i];
+                    keys[k] = current.keys[i++];
+                } else {
+                    elements[k] = added[order[j]];
+                    keys[k] = addedKeys[order[j++]];
+                }
+            }
+            state = new State<>(elements, keys);
+        }
+        return added.length;
+    }
+
+    /**
+     * Removes the first component equal to the given one
+     *
+     * @param component the component, may be {@code null}
+     * @return {@code true} if removed
+     */
+    public boolean remove(Object component) {
+        if (component == null) {
+            return false;
+        }
+        synchronized (lock) {
+            State<T> current = state;
+            int index = current.indexOf(component);
+            if (index < 0) {
+                return false;
+            }
+            int length = current.elements.length - 1;
+            Object[] elements = new Object[length];
+            long[] keys = new long[length];
+            System.arraycopy(current.elements, 0, elements, 0, index);
+            System.arraycopy(current.keys, 0, keys, 0, index);
+            System.arraycopy(current.elements, index + 1, elements, index, length - index);
+            System.arraycopy(current.keys, index + 1, keys, index, length - index);
+            state = new State<>(elements, keys);
+        }
+        return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    public void clear() {
+        synchronized (lock) {
+            state = (State<T>) EMPTY;
+        }
+    }
+
+    public boolean contains(Object component) {
+        return component != null && state.indexOf(component) >= 0;
+    }
+
+    public int size() {
+        return state.elements.length;
+    }
+
+    public boolean isEmpty() {
+        return state.elements.length == 0;
+    }
+
+    /**
+     * Gets the current components, unaffected by later writes
+     *
+     * @return the sorted, unmodifiable components
+     */
+    public List<T> snapshot() {
+        return state.view;
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return state.view.iterator();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void forEach(Consumer<? super T> action) {
+        for (Object element : state.elements) {
+            action.accept((T) element);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "PrioritizedRegistry" + state.view;
+    }
+
+    private static long keyOf(Object component) {
+        return component instanceof Prioritized ? ((Prioritized) component).getPriority() : UNPRIORITIZED_KEY;
+    }
+
+    /**
+     * @return the index of the first key greater than the given one
+     */
+    private static int upperBound(long[] keys, long key) {
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (keys[middle] <= key) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * An immutable snapshot of the components together with their sort keys
+     */
+    private static final class State<T> {
+
+        private final Object[] elements;
+
+        private final long[] keys;
+
+        private final List<T> view;
+
+        @SuppressWarnings("unchecked")
+        State(Object[] elements, long[] keys) {
+            this.elements = elements;
+            this.keys = keys;
+            this.view = unmodifiableList((List<T>) Arrays.asList(elements));
+        }
+
+        int indexOf(Object component) {
+            for (int i = 0; i < elements.length; i++) {
+                if (component.equals(elements[i])) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+}
@@ -3,25 +3,84 @@ package io.github.rosestack.util;
 /**
  * 基础枚举接口 为所有业务枚举提供统一的契约
  *
+ * <p>按代码和名称的查找使用每个枚举类型首次查找时建立的索引，时间复杂度为 O(1)
+ *
  * @author chensoul
  */
 public interface BaseEnum {
 
     /**
      * 根据代码查找枚举
+     *
+     * @throws IllegalArgumentException 没有该代码的枚举时
      */
     static <E extends Enum<E> & BaseEnum> E fromCode(Class<E> enumClass, String code) {
         if (code == null) {
             return null;
         }
 
-        for (E enumConstant : enumClass.getEnumConstants()) {
-            if (code.equals(enumConstant.getCode())) {
-                return enumConstant;
-            }
+        BaseEnumIndex<E> index = BaseEnumIndex.of(enumClass);
+        E enumConstant = index.findByCode(code);
+        if (enumConstant == null) {
+            throw index.noSuchCode(code);
+        }
+        return enumConstant;
+    }
+
+    /**
+     * 根据数值代码查找枚举，代码为较小的非负整数时直接按下标访问
+     *
+     * @throws IllegalArgumentException 没有该代码的枚举时
+     */
+    static <E extends Enum<E> & BaseEnum> E fromCode(Class<E> enumClass, int code) {
+        BaseEnumIndex<E> index = BaseEnumIndex.of(enumClass);
+        E enumConstant = index.findByCode(code);
+        if (enumConstant == null) {
+            throw index.noSuchCode(code);
+        }
+        return enumConstant;
+    }
+
+    /**
+     * 根据代码查找枚举，没有该代码的枚举时返回 {@code null}
+     */
+    static <E extends Enum<E> & BaseEnum> E fromCodeOrNull(Class<E> enumClass, String code) {
+        return BaseEnumIndex.of(enumClass).findByCode(code);
+    }
+
+    /**
+     * 根据名称查找枚举
+     *
+     * @throws IllegalArgumentException 没有该名称的枚举时
+     */
+    static <E extends Enum<E> & BaseEnum> E fromName(Class<E> enumClass, String name) {
+        if (name == null) {
+            return null;
+        }
+
+        BaseEnumIndex<E> index = BaseEnumIndex.of(enumClass);
+        E enumConstant = index.findByName(name);
+        if (enumConstant == null) {
+            throw index.noSuchName(name);
         }
+        return enumConstant;
+    }
 
-        throw new IllegalArgumentException("No enum constant " + enumClass.getSimpleName() + " with code: " + code);
+    /**
+     * 批量根据代码查找枚举，用于整列解码，{@code null} 代码对应 {@code null}
+     *
+     * @throws IllegalArgumentException 存在没有对应枚举的代码时
+     */
+    static <E extends Enum<E> & BaseEnum> E[] fromCodes(Class<E> enumClass, String... codes) {
+        BaseEnumIndex<E> index = BaseEnumIndex.of(enumClass);
+        E[] enumConstants = index.newArray(codes.length);
+        for (int i = 0; i < codes.length; i++) {
+            String code = codes[i];
+            if (code != null && (enumConstants[i] = index.findByCode(code)) == null) {
+                throw index.noSuchCode(code);
+            }
+        }
+        return enumConstants;
     }
 
     /**
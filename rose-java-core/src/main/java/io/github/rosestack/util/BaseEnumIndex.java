@@ -0,0 +1,126 @@
+package io.github.rosestack.util;
+
+import java.lang.reflect.Array;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * {@link BaseEnum} 的代码与名称索引，每个枚举类型在首次查找时构建一次，由 {@link ClassValue} 缓存
+ *
+ * <p>代码重复时以声明在前的常量为准，与逐个比较的结果一致。代码全部为较小的非负整数时，额外建立按数值下标访问的数组。
+ *
+ * @author chensoul
+ * @see BaseEnum
+ */
+final class BaseEnumIndex<E extends Enum<E> & BaseEnum> {
+
+    /**
+     * 数值代码数组的最大长度
+     */
+    private static final int MAX_DENSE_LENGTH = 1024;
+
+    private static final ClassValue<BaseEnumIndex<?>> INDEXES = new ClassValue<BaseEnumIndex<?>>() {
+        @Override
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        protected BaseEnumIndex<?> computeValue(Class<?> type) {
+            return new BaseEnumIndex(type);
+        }
+    };
+
+    private final Class<E> enumClass;
+
+    private final Map<String, E> byCode;
+
+    private final Map<String, E> byName;
+
+    /**
+     * 按数值代码下标的常量，代码不全是较小的非负整数时为 {@code null}
+     */
+    private final E[] byNumericCode;
+
+    private BaseEnumIndex(Class<E> enumClass) {
+        Assert.assertTrue(enumClass.isEnum(), () -> enumClass.getName() + " is not an enum");
+        this.enumClass = enumClass;
+        E[] constants = enumClass.getEnumConstants();
+        this.byCode = new HashMap<>(constants.length * 2);
+        this.byName = new HashMap<>(constants.length * 2);
+        int maxNumericCode = -1;
+        for (E constant : constants) {
+            String code = constant.getCode();
+            if (code != null) {
+                byCode.putIfAbsent(code, constant);
+                int numericCode = parseNumericCode(code);
+                maxNumericCode = numericCode < 0 || maxNumericCode == Integer.MAX_VALUE
+                        ? Integer.MAX_VALUE : Math.max(maxNumericCode, numericCode);
+            }
+            if (constant.getName() != null) {
+                byName.putIfAbsent(constant.getName(), constant);
+            }
+        }
+        this.byNumericCode = maxNumericCode < MAX_DENSE_LENGTH ? newNumericIndex(constants, maxNumericCode + 1) : null;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <E extends Enum<E> & BaseEnum> BaseEnumIndex<E> of(Class<E> enumClass) {
+        Assert.assertNotNull(enumClass, "enumClass must not be null");
+        return (BaseEnumIndex<E>) INDEXES.get(enumClass);
+    }
+
+    E findByCode(String code) {
+        return code == null ? null : byCode.get(code);
+    }
+
+    E findByCode(int code) {
+        if (byNumericCode != null) {
+            return code >= 0 && code < byNumericCode.length ? byNumericCode[code] : null;
+        }
+        return byCode.get(Integer.toString(code));
+    }
+
+    E findByName(String name) {
+        return name == null ? null : byName.get(name);
+    }
+
+    @SuppressWarnings("unchecked")
+    E[] newArray(int length) {
+        return (E[]) Array.newInstance(enumClass, length);
+    }
+
+    IllegalArgumentException noSuchCode(Object code) {
+        return new IllegalArgumentException("No enum constant " + enumClass.getSimpleName() + " with code: " + code);
+    }
+
+    IllegalArgumentException noSuchName(String name) {
+        return new IllegalArgumentException("No enum constant " + enumClass.getSimpleName() + " with name: " + name);
+    }
+
+    private E[] newNumericIndex(E[] constants, int length) {
+        E[] index = newArray(length);
+        for (E constant : constants) {
+            String code = constant.getCode();
+            if (code != null && index[parseNumericCode(code)] == null) {
+                index[parseNumericCode(code)] = constant;
+            }
+        }
+        return index;
+    }
+
+    /**
+     * @return 规范写法（无前导零）的非负整数代码的数值，否则为 -1
+     */
+    private static int parseNumericCode(String code) {
+        int length = code.length();
+        if (length == 0 || length > 4 || (length > 1 && code.charAt(0) == '0')) {
+            return -1;
+        }
+        int value = 0;
+        for (int i = 0; i < length; i++) {
+            char c = code.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+}
@@ -0,0 +1,443 @@
+package io.github.rosestack.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 预编译的消息模板
+ *
+ * <p>模板只解析一次，拆分为字面量片段与占位符槽位，渲染时按顺序写入一个预估容量的 {@link StringBuilder}。 支持三种占位符：
+ * <ul>
+ *   <li>顺序占位符 {@code {}}（或自定义占位符），按参数顺序依次替换</li>
+ *   <li>索引占位符 {@code {0}}，按下标引用参数</li>
+ *   <li>命名占位符 {@code {name}}，按名称引用 Map 中的参数</li>
+ * </ul>
+ * 无法匹配的占位符在渲染结果中保持原样。 编译结果按模板字符串缓存，实例不可变且线程安全。
+ *
+ * <pre>{@code
+ * CompiledTemplate template = CompiledTemplate.compile("用户 {name} 登录失败 {0} 次");
+ * String message = template.renderNamed(Collections.singletonMap("name", "rose"));
+ * }</pre>
+ *
+ * @author chensoul
+ * @since 1.0.0
+ * @see FormatUtils
+ */
+public final class CompiledTemplate {
+    /**
+     * 缓存的模板数量上限，超出后新模板不再缓存
+     */
+    private static final int MAX_CACHE_SIZE = 4096;
+
+    private static final Map<String, CompiledTemplate> CACHE = new ConcurrentHashMap<>();
+    private static final Map<String, Map<String, CompiledTemplate>> CUSTOM_CACHE = new ConcurrentHashMap<>();
+
+    private static final byte SEQUENTIAL = 0;
+    private static final byte INDEXED = 1;
+    private static final byte NAMED = 2;
+
+    private final String template;
+    private final String[] literals;
+    private final Slot[] slots;
+    private final int literalLength;
+
+    private CompiledTemplate(String template, List<String> literals, List<Slot> slots) {
+        this.template = template;
+        this.literals = literals.toArray(new String[0]);
+        this.slots = slots.toArray(new Slot[0]);
+        int length = 0;
+        for (String literal : this.literals) {
+            length += literal.length();
+        }
+        this.literalLength = length;
+    }
+
+    /**
+     * 编译使用默认语法（{@code {}}、{@code {0}}、{@code {name}}）的模板
+     *
+     * @param template 模板字符串
+     * @return 编译后的模板
+     */
+    public static CompiledTemplate compile(final String template) {
+        Assert.assertNotNull(template, "template must not be null");
+        CompiledTemplate compiled = CACHE.get(template);
+        if (compiled == null) {
+            compiled = parse(template);
+            if (CACHE.size() < MAX_CACHE_SIZE) {
+                CACHE.putIfAbsent(template, compiled);
+            }
+        }
+        return compiled;
+    }
+
+    /**
+     * 编译使用自定义顺序占位符的模板，模板中只识别该占位符
+     *
+     * @param template    模板字符串
+     * @param placeholder 占位符字符串
+     * @return 编译后的模板
+     */
+    public static CompiledTemplate compile(final String template, final String placeholder) {
+        if (FormatUtils.DEFAULT_PLACEHOLDER.equals(placeholder)) {
+            return compile(template);
+        }
+        Assert.assertNotNull(template, "template must not be null");
+        Assert.assertNotEmpty(placeholder, "placeholder must not be empty");
+
+        Map<String, CompiledTemplate> cache = CUSTOM_CACHE.get(placeholder);
+        if (cache == null) {
+            if (CUSTOM_CACHE.size() >= MAX_CACHE_SIZE) {
+                return parse(template, placeholder);
+            }
+            cache = CUSTOM_CACHE.computeIfAbsent(placeholder, key -> new ConcurrentHashMap<>());
+        }
+        CompiledTemplate compiled = cache.get(template);
+        if (compiled == null) {
+            compiled = parse(template, placeholder);
+            if (cache.size() < MAX_CACHE_SIZE) {
+                cache.putIfAbsent(template, compiled);
+            }
+        }
+        return compiled;
+    }
+
+    /**
+     * 清理编译缓存，主要用于测试或内存管理
+     */
+    public static void clearCache() {
+        CACHE.clear();
+        CUSTOM_CACHE.clear();
+    }
+
+    /**
+     * 按顺序替换顺序占位符
+     *
+     * @param args 参数数组
+     * @return 渲染结果
+     */
+    public String render(final Object... args) {
+        return render(Locale.getDefault(), TimeZone.getDefault(), args);
+    }
+
+    /**
+     * 按顺序替换顺序占位符（支持本地化）
+     *
+     * @param locale   本地化设置
+     * @param timeZone 时区设置
+     * @param args     参数数组
+     * @return 渲染结果
+     */
+    public String render(final Locale locale, final TimeZone timeZone, final Object... args) {
+        if (args == null || args.length == 0 || !has(SEQUENTIAL)) {
+            return template;
+        }
+        return renderTo(newBuilder(), locale, timeZone, args).toString();
+    }
+
+    /**
+     * 按顺序替换顺序占位符，结果追加到目标 {@link StringBuilder}
+     *
+     * @param target   目标
+     * @param locale   本地化设置
+     * @param timeZone 时区设置
+     * @param args     参数数组
+     * @return 目标
+     */
+    public StringBuilder renderTo(
+            final StringBuilder target, final Locale locale, final TimeZone timeZone, final Object... args) {
+        if (args == null || args.length == 0) {
+            return target.append(template);
+        }
+
+        target.append(literals[0]);
+        int next = 0;
+        for (int i = 0; i < slots.length; i++) {
+            Slot slot = slots[i];
+            if (slot.kind == SEQUENTIAL && next < args.length) {
+                LocaleFormatUtils.formatValueTo(target, args[next++], locale, timeZone);
+            } else {
+                target.append(slot.raw);
+            }
+            target.append(literals[i + 1]);
+        }
+        return target;
+    }
+
+    /**
+     * 按下标替换索引占位符
+     *
+     * @param args 参数数组
+     * @return 渲染结果
+     */
+    public String renderIndexed(final Object... args) {
+        return renderIndexed(Locale.getDefault(), TimeZone.getDefault(), args);
+    }
+
+    /**
+     * 按下标替换索引占位符（支持本地化）
+     *
+     * @param locale   本地化设置
+     * @param timeZone 时区设置
+     * @param args     参数数组
+     * @return 渲染结果
+     */
+    public String renderIndexed(final Locale locale, final TimeZone timeZone, final Object... args) {
+        if (args == null || args.length == 0 || !has(INDEXED)) {
+            return template;
+        }
+        return renderIndexedTo(newBuilder(), locale, timeZone, args).toString();
+    }
+
+    /**
+     * 按下标替换索引占位符，结果追加到目标 {@link StringBuilder}
+     *
+     * @param target   目标
+     * @param locale   本地化设置
+     * @param timeZone 时区设置
+     * @param args     参数数组
+     * @return 目标
+     */
+    public StringBuilder renderIndexedTo(
+            final StringBuilder target, final Locale locale, final TimeZone timeZone, final Object... args) {
+        if (args == null || args.length == 0) {
+            return target.append(template);
+        }
+
+        target.append(literals[0]);
+        for (int i = 0; i < slots.length; i++) {
+            Slot slot = slots[i];
+            if (slot.kind == INDEXED && slot.index < args.length) {
+                LocaleFormatUtils.formatValueTo(target, args[slot.index], locale, timeZone);
+            } else {
+                target.append(slot.raw);
+            }
+            target.append(literals[i + 1]);
+        }
+        return target;
+    }
+
+    /**
+     * 按名称替换命名占位符，参数不存在或为 null 时保持原样
+     *
+     * @param map 参数映射
+     * @return 渲染结果
+     */
+    public String renderNamed(final Map<String, ?> map) {
+        return renderNamed(Locale.getDefault(), TimeZone.getDefault(), map);
+    }
+
+    /**
+     * 按名称替换命名占位符（支持本地化）
+     *
+     * @param locale   本地化设置
+     * @param timeZone 时区设置
+     * @param map      参数映射
+     * @return 渲染结果
+     */
+    public String renderNamed(final Locale locale, final TimeZone timeZone, final Map<String, ?> map) {
+        if (map == null || map.isEmpty() || !has(NAMED)) {
+            return template;
+        }
+        return renderNamedTo(newBuilder(), locale, timeZone, map).toString();
+    }
+
+    /**
+     * 按名称替换命名占位符，结果追加到目标 {@link StringBuilder}
+     *
+     * @param target   目标
+     * @param locale   本地化设置
+     * @param timeZone 时区设置
+     * @param map      参数映射
+     * @return 目标
+     */
+    public StringBuilder renderNamedTo(
+            final StringBuilder target, final Locale locale, final TimeZone timeZone, final Map<String, ?> map) {
+        if (map == null || map.isEmpty()) {
+            return target.append(template);
+        }
+
+        target.append(literals[0]);
+        for (int i = 0; i < slots.length; i++) {
+            Slot slot = slots[i];
+            Object value = slot.kind == NAMED ? map.get(slot.name) : null;
+            if (value != null) {
+                LocaleFormatUtils.formatValueTo(target, value, locale, timeZone);
+            } else {
+                target.append(slot.raw);
+            }
+            target.append(literals[i + 1]);
+        }
+        return target;
+    }
+
+    public String getTemplate() {
+        return template;
+    }
+
+    /**
+     * 是否包含顺序占位符
+     */
+    public boolean hasPlaceholders() {
+        return has(SEQUENTIAL);
+    }
+
+    /**
+     * 是否包含索引占位符
+     */
+    public boolean hasIndexedParameters() {
+        return has(INDEXED);
+    }
+
+    /**
+     * 是否包含命名占位符
+     */
+    public boolean hasNamedParameters() {
+        return has(NAMED);
+    }
+
+    /**
+     * 顺序占位符数量
+     */
+    public int countPlaceholders() {
+        return count(SEQUENTIAL);
+    }
+
+    /**
+     * 命名占位符数量
+     */
+    public int countNamedParameters() {
+        return count(NAMED);
+    }
+
+    @Override
+    public String toString() {
+        return template;
+    }
+
+    private boolean has(byte kind) {
+        for (Slot slot : slots) {
+            if (slot.kind == kind) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int count(byte kind) {
+        int count = 0;
+        for (Slot slot : slots) {
+            if (slot.kind == kind) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private StringBuilder newBuilder() {
+        return new StringBuilder(literalLength + (slots.length << 4));
+    }
+
+    /**
+     * 编译模板，不写入缓存，用于由调用方自行管理生命周期的模板
+     */
+    static CompiledTemplate parse(String template) {
+        List<String> literals = new ArrayList<>();
+        List<Slot> slots = new ArrayList<>();
+        int literalStart = 0;
+        int open = template.indexOf('{');
+        while (open != -1) {
+            int close = template.indexOf('}', open + 1);
+            if (close == -1) {
+                break;
+            }
+
+            Slot slot = parseSlot(template, open, close);
+            if (slot == null) {
+                open = template.indexOf('{', open + 1);
+                continue;
+            }
+            literals.add(template.substring(literalStart, open));
+            slots.add(slot);
+            literalStart = close + 1;
+            open = template.indexOf('{', literalStart);
+        }
+        literals.add(template.substring(literalStart));
+        return new CompiledTemplate(template, literals, slots);
+    }
+
+    private static CompiledTemplate parse(String template, String placeholder) {
+        List<String> literals = new ArrayList<>();
+        List<Slot> slots = new ArrayList<>();
+        int literalStart = 0;
+        int index;
+        while ((index = template.indexOf(placeholder, literalStart)) != -1) {
+            literals.add(template.substring(literalStart, index));
+            slots.add(new Slot(SEQUENTIAL, -1, null, placeholder));
+            literalStart = index + placeholder.length();
+        }
+        literals.add(template.substring(literalStart));
+        return new CompiledTemplate(template, literals, slots);
+    }
+
+    /**
+     * 解析 {@code template[open..close]} 之间的占位符，不是合法占位符时返回 null
+     */
+    private static Slot parseSlot(String template, int open, int close) {
+        String raw = template.substring(open, close + 1);
+        if (close == open + 1) {
+            return new Slot(SEQUENTIAL, -1, null, raw);
+        }
+
+        char first = template.charAt(open + 1);
+        if (first >= '0' && first <= '9') {
+            long index = 0;
+            for (int i = open + 1; i < close; i++) {
+                char c = template.charAt(i);
+                if (c < '0' || c > '9') {
+                    return null;
+                }
+                index = index * 10 + (c - '0');
+                if (index > Integer.MAX_VALUE) {
+                    return null;
+                }
+            }
+            return new Slot(INDEXED, (int) index, null, raw);
+        }
+
+        if (!isIdentifierStart(first)) {
+            return null;
+        }
+        for (int i = open + 2; i < close; i++) {
+            char c = template.charAt(i);
+            if (!isIdentifierStart(c) && (c < '0' || c > '9')) {
+                return null;
+            }
+        }
+        return new Slot(NAMED, -1, template.substring(open + 1, close), raw);
+    }
+
+    private static boolean isIdentifierStart(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || c == '_';
+    }
+
+    /**
+     * 占位符槽位，{@code raw} 为占位符在模板中的原文
+     */
+    private static final class Slot {
+        private final byte kind;
+        private final int index;
+        private final String name;
+        private final String raw;
+
+        Slot(byte kind, int index, String name, String raw) {
+            this.kind = kind;
+            this.index = index;
+            this.name = name;
+            this.raw = raw;
+        }
+    }
+}
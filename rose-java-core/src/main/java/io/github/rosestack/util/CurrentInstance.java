@@ -17,11 +17,14 @@ package io.github.rosestack.util;
 
 import java.io.Serializable;
 import java.lang.ref.WeakReference;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -37,8 +40,16 @@ import org.slf4j.LoggerFactory;
  * a current instance value may suddenly disappear if another references to the
  * object.
  * <p>
- * Currently the framework uses the following instances:
- * </p>
+ * The instances of a thread form an immutable {@link Snapshot}, which is
+ * replaced rather than modified by {@link #set(Class, Object)}. Capturing the
+ * instances to hand them over to another thread is therefore O(1), see
+ * {@link #capture()} and the {@code wrap} methods. Each type is given a small
+ * slot index through a {@link ClassValue}, so a lookup is an array access
+ * without hashing or allocation:
+ * <pre>{@code
+ * Executor executor = CurrentInstance.wrap(Executors.newFixedThreadPool(4));
+ * CompletableFuture.runAsync(() -> CurrentInstance.get(User.class), executor);
+ * }</pre>
  *
  * <p>
  * For internal use only. May be renamed or removed in a future release.
@@ -53,7 +64,16 @@ public class CurrentInstance implements Serializable {
 
     private static final CurrentInstance CURRENT_INSTANCE_NULL = new CurrentInstance(NULL_OBJECT);
 
-    private static final ThreadLocal<Map<Class<?>, CurrentInstance>> instances = new ThreadLocal<>();
+    private static final ThreadLocal<Snapshot> instances = new ThreadLocal<>();
+
+    private static final AtomicInteger slotCounter = new AtomicInteger();
+
+    private static final ClassValue<Integer> slots = new ClassValue<Integer>() {
+        @Override
+        protected Integer computeValue(Class<?> type) {
+            return slotCounter.getAndIncrement();
+        }
+    };
 
     private final transient WeakReference<Object> instance;
 
@@ -75,11 +95,11 @@ public class CurrentInstance implements Serializable {
      * no current instance.
      */
     public static <T> T get(Class<T> type) {
-        Map<Class<?>, CurrentInstance> map = instances.get();
-        if (map == null) {
+        Snapshot snapshot = instances.get();
+        if (snapshot == null) {
             return null;
         }
-        CurrentInstance currentInstance = map.get(type);
+        CurrentInstance currentInstance = snapshot.find(slots.get(type));
         if (currentInstance != null) {
             Object value = currentInstance.instance.get();
             if (value == null) {
@@ -90,18 +110,10 @@ public class CurrentInstance implements Serializable {
                  * CurrentInstance.get().
                  *
                  * At this point, there might also be other values that have been
-                 * collected, so we'll scan the entire map and remove stale
-                 * CurrentInstance objects. Using a ReferenceQueue could make this
-                 * assumingly rare case slightly more efficient, but would significantly
-                 * increase the complexity of the code for maintaining a separate
-                 * ReferenceQueue for each Thread.
+                 * collected, so we'll scan the entire snapshot and remove stale
+                 * CurrentInstance objects.
                  */
-                removeStaleInstances(map);
-
-                if (map.isEmpty()) {
-                    instances.remove();
-                }
-
+                attach(removeStaleInstances(snapshot));
                 return null;
             }
             return type.cast(value);
@@ -110,22 +122,20 @@ public class CurrentInstance implements Serializable {
         }
     }
 
-    private static void removeStaleInstances(Map<Class<?>, CurrentInstance> map) {
-        int count = 0;
-        for (Iterator<Entry<Class<?>, CurrentInstance>> iterator =
-                        map.entrySet().iterator();
-                iterator.hasNext(); ) {
-            Entry<Class<?>, CurrentInstance> entry = iterator.next();
-            Object instance = entry.getValue().instance.get();
-            if (instance == null) {
-                iterator.remove();
-                count++;
-                log.debug("CurrentInstance for {} has been garbage collected.", entry.getKey());
+    private static Snapshot removeStaleInstances(Snapshot snapshot) {
+        Snapshot result = snapshot;
+        for (int slot = 0; slot < snapshot.values.length; slot++) {
+            CurrentInstance currentInstance = snapshot.values[slot];
+            if (currentInstance != null && currentInstance.instance.get() == null) {
+                log.debug("CurrentInstance for {} has been garbage collected.", snapshot.types[slot]);
+                result = result.without(slot);
             }
         }
+        int count = snapshot.size() - result.size();
         if (count > 0) {
             log.info("Removed {} stale instances from CurrentInstance.", count);
         }
+        return result;
     }
 
     /**
@@ -151,25 +161,16 @@ public class CurrentInstance implements Serializable {
      * @see ThreadLocal
      */
     private static <T> CurrentInstance doSet(Class<T> type, T instance) {
-        Map<Class<?>, CurrentInstance> map = instances.get();
-        CurrentInstance previousInstance = null;
+        int slot = slots.get(type);
+        Snapshot snapshot = capture();
+        CurrentInstance previousInstance = snapshot.find(slot);
         if (instance == null) {
-            if (map != null) {
-                previousInstance = map.remove(type);
-                if (map.isEmpty()) {
-                    instances.remove();
-                    map = null;
-                }
-                log.debug("Removed instance for type: {}", type);
+            if (previousInstance != null) {
+                attach(snapshot.without(slot));
             }
         } else {
             assert type.isInstance(instance) : "Invalid instance type";
-            if (map == null) {
-                map = new HashMap<>();
-                instances.set(map);
-            }
-            previousInstance = map.put(type, new CurrentInstance(instance));
-            log.debug("Set instance for type: {}", type);
+            attach(snapshot.with(slot, type, new CurrentInstance(instance)));
         }
         if (previousInstance == null) {
             previousInstance = CURRENT_INSTANCE_NULL;
@@ -184,6 +185,93 @@ public class CurrentInstance implements Serializable {
         instances.remove();
     }
 
+    /**
+     * Captures the current instances of this thread, in O(1) since the returned
+     * snapshot is immutable and shared rather than copied.
+     *
+     * @return the current instances, never <code>null</code>
+     */
+    public static Snapshot capture() {
+        Snapshot snapshot = instances.get();
+        return snapshot == null ? Snapshot.EMPTY : snapshot;
+    }
+
+    /**
+     * Replaces all current instances of this thread by the given snapshot.
+     * <pre>{@code
+     * Snapshot previous = CurrentInstance.attach(snapshot);
+     * try {
+     *     // ...
+     * } finally {
+     *     CurrentInstance.attach(previous);
+     * }
+     * }</pre>
+     *
+     * @param snapshot the instances captured by {@link #capture()}
+     * @return the instances replaced, to be attached again afterwards
+     */
+    public static Snapshot attach(Snapshot snapshot) {
+        Snapshot previous = capture();
+        if (snapshot == null || snapshot.isEmpty()) {
+            instances.remove();
+        } else {
+            instances.set(snapshot);
+        }
+        return previous;
+    }
+
+    /**
+     * Wraps a task so that it runs with the current instances of the calling
+     * thread, and restores the instances of the executing thread afterwards.
+     *
+     * @param task the task
+     * @return the task bound to the current instances
+     */
+    public static Runnable wrap(Runnable task) {
+        Snapshot snapshot = capture();
+        return () -> {
+            Snapshot previous = attach(snapshot);
+            try {
+                task.run();
+            } finally {
+                attach(previous);
+            }
+        };
+    }
+
+    /**
+     * Wraps a task so that it runs with the current instances of the calling
+     * thread, and restores the instances of the executing thread afterwards.
+     *
+     * @param <V>  the result type
+     * @param task the task
+     * @return the task bound to the current instances
+     */
+    public static <V> Callable<V> wrap(Callable<V> task) {
+        Snapshot snapshot = capture();
+        return () -> {
+            Snapshot previous = attach(snapshot);
+            try {
+                return task.call();
+            } finally {
+                attach(previous);
+            }
+        };
+    }
+
+    /**
+     * Wraps an executor so that every task runs with the current instances of
+     * the thread submitting it. This works for any executor, including
+     * {@link java.util.concurrent.CompletableFuture} async stages given the
+     * wrapped executor.
+     *
+     * @param executor the executor
+     * @return the executor propagating the current instances
+     */
+    public static Executor wrap(Executor executor) {
+        return command -> executor.execute(wrap(command));
+    }
+
     /**
      * Restores the given instances to the given values. Note that this should only
      * be
@@ -193,14 +281,11 @@ public class CurrentInstance implements Serializable {
      */
     @SuppressWarnings({"unchecked", "rawtypes"})
     public static void restoreInstances(Map<Class<?>, CurrentInstance> old) {
-        boolean removeStale = false;
         for (Entry<Class<?>, CurrentInstance> entry : old.entrySet()) {
             Class c = entry.getKey();
             CurrentInstance ci = entry.getValue();
             Object v = ci.instance.get();
-            if (v == null) {
-                removeStale = true;
-            } else if (v == NULL_OBJECT) {
+            if (v == NULL_OBJECT) {
                 /*
                  * NULL_OBJECT is used to identify objects that are null when
                  * #setCurrent(UI) or #setCurrent(VaadinSession) are called on a
@@ -219,42 +304,93 @@ public class CurrentInstance implements Serializable {
             }
             set(c, v);
         }
-
-        if (removeStale) {
-            removeStaleInstances(old);
-        }
     }
 
     /**
      * Gets the currently set instances so that they can later be restored using
-     * {@link #restoreInstances(Map)}.
+     * {@link #restoreInstances(Map)}. Prefer {@link #capture()}, which does not
+     * copy.
      *
      * @return a map containing the current instances
      */
     public static Map<Class<?>, CurrentInstance> getInstances() {
-        Map<Class<?>, CurrentInstance> map = instances.get();
-        if (map == null) {
+        Snapshot snapshot = instances.get();
+        if (snapshot == null) {
             return Collections.emptyMap();
         } else {
             Map<Class<?>, CurrentInstance> copy = new HashMap<>();
-            boolean removeStale = false;
-            for (Entry<Class<?>, CurrentInstance> entry : map.entrySet()) {
-                Class<?> c = entry.getKey();
-                CurrentInstance ci = entry.getValue();
-                if (ci.instance.get() == null) {
-                    removeStale = true;
-                } else {
-                    copy.put(c, ci);
+            for (int slot = 0; slot < snapshot.values.length; slot++) {
+                CurrentInstance currentInstance = snapshot.values[slot];
+                if (currentInstance != null && currentInstance.instance.get() != null) {
+                    copy.put(snapshot.types[slot], currentInstance);
                 }
             }
-            if (removeStale) {
-                removeStaleInstances(map);
-                if (map.isEmpty()) {
-                    instances.remove();
-                }
+            if (copy.size() < snapshot.size()) {
+                attach(removeStaleInstances(snapshot));
             }
             log.debug("Retrieved {} instances from CurrentInstance.", copy.size());
             return copy;
         }
     }
+
+    /**
+     * An immutable set of current instances. Setting an instance creates a new
+     * snapshot, so a captured snapshot can be shared between threads without
+     * copying. The instances are indexed by the slot of their type.
+     */
+    public static final class Snapshot {
+
+        static final Snapshot EMPTY = new Snapshot(new Class<?>[0], new CurrentInstance[0], 0);
+
+        private final Class<?>[] types;
+
+        private final CurrentInstance[] values;
+
+        private final int size;
+
+        private Snapshot(Class<?>[] types, CurrentInstance[] values, int size) {
+            this.types = types;
+            this.values = values;
+            this.size = size;
+        }
+
+        /**
+         * @return the number of instance types, including garbage collected instances
+         */
+        public int size() {
+            return size;
+        }
+
+        public boolean isEmpty() {
+            return size == 0;
+        }
+
+        CurrentInstance find(int slot) {
+            return slot < values.length ? values[slot] : null;
+        }
+
+        Snapshot with(int slot, Class<?> type, CurrentInstance value) {
+            int length = Math.max(values.length, slot + 1);
+            Class<?>[] newTypes = Arrays.copyOf(types, length);
+            CurrentInstance[] newValues = Arrays.copyOf(values, length);
+            int newSize = newValues[slot] == null ? size + 1 : size;
+            newTypes[slot] = type;
+            newValues[slot] = value;
+            return new Snapshot(newTypes, newValues, newSize);
+        }
+
+        Snapshot without(int slot) {
+            if (find(slot) == null) {
+                return this;
+            }
+            if (size == 1) {
+                return EMPTY;
+            }
+            Class<?>[] newTypes = types.clone();
+            CurrentInstance[] newValues = values.clone();
+            newTypes[slot] = null;
+            newValues[slot] = null;
+            return new Snapshot(newTypes, newValues, size - 1);
+        }
+    }
 }
@@ -0,0 +1,69 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.rosestack.util;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+
+import static java.util.Collections.unmodifiableSet;
+
+/**
+ * The {@link ShutdownTask} created by {@link ShutdownTask#of} and {@link ShutdownTask#async}
+ *
+ * @author chensoul
+ * @see ShutdownTask
+ * @since 1.0.0
+ */
+final class DefaultShutdownTask implements ShutdownTask {
+
+    private final String name;
+
+    private final Callable<? extends CompletableFuture<?>> action;
+
+    private final Collection<String> dependencies;
+
+    DefaultShutdownTask(String name, Callable<? extends CompletableFuture<?>> action, String... dependsOn) {
+        Assert.assertNotBlank(name, "name must not be blank");
+        Assert.assertNoNullElements(dependsOn, "dependsOn must not contain null");
+        this.name = name;
+        this.action = action;
+        this.dependencies = unmodifiableSet(new LinkedHashSet<>(Arrays.asList(dependsOn)));
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Collection<String> getDependencies() {
+        return dependencies;
+    }
+
+    @Override
+    public CompletableFuture<?> execute() throws Exception {
+        return action.call();
+    }
+
+    @Override
+    public String toString() {
+        return "ShutdownTask{name='" + name + "', dependencies=" + dependencies + '}';
+    }
+}
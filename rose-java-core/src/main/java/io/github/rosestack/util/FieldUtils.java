@@ -1,15 +0,0 @@
-package io.github.rosestack.util;
-
-import java.util.Map;
-
-/**
- * TODO Comment
- *
- * @author <a href="mailto:ichensoul@gmail.com">chensoul</a>
- * @since TODO
- */
-public class FieldUtils {
-    public static Map<Thread, Thread> getStaticFieldValue(Class<?> applicationShutdownHooksClass, String hooksFieldName) {
-        return null;
-    }
-}
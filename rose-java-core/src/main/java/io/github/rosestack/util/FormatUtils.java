@@ -1,15 +1,19 @@
 package io.github.rosestack.util;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Locale;
 import java.util.Map;
 import java.util.TimeZone;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 public abstract class FormatUtils {
     public static final String DEFAULT_PLACEHOLDER = "{}";
-    private static final Pattern NAMED_PARAMETER_PATTERN = Pattern.compile("\\{([a-zA-Z_][a-zA-Z0-9_]*)\\}");
-    private static final Pattern INDEXED_PARAMETER_PATTERN = Pattern.compile("\\{(\\d+)\\}");
+    /**
+     * 线程复用缓冲区的容量上限，超出后丢弃，避免长期占用大块内存
+     */
+    private static final int MAX_BUFFER_CAPACITY = 8192;
+
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(256));
 
     private FormatUtils() {}
 
@@ -71,22 +75,11 @@ public abstract class FormatUtils {
             return template;
         }
 
-        String result = template;
-
-        for (int i = 0; i < args.length; i++) {
-            int index = result.indexOf(placeholder);
-            if (index == -1) {
-                break;
-            }
-            String value = LocaleFormatUtils.formatValue(args[i], locale, timeZone);
-            result = result.substring(0, index) + value + result.substring(index + placeholder.length());
-        }
-
-        return result;
+        return CompiledTemplate.compile(template, placeholder).render(locale, timeZone, args);
     }
 
     /**
-     * 格式化命名参数（使用正则表达式，更高效）
+     * 格式化命名参数（使用预编译模板）
      *
      * @param template 模板字符串
      * @param map      变量映射
@@ -101,7 +94,7 @@ public abstract class FormatUtils {
     }
 
     /**
-     * 格式化命名参数（使用正则表达式，更高效，支持本地化）
+     * 格式化命名参数（使用预编译模板，支持本地化）
      *
      * @param template 模板字符串
      * @param map      变量映射
@@ -117,30 +110,11 @@ public abstract class FormatUtils {
             return template;
         }
 
-        Matcher matcher = NAMED_PARAMETER_PATTERN.matcher(template);
-        StringBuffer result = new StringBuffer();
-
-        while (matcher.find()) {
-            String key = matcher.group(1);
-            Object value = map.get(key);
-            String replacement;
-            if (value != null) {
-                replacement = LocaleFormatUtils.formatValue(value, locale, timeZone);
-                // 转义特殊字符
-                replacement = Matcher.quoteReplacement(replacement);
-            } else {
-                // 如果参数不存在，保留原始占位符
-                replacement = matcher.group(0);
-            }
-            matcher.appendReplacement(result, replacement);
-        }
-        matcher.appendTail(result);
-
-        return result.toString();
+        return CompiledTemplate.compile(template).renderNamed(locale, timeZone, map);
     }
 
     /**
-     * 格式化索引参数（使用正则表达式，更高效）
+     * 格式化索引参数（使用预编译模板）
      *
      * @param template 模板字符串
      * @param args     参数数组
@@ -151,7 +125,7 @@ public abstract class FormatUtils {
     }
 
     /**
-     * 格式化索引参数（使用正则表达式，更高效，支持本地化）
+     * 格式化索引参数（使用预编译模板，支持本地化）
      *
      * @param template 模板字符串
      * @param locale   本地化设置
@@ -167,29 +141,7 @@ public abstract class FormatUtils {
             return template;
         }
 
-        Matcher matcher = INDEXED_PARAMETER_PATTERN.matcher(template);
-        StringBuffer result = new StringBuffer();
-
-        while (matcher.find()) {
-            try {
-                int index = Integer.parseInt(matcher.group(1));
-                if (index >= 0 && index < args.length) {
-                    String replacement = LocaleFormatUtils.formatValue(args[index], locale, timeZone);
-                    // 转义特殊字符
-                    replacement = Matcher.quoteReplacement(replacement);
-                    matcher.appendReplacement(result, replacement);
-                } else {
-                    // 索引超出范围，保持原样
-                    matcher.appendReplacement(result, matcher.group(0));
-                }
-            } catch (NumberFormatException e) {
-                // 解析索引失败，保持原样
-                matcher.appendReplacement(result, matcher.group(0));
-            }
-        }
-        matcher.appendTail(result);
-
-        return result.toString();
+        return CompiledTemplate.compile(template).renderIndexed(locale, timeZone, args);
     }
 
     /**
@@ -219,43 +171,203 @@ public abstract class FormatUtils {
             return template;
         }
 
+        CompiledTemplate compiled = CompiledTemplate.compile(template);
         if (args instanceof Map) {
             @SuppressWarnings("unchecked")
             Map<String, ?> map = (Map<String, ?>) args;
 
             // 检测是否包含命名参数
-            if (NAMED_PARAMETER_PATTERN.matcher(template).find()) {
-                return replaceNamedParameters(template, locale, timeZone, map);
+            if (compiled.hasNamedParameters()) {
+                return compiled.renderNamed(locale, timeZone, map);
             }
 
             // 检测是否包含索引参数
-            if (INDEXED_PARAMETER_PATTERN.matcher(template).find()) {
-                return replaceIndexedParameters(template, locale, map.values().toArray());
+            if (compiled.hasIndexedParameters()) {
+                return compiled.renderIndexed(locale, timeZone, map.values().toArray());
             }
 
             // 默认使用变量格式化
-            return replaceNamedParameters(template, locale, timeZone, map);
+            return compiled.renderNamed(locale, timeZone, map);
         } else if (args instanceof Object[]) {
             Object[] array = (Object[]) args;
 
             // 检测是否包含索引参数
-            if (INDEXED_PARAMETER_PATTERN.matcher(template).find()) {
-                return replaceIndexedParameters(template, locale, array);
-            }
-
-            // 检测是否包含占位符
-            if (template.contains(DEFAULT_PLACEHOLDER)) {
-                return replacePlaceholders(template, locale, array);
+            if (compiled.hasIndexedParameters()) {
+                return compiled.renderIndexed(locale, timeZone, array);
             }
 
             // 默认使用占位符格式化
-            return replacePlaceholders(template, locale, array);
+            return compiled.render(locale, timeZone, array);
         } else {
             // 单个对象，使用占位符格式化
-            if (template.contains(DEFAULT_PLACEHOLDER)) {
-                return replacePlaceholders(template, locale, args);
-            }
-            return template;
+            return compiled.render(locale, timeZone, args);
+        }
+    }
+
+    /**
+     * 格式化并追加到目标 {@link StringBuilder}：包含索引参数时按下标替换，否则按顺序替换占位符
+     *
+     * @param target   目标
+     * @param template 模板字符串
+     * @param args     参数数组
+     * @return 目标
+     */
+    public static StringBuilder formatTo(final StringBuilder target, final String template, final Object... args) {
+        return formatTo(target, template, Locale.getDefault(), TimeZone.getDefault(), args);
+    }
+
+    /**
+     * 格式化并追加到目标 {@link StringBuilder}（支持本地化）
+     *
+     * @param target   目标
+     * @param template 模板字符串
+     * @param locale   本地化设置
+     * @param timeZone 时区设置
+     * @param args     参数数组
+     * @return 目标
+     */
+    public static StringBuilder formatTo(
+            final StringBuilder target,
+            final String template,
+            final Locale locale,
+            final TimeZone timeZone,
+            final Object... args) {
+        if (template == null) {
+            return target;
+        }
+
+        CompiledTemplate compiled = CompiledTemplate.compile(template);
+        if (compiled.hasIndexedParameters()) {
+            return compiled.renderIndexedTo(target, locale, timeZone, args);
+        }
+        return compiled.renderTo(target, locale, timeZone, args);
+    }
+
+    /**
+     * 按命名参数格式化并追加到目标 {@link StringBuilder}
+     *
+     * @param target   目标
+     * @param template 模板字符串
+     * @param map      变量映射
+     * @return 目标
+     */
+    public static StringBuilder formatTo(final StringBuilder target, final String template, final Map<String, ?> map) {
+        return formatTo(target, template, Locale.getDefault(), TimeZone.getDefault(), map);
+    }
+
+    /**
+     * 按命名参数格式化并追加到目标 {@link StringBuilder}（支持本地化）
+     *
+     * @param target   目标
+     * @param template 模板字符串
+     * @param locale   本地化设置
+     * @param timeZone 时区设置
+     * @param map      变量映射
+     * @return 目标
+     */
+    public static StringBuilder formatTo(
+            final StringBuilder target,
+            final String template,
+            final Locale locale,
+            final TimeZone timeZone,
+            final Map<String, ?> map) {
+        if (template == null) {
+            return target;
+        }
+        return CompiledTemplate.compile(template).renderNamedTo(target, locale, timeZone, map);
+    }
+
+    /**
+     * 格式化并追加到目标 {@link Appendable}
+     *
+     * @param target   目标
+     * @param template 模板字符串
+     * @param args     参数数组
+     * @return 目标
+     * @throws UncheckedIOException 写入目标失败时
+     */
+    public static Appendable formatTo(final Appendable target, final String template, final Object... args) {
+        return formatTo(target, template, Locale.getDefault(), TimeZone.getDefault(), args);
+    }
+
+    /**
+     * 格式化并追加到目标 {@link Appendable}（支持本地化）
+     *
+     * <p>先写入当前线程复用的缓冲区，再一次性追加到目标。
+     *
+     * @param target   目标
+     * @param template 模板字符串
+     * @param locale   本地化设置
+     * @param timeZone 时区设置
+     * @param args     参数数组
+     * @return 目标
+     * @throws UncheckedIOException 写入目标失败时
+     */
+    public static Appendable formatTo(
+            final Appendable target,
+            final String template,
+            final Locale locale,
+            final TimeZone timeZone,
+            final Object... args) {
+        if (target instanceof StringBuilder) {
+            return formatTo((StringBuilder) target, template, locale, timeZone, args);
+        }
+
+        StringBuilder buffer = acquireBuffer();
+        try {
+            formatTo(buffer, template, locale, timeZone, args);
+            target.append(buffer);
+            return target;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            releaseBuffer(buffer);
+        }
+    }
+
+    /**
+     * 按命名参数格式化并追加到目标 {@link Appendable}
+     *
+     * @param target   目标
+     * @param template 模板字符串
+     * @param map      变量映射
+     * @return 目标
+     * @throws UncheckedIOException 写入目标失败时
+     */
+    public static Appendable formatTo(final Appendable target, final String template, final Map<String, ?> map) {
+        return formatTo(target, template, Locale.getDefault(), TimeZone.getDefault(), map);
+    }
+
+    /**
+     * 按命名参数格式化并追加到目标 {@link Appendable}（支持本地化）
+     *
+     * @param target   目标
+     * @param template 模板字符串
+     * @param locale   本地化设置
+     * @param timeZone 时区设置
+     * @param map      变量映射
+     * @return 目标
+     * @throws UncheckedIOException 写入目标失败时
+     */
+    public static Appendable formatTo(
+            final Appendable target,
+            final String template,
+            final Locale locale,
+            final TimeZone timeZone,
+            final Map<String, ?> map) {
+        if (target instanceof StringBuilder) {
+            return formatTo((StringBuilder) target, template, locale, timeZone, map);
+        }
+
+        StringBuilder buffer = acquireBuffer();
+        try {
+            formatTo(buffer, template, locale, timeZone, map);
+            target.append(buffer);
+            return target;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            releaseBuffer(buffer);
         }
     }
 
@@ -281,7 +393,7 @@ public abstract class FormatUtils {
      */
     public static boolean hasNamedParameters(final String template) {
         return StringUtils.isNotBlank(template)
-                && NAMED_PARAMETER_PATTERN.matcher(template).find();
+                && CompiledTemplate.compile(template).hasNamedParameters();
     }
 
     /**
@@ -292,7 +404,7 @@ public abstract class FormatUtils {
      */
     public static boolean hasIndexedParameters(final String template) {
         return StringUtils.isNotBlank(template)
-                && INDEXED_PARAMETER_PATTERN.matcher(template).find();
+                && CompiledTemplate.compile(template).hasIndexedParameters();
     }
 
     public static int countPlaceholders(final String template) {
@@ -327,11 +439,25 @@ public abstract class FormatUtils {
         if (StringUtils.isBlank(template)) {
             return 0;
         }
-        Matcher matcher = NAMED_PARAMETER_PATTERN.matcher(template);
-        int count = 0;
-        while (matcher.find()) {
-            count++;
+        return CompiledTemplate.compile(template).countNamedParameters();
+    }
+
+    /**
+     * 取出当前线程的缓冲区，取出期间其他调用（如参数的 toString 中再次格式化）会创建新的缓冲区
+     */
+    private static StringBuilder acquireBuffer() {
+        StringBuilder buffer = BUFFER.get();
+        if (buffer == null) {
+            return new StringBuilder(256);
+        }
+        BUFFER.set(null);
+        buffer.setLength(0);
+        return buffer;
+    }
+
+    private static void releaseBuffer(StringBuilder buffer) {
+        if (buffer.capacity() <= MAX_BUFFER_CAPACITY) {
+            BUFFER.set(buffer);
         }
-        return count;
     }
 }
@@ -0,0 +1,128 @@
+package io.github.rosestack.util;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+
+/**
+ * 延迟格式化的消息，保存模板和参数，首次调用 {@link #toString()} 时才通过 {@link FormatUtils#format(String, Object)}
+ * 渲染并缓存结果
+ *
+ * <p>可直接作为SLF4J的日志参数，日志级别未开启时不会格式化；也用于 {@code BaseException} 的消息，异常被捕获后不读取消息时不产生格式化开销。
+ *
+ * <pre>{@code
+ * log.debug("{}", FormattedMessage.of("用户 {} 登录失败，剩余 {} 次", username, remaining));
+ * }</pre>
+ *
+ * @author chensoul
+ * @since 1.0.0
+ */
+public final class FormattedMessage implements CharSequence, Serializable {
+    private static final long serialVersionUID = 1L;
+    private static final Object[] NO_ARGS = new Object[0];
+
+    private final String template;
+    /**
+     * 参数不参与序列化，序列化前先完成渲染
+     */
+    private transient Object[] args;
+    /**
+     * 渲染结果，String不可变，并发下最多重复渲染一次，无需同步
+     */
+    private String formatted;
+
+    private FormattedMessage(String template, Object[] args) {
+        this.template = template;
+        this.args = args != null ? args : NO_ARGS;
+    }
+
+    /**
+     * 创建延迟格式化的消息
+     *
+     * @param template 模板字符串，支持 {} 占位符和 {0} 索引参数
+     * @param args     参数
+     * @return 消息
+     */
+    public static FormattedMessage of(String template, Object... args) {
+        return new FormattedMessage(template, args);
+    }
+
+    /**
+     * 获取模板字符串
+     *
+     * @return 模板字符串
+     */
+    public String getTemplate() {
+        return template;
+    }
+
+    /**
+     * 获取参数，反序列化得到的消息没有参数
+     *
+     * @return 参数数组
+     */
+    public Object[] getArgs() {
+        return args;
+    }
+
+    /**
+     * 是否已经渲染
+     *
+     * @return 已渲染返回true
+     */
+    public boolean isFormatted() {
+        return formatted != null;
+    }
+
+    @Override
+    public int length() {
+        return toString().length();
+    }
+
+    @Override
+    public char charAt(int index) {
+        return toString().charAt(index);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        return toString().substring(start, end);
+    }
+
+    @Override
+    public String toString() {
+        String result = formatted;
+        if (result == null) {
+            result = render();
+            formatted = result;
+        }
+        return result;
+    }
+
+    private String render() {
+        if (template == null) {
+            return "null";
+        }
+        if (args.length == 0) {
+            return template;
+        }
+
+        try {
+            return FormatUtils.format(template, args);
+        } catch (RuntimeException e) {
+            // 参数的toString()失败时保留模板，避免消息读取（如打印异常堆栈）本身抛出异常
+            return template;
+        }
+    }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        toString();
+        out.defaultWriteObject();
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        args = NO_ARGS;
+    }
+}
@@ -1,19 +1,29 @@
 package io.github.rosestack.util;
 
 import java.math.BigDecimal;
+import java.text.DateFormat;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.text.FieldPosition;
 import java.text.NumberFormat;
+import java.text.SimpleDateFormat;
 import java.time.*;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAccessor;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.util.StdDateFormat;
 
 import lombok.extern.slf4j.Slf4j;
 
 /**
- * 本地化格式化工具类 使用Jackson ObjectMapper处理日期时间格式化，支持统一的时区和格式配置
+ * 本地化格式化工具类 日期时间按Jackson ObjectMapper的配置格式化，支持统一的时区和格式配置
  *
  * @author <a href="mailto:ichensoul@gmail.com">chensoul</a>
  * @since 1.0.0
@@ -21,17 +31,102 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public abstract class LocaleFormatUtils {
     /**
-     * NumberFormat缓存，避免重复创建
+     * NumberFormat原型缓存，NumberFormat不是线程安全的，原型只用于克隆出每个线程自己的实例
      */
     private static final Map<Locale, NumberFormat> NUMBER_FORMAT_CACHE = new ConcurrentHashMap<>();
+    /**
+     * 数字符号缓存，用于整数的直接格式化
+     */
+    private static final Map<Locale, NumberSymbols> NUMBER_SYMBOLS_CACHE = new ConcurrentHashMap<>();
     /**
      * 常用的null字符串
      */
     private static final String NULL_STRING = "null";
+    /**
+     * 集合与数组元素分隔符
+     */
+    private static final String ELEMENT_SEPARATOR = ", ";
+    /**
+     * 每个线程独占的NumberFormat实例与格式化缓冲区
+     */
+    private static final ThreadLocal<ThreadNumberFormats> THREAD_NUMBER_FORMATS =
+            ThreadLocal.withInitial(ThreadNumberFormats::new);
     /**
      * 使用Jackson ObjectMapper进行日期时间格式化 这样可以统一使用应用配置的日期格式和时区设置
      */
     private static volatile ObjectMapper objectMapper;
+    /**
+     * 当前ObjectMapper及其配置对应的日期时间格式化器，ObjectMapper或其配置变更后重建
+     */
+    private static volatile DateTimeFormatters dateTimeFormatters;
+    /**
+     * 已注册的格式化函数
+     */
+    private static final Map<Class<?>, ValueFormatter<?>> FORMATTERS = new ConcurrentHashMap<>();
+    /**
+     * 按具体类型缓存的格式化函数，注册或注销格式化函数后整体重建
+     */
+    private static volatile ClassValue<ValueFormatter<Object>> dispatch = createDispatch();
+
+    private static final ValueFormatter<Object> STRING_FORMATTER = new ValueFormatter<Object>() {
+        @Override
+        public void formatTo(StringBuilder target, Object value, Locale locale, TimeZone timeZone) {
+            target.append((String) value);
+        }
+
+        @Override
+        public String format(Object value, Locale locale, TimeZone timeZone) {
+            return (String) value;
+        }
+    };
+    private static final ValueFormatter<Object> TO_STRING_FORMATTER = new ValueFormatter<Object>() {
+        @Override
+        public void formatTo(StringBuilder target, Object value, Locale locale, TimeZone timeZone) {
+            target.append(value);
+        }
+
+        @Override
+        public String format(Object value, Locale locale, TimeZone timeZone) {
+            return value.toString();
+        }
+    };
+    private static final ValueFormatter<Object> NUMBER_FORMATTER = new ValueFormatter<Object>() {
+        @Override
+        public void formatTo(StringBuilder target, Object value, Locale locale, TimeZone timeZone) {
+            appendNumber(target, (Number) value, locale);
+        }
+
+        @Override
+        public String format(Object value, Locale locale, TimeZone timeZone) {
+            return formatNumber((Number) value, locale);
+        }
+    };
+    private static final ValueFormatter<Object> CURRENCY_FORMATTER = new ValueFormatter<Object>() {
+        @Override
+        public void formatTo(StringBuilder target, Object value, Locale locale, TimeZone timeZone) {
+            target.append(format(value, locale, timeZone));
+        }
+
+        @Override
+        public String format(Object value, Locale locale, TimeZone timeZone) {
+            return formatCurrency((Currency) value, locale);
+        }
+    };
+    private static final ValueFormatter<Object> TIME_ZONE_FORMATTER = new ValueFormatter<Object>() {
+        @Override
+        public void formatTo(StringBuilder target, Object value, Locale locale, TimeZone timeZone) {
+            target.append(format(value, locale, timeZone));
+        }
+
+        @Override
+        public String format(Object value, Locale locale, TimeZone timeZone) {
+            return formatTimeZone((TimeZone) value, locale);
+        }
+    };
+    private static final ValueFormatter<Object> DATE_TIME_FORMATTER = LocaleFormatUtils::appendDateTime;
+    private static final ValueFormatter<Object> COLLECTION_FORMATTER =
+            (target, value, locale, timeZone) -> appendCollection(target, (Collection<?>) value, locale, timeZone);
+    private static final ValueFormatter<Object> ARRAY_FORMATTER = LocaleFormatUtils::appendArray;
 
     private LocaleFormatUtils() {}
 
@@ -46,6 +141,7 @@ public abstract class LocaleFormatUtils {
 
     public static void setObjectMapper(ObjectMapper mapper) {
         objectMapper = mapper;
+        dateTimeFormatters = null;
     }
 
     /**
@@ -81,40 +177,145 @@ public abstract class LocaleFormatUtils {
         if (value == null) {
             return NULL_STRING;
         }
+        return formatter(value.getClass()).format(value, locale, timeZone);
+    }
 
-        // 基本类型 - 快速路径
-        if (value instanceof String) {
-            return (String) value;
+    /**
+     * 格式化单个值并追加到目标 {@link StringBuilder}
+     *
+     * @param target 目标
+     * @param value  要格式化的值
+     * @return 目标
+     */
+    public static StringBuilder formatValueTo(final StringBuilder target, final Object value) {
+        return formatValueTo(target, value, Locale.getDefault(), TimeZone.getDefault());
+    }
+
+    /**
+     * 格式化单个值并追加到目标 {@link StringBuilder}（支持本地化和时区）
+     *
+     * <p>数字、日期时间、集合与基本类型数组直接写入目标，不装箱、不创建中间集合。
+     *
+     * @param target   目标
+     * @param value    要格式化的值
+     * @param locale   本地化设置
+     * @param timeZone 时区设置
+     * @return 目标
+     */
+    public static StringBuilder formatValueTo(
+            final StringBuilder target, final Object value, final Locale locale, final TimeZone timeZone) {
+        if (value == null) {
+            return target.append(NULL_STRING);
         }
-        if (value instanceof Boolean || value instanceof Character) {
-            return value.toString();
+        formatter(value.getClass()).formatTo(target, value, locale, timeZone);
+        return target;
+    }
+
+    /**
+     * 注册类型的格式化函数，对该类型及其子类型（包括接口的实现类）生效，优先于内置的格式化规则
+     *
+     * <p>一个值有多个已注册的父类型时，继承链上最近的类优先，其次是接口。例如注册 {@link BaseEnum} 可以让所有业务枚举按名称输出。
+     *
+     * @param type      类型
+     * @param formatter 格式化函数
+     * @param <T>       值类型
+     */
+    public static synchronized <T> void register(final Class<T> type, final ValueFormatter<? super T> formatter) {
+        Assert.assertNotNull(type, "type must not be null");
+        Assert.assertNotNull(formatter, "formatter must not be null");
+        FORMATTERS.put(type, formatter);
+        dispatch = createDispatch();
+    }
+
+    /**
+     * 注销类型的格式化函数，该类型恢复为内置的格式化规则
+     *
+     * @param type 类型
+     */
+    public static synchronized void unregister(final Class<?> type) {
+        if (type != null && FORMATTERS.remove(type) != null) {
+            dispatch = createDispatch();
         }
+    }
 
-        // 数字类型 - 统一处理
-        if (value instanceof Number) {
-            return formatNumber((Number) value, locale);
+    /**
+     * 获取具体类型的格式化函数，每个类型只解析一次
+     */
+    private static ValueFormatter<Object> formatter(final Class<?> type) {
+        return dispatch.get(type);
+    }
+
+    private static ClassValue<ValueFormatter<Object>> createDispatch() {
+        return new ClassValue<ValueFormatter<Object>>() {
+            @Override
+            protected ValueFormatter<Object> computeValue(Class<?> type) {
+                return resolveFormatter(type);
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ValueFormatter<Object> resolveFormatter(final Class<?> type) {
+        ValueFormatter<?> registered = findRegistered(type);
+        if (registered != null) {
+            return (ValueFormatter<Object>) registered;
         }
 
-        // 日期时间类型 - 使用Jackson ObjectMapper进行格式化，统一时区和格式处理
-        if (isDateTimeType(value)) {
-            return formatDateTimeWithJackson(value, locale, timeZone);
+        if (type == String.class) {
+            return STRING_FORMATTER;
         }
-        // 其他类型
-        if (value instanceof Currency) {
-            return formatCurrency((Currency) value, locale);
+        if (Number.class.isAssignableFrom(type)) {
+            return NUMBER_FORMATTER;
         }
-        if (value instanceof Collection) {
-            return formatCollection((Collection<?>) value, locale, timeZone);
+        if (isDateTimeType(type)) {
+            return DATE_TIME_FORMATTER;
         }
-        if (value.getClass().isArray()) {
-            return formatArray(value, locale, timeZone);
+        if (Currency.class.isAssignableFrom(type)) {
+            return CURRENCY_FORMATTER;
         }
-        if (value instanceof TimeZone) {
-            return formatTimeZone((TimeZone) value, locale);
+        if (Collection.class.isAssignableFrom(type)) {
+            return COLLECTION_FORMATTER;
+        }
+        if (type.isArray()) {
+            return ARRAY_FORMATTER;
+        }
+        if (TimeZone.class.isAssignableFrom(type)) {
+            return TIME_ZONE_FORMATTER;
+        }
+        // Boolean、Character及其他类型，使用toString()
+        return TO_STRING_FORMATTER;
+    }
+
+    /**
+     * 查找已注册的格式化函数，先沿继承链查找类，再按广度优先查找接口
+     */
+    private static ValueFormatter<?> findRegistered(final Class<?> type) {
+        if (FORMATTERS.isEmpty()) {
+            return null;
         }
 
-        // 对于其他类型，使用toString()
-        return value.toString();
+        Deque<Class<?>> interfaces = new ArrayDeque<>();
+        for (Class<?> clazz = type; clazz != null; clazz = clazz.getSuperclass()) {
+            ValueFormatter<?> formatter = FORMATTERS.get(clazz);
+            if (formatter != null) {
+                return formatter;
+            }
+            Collections.addAll(interfaces, clazz.getInterfaces());
+        }
+
+        Set<Class<?>> visited = new HashSet<>();
+        while (!interfaces.isEmpty()) {
+            Class<?> candidate = interfaces.poll();
+            if (!visited.add(candidate)) {
+                continue;
+            }
+            ValueFormatter<?> formatter = FORMATTERS.get(candidate);
+            if (formatter != null) {
+                return formatter;
+            }
+            Collections.addAll(interfaces, candidate.getInterfaces());
+        }
+        return null;
     }
 
     /**
@@ -130,16 +331,7 @@ public abstract class LocaleFormatUtils {
         }
 
         try {
-            NumberFormat formatter = getNumberFormat(locale);
-
-            // 特殊处理BigDecimal的精度
-            if (number instanceof BigDecimal) {
-                BigDecimal decimal = (BigDecimal) number;
-                formatter.setMaximumFractionDigits(decimal.scale());
-                formatter.setMinimumFractionDigits(0);
-            }
-
-            return formatter.format(number);
+            return appendNumber(new StringBuilder(24), number, locale).toString();
         } catch (Exception e) {
             log.warn("Failed to format number: {}, fallback to toString()", number, e);
             return number.toString();
@@ -147,23 +339,26 @@ public abstract class LocaleFormatUtils {
     }
 
     /**
-     * 获取NumberFormat实例，使用缓存提高性能
+     * 获取NumberFormat原型，使用缓存提高性能
      *
      * @param locale 本地化设置
-     * @return NumberFormat实例
+     * @return NumberFormat原型，调用方不得直接用于格式化
      */
     private static NumberFormat getNumberFormat(final Locale locale) {
         return NUMBER_FORMAT_CACHE.computeIfAbsent(locale, NumberFormat::getInstance);
     }
 
+    private static NumberSymbols getNumberSymbols(final Locale locale) {
+        return NUMBER_SYMBOLS_CACHE.computeIfAbsent(locale, key -> NumberSymbols.of(getNumberFormat(key)));
+    }
+
     /**
      * 判断是否为日期时间类型 使用更高效的类型判断方式
      *
-     * @param value 要判断的值
+     * @param clazz 要判断的类型
      * @return 是否为日期时间类型
      */
-    private static boolean isDateTimeType(Object value) {
-        Class<?> clazz = value.getClass();
+    private static boolean isDateTimeType(Class<?> clazz) {
         return Date.class.isAssignableFrom(clazz)
                 || LocalDate.class.equals(clazz)
                 || LocalTime.class.equals(clazz)
@@ -173,32 +368,25 @@ public abstract class LocaleFormatUtils {
     }
 
     /**
-     * 使用Jackson ObjectMapper格式化日期时间类型 这样可以统一使用应用配置的日期格式和时区设置，不需要关心具体的格式化样式
+     * 追加日期时间，使用按 (ObjectMapper, 类型, locale, 时区) 缓存的格式化器
      *
-     * @param value    日期时间对象
-     * @param locale   本地化设置（注意：Jackson主要通过配置文件控制格式，locale在这里影响有限）
-     * @param timeZone 时区设置，用于日期时间的时区转换
-     * @return 格式化后的字符串
+     * <p>格式化器首次使用时解析：优先选用与ObjectMapper序列化结果一致的 {@link java.time.format.DateTimeFormatter}，
+     * 无法匹配时退回到缓存的 {@link ObjectWriter}，不再为每次调用复制ObjectMapper。
      */
-    private static String formatDateTimeWithJackson(final Object value, final Locale locale, final TimeZone timeZone) {
-        if (value == null) {
-            return NULL_STRING;
+    private static StringBuilder appendDateTime(
+            final StringBuilder target, final Object value, final Locale locale, final TimeZone timeZone) {
+        DateTimeFormatters formatters = dateTimeFormatters;
+        ObjectMapper mapper = getObjectMapper();
+        // ObjectMapper每次修改配置都会替换SerializationConfig，比较引用即可发现配置变化
+        SerializationConfig config = mapper.getSerializationConfig();
+        if (formatters == null || formatters.mapper != mapper || formatters.config != config) {
+            formatters = new DateTimeFormatters(mapper, config);
+            dateTimeFormatters = formatters;
         }
 
-        try {
-            // 使用Jackson进行序列化，会自动应用配置的日期格式和时区
-            ObjectMapper mapper = getObjectMapper().copy().setLocale(locale).setTimeZone(timeZone);
-            String jsonValue = mapper.writeValueAsString(value);
-
-            // 移除JSON字符串的引号
-            if (jsonValue.length() >= 2 && jsonValue.startsWith("\"") && jsonValue.endsWith("\"")) {
-                return jsonValue.substring(1, jsonValue.length() - 1);
-            }
-            return jsonValue;
-        } catch (JsonProcessingException e) {
-            log.warn("Failed to format datetime with Jackson: {}, fallback to toString()", value, e);
-            return value.toString();
-        }
+        DateValueFormatter formatter = formatters.get(DateTimeFormatters.typeIndex(value), locale, timeZone);
+        formatter.formatTo(target, value);
+        return target;
     }
 
     /**
@@ -222,102 +410,142 @@ public abstract class LocaleFormatUtils {
     }
 
     /**
-     * 格式化Collection（支持本地化和时区） 优化：使用Stream API提高性能和可读性
-     *
-     * @param collection Collection
-     * @param locale     本地化设置
-     * @param timeZone   时区设置
-     * @return 格式化后的字符串
+     * 追加数字，整数直接按本地化符号写入，其他数字使用当前线程独占的NumberFormat
      */
-    private static String formatCollection(
-            final Collection<?> collection, final Locale locale, final TimeZone timeZone) {
-        if (collection == null) {
-            return NULL_STRING;
+    private static StringBuilder appendNumber(final StringBuilder target, final Number number, final Locale locale) {
+        if (number instanceof Integer || number instanceof Long || number instanceof Short || number instanceof Byte) {
+            appendLong(target, number.longValue(), locale);
+        } else if (number instanceof Double || number instanceof Float) {
+            appendDouble(target, number.doubleValue(), locale);
+        } else if (number instanceof BigDecimal) {
+            // 按BigDecimal的精度格式化，使用独立的实例，不影响其他数字的格式
+            BigDecimal decimal = (BigDecimal) number;
+            ThreadNumberFormats formats = THREAD_NUMBER_FORMATS.get();
+            NumberFormat formatter = formats.decimalFormat(locale);
+            formatter.setMaximumFractionDigits(Math.max(decimal.scale(), 0));
+            formatter.setMinimumFractionDigits(0);
+            formats.append(target, formatter, decimal);
+        } else {
+            ThreadNumberFormats formats = THREAD_NUMBER_FORMATS.get();
+            formats.append(target, formats.format(locale), number);
         }
+        return target;
+    }
 
-        if (collection.isEmpty()) {
-            return "[]";
+    private static void appendLong(final StringBuilder target, final long value, final Locale locale) {
+        NumberSymbols symbols = getNumberSymbols(locale);
+        if (symbols != NumberSymbols.UNSUPPORTED) {
+            symbols.appendLong(target, value);
+            return;
         }
 
-        String elements = collection.stream()
-                .map(element -> formatValue(element, locale, timeZone))
-                .collect(Collectors.joining(", "));
+        ThreadNumberFormats formats = THREAD_NUMBER_FORMATS.get();
+        StringBuffer buffer = formats.buffer();
+        formats.format(locale).format(value, buffer, formats.position);
+        target.append(buffer);
+    }
 
-        return "[" + elements + "]";
+    private static void appendDouble(final StringBuilder target, final double value, final Locale locale) {
+        ThreadNumberFormats formats = THREAD_NUMBER_FORMATS.get();
+        StringBuffer buffer = formats.buffer();
+        formats.format(locale).format(value, buffer, formats.position);
+        target.append(buffer);
     }
 
     /**
-     * 格式化Array（支持本地化） 优化：简化数组处理逻辑，使用更高效的方式
+     * 追加Collection（支持本地化和时区），元素逐个写入目标
      *
-     * @param array  数组
-     * @param locale 本地化设置
-     * @return 格式化后的字符串
+     * @param target     目标
+     * @param collection Collection
+     * @param locale     本地化设置
+     * @param timeZone   时区设置
      */
-    private static String formatArray(final Object array, final Locale locale, final TimeZone timeZone) {
-        if (array == null) {
-            return NULL_STRING;
+    private static void appendCollection(
+            final StringBuilder target, final Collection<?> collection, final Locale locale, final TimeZone timeZone) {
+        target.append('[');
+        boolean first = true;
+        for (Object element : collection) {
+            if (!first) {
+                target.append(ELEMENT_SEPARATOR);
+            }
+            formatValueTo(target, element, locale, timeZone);
+            first = false;
         }
+        target.append(']');
+    }
 
-        // 对象数组
+    /**
+     * 追加Array（支持本地化），基本类型数组按元素类型直接写入，不装箱
+     *
+     * @param target 目标
+     * @param array  数组
+     * @param locale 本地化设置
+     */
+    private static void appendArray(
+            final StringBuilder target, final Object array, final Locale locale, final TimeZone timeZone) {
+        target.append('[');
         if (array instanceof Object[]) {
-            return formatCollection(Arrays.asList((Object[]) array), locale, timeZone);
-        }
-
-        // 基本类型数组 - 使用更简洁的方式
-        if (array instanceof int[]) {
-            return formatCollection(
-                    Arrays.stream((int[]) array).boxed().collect(Collectors.toList()), locale, timeZone);
-        }
-        if (array instanceof long[]) {
-            return formatCollection(
-                    Arrays.stream((long[]) array).boxed().collect(Collectors.toList()), locale, timeZone);
-        }
-        if (array instanceof double[]) {
-            return formatCollection(
-                    Arrays.stream((double[]) array).boxed().collect(Collectors.toList()), locale, timeZone);
-        }
-        if (array instanceof float[]) {
-            float[] floats = (float[]) array;
-            List<Float> list = new ArrayList<>(floats.length);
-            for (float f : floats) {
-                list.add(f);
+            Object[] values = (Object[]) array;
+            for (int i = 0; i < values.length; i++) {
+                appendSeparator(target, i);
+                formatValueTo(target, values[i], locale, timeZone);
             }
-            return formatCollection(list, locale, timeZone);
-        }
-        if (array instanceof boolean[]) {
-            boolean[] booleans = (boolean[]) array;
-            List<Boolean> list = new ArrayList<>(booleans.length);
-            for (boolean b : booleans) {
-                list.add(b);
+        } else if (array instanceof int[]) {
+            int[] values = (int[]) array;
+            for (int i = 0; i < values.length; i++) {
+                appendSeparator(target, i);
+                appendLong(target, values[i], locale);
             }
-            return formatCollection(list, locale, timeZone);
-        }
-        if (array instanceof char[]) {
-            char[] chars = (char[]) array;
-            List<Character> list = new ArrayList<>(chars.length);
-            for (char c : chars) {
-                list.add(c);
+        } else if (array instanceof long[]) {
+            long[] values = (long[]) array;
+            for (int i = 0; i < values.length; i++) {
+                appendSeparator(target, i);
+                appendLong(target, values[i], locale);
             }
-            return formatCollection(list, locale, timeZone);
-        }
-        if (array instanceof byte[]) {
-            byte[] bytes = (byte[]) array;
-            List<Byte> list = new ArrayList<>(bytes.length);
-            for (byte b : bytes) {
-                list.add(b);
+        } else if (array instanceof double[]) {
+            double[] values = (double[]) array;
+            for (int i = 0; i < values.length; i++) {
+                appendSeparator(target, i);
+                appendDouble(target, values[i], locale);
             }
-            return formatCollection(list, locale, timeZone);
-        }
-        if (array instanceof short[]) {
-            short[] shorts = (short[]) array;
-            List<Short> list = new ArrayList<>(shorts.length);
-            for (short s : shorts) {
-                list.add(s);
+        } else if (array instanceof float[]) {
+            float[] values = (float[]) array;
+            for (int i = 0; i < values.length; i++) {
+                appendSeparator(target, i);
+                appendDouble(target, values[i], locale);
+            }
+        } else if (array instanceof boolean[]) {
+            boolean[] values = (boolean[]) array;
+            for (int i = 0; i < values.length; i++) {
+                appendSeparator(target, i);
+                target.append(values[i]);
+            }
+        } else if (array instanceof char[]) {
+            char[] values = (char[]) array;
+            for (int i = 0; i < values.length; i++) {
+                appendSeparator(target, i);
+                target.append(values[i]);
+            }
+        } else if (array instanceof byte[]) {
+            byte[] values = (byte[]) array;
+            for (int i = 0; i < values.length; i++) {
+                appendSeparator(target, i);
+                appendLong(target, values[i], locale);
+            }
+        } else if (array instanceof short[]) {
+            short[] values = (short[]) array;
+            for (int i = 0; i < values.length; i++) {
+                appendSeparator(target, i);
+                appendLong(target, values[i], locale);
             }
-            return formatCollection(list, locale, timeZone);
         }
+        target.append(']');
+    }
 
-        return array.toString();
+    private static void appendSeparator(final StringBuilder target, final int index) {
+        if (index > 0) {
+            target.append(ELEMENT_SEPARATOR);
+        }
     }
 
     /**
@@ -345,5 +573,354 @@ public abstract class LocaleFormatUtils {
      */
     public static void clearCache() {
         NUMBER_FORMAT_CACHE.clear();
+        NUMBER_SYMBOLS_CACHE.clear();
+        dateTimeFormatters = null;
+    }
+
+    /**
+     * 每个线程独占的NumberFormat实例，从原型克隆得到
+     *
+     * <p>{@link NumberFormat} 只能写入 {@link StringBuffer}，因此同时复用一个缓冲区再追加到目标。
+     */
+    private static final class ThreadNumberFormats {
+        private final Map<Locale, NumberFormat> formats = new HashMap<>();
+        private final Map<Locale, NumberFormat> decimalFormats = new HashMap<>();
+        private final StringBuffer buffer = new StringBuffer(32);
+        private final FieldPosition position = new FieldPosition(0);
+
+        NumberFormat format(Locale locale) {
+            NumberFormat format = formats.get(locale);
+            if (format == null) {
+                format = (NumberFormat) getNumberFormat(locale).clone();
+                formats.put(locale, format);
+            }
+            return format;
+        }
+
+        NumberFormat decimalFormat(Locale locale) {
+            NumberFormat format = decimalFormats.get(locale);
+            if (format == null) {
+                format = (NumberFormat) getNumberFormat(locale).clone();
+                decimalFormats.put(locale, format);
+            }
+            return format;
+        }
+
+        StringBuffer buffer() {
+            buffer.setLength(0);
+            return buffer;
+        }
+
+        void append(StringBuilder target, NumberFormat format, Number number) {
+            format.format(number, buffer(), position);
+            target.append(buffer);
+        }
+    }
+
+    /**
+     * 预先计算的本地化数字符号，用于不经过NumberFormat直接写出整数的各位数字与分组分隔符
+     *
+     * <p>仅当 {@link NumberFormat} 是无前后缀的标准 {@link DecimalFormat} 时可用，否则为 {@link #UNSUPPORTED}。
+     */
+    private static final class NumberSymbols {
+        static final NumberSymbols UNSUPPORTED = new NumberSymbols('0', ',', '-', 0);
+
+        private final char zeroDigit;
+        private final char groupingSeparator;
+        private final char minusSign;
+        private final int groupingSize;
+
+        private NumberSymbols(char zeroDigit, char groupingSeparator, char minusSign, int groupingSize) {
+            this.zeroDigit = zeroDigit;
+            this.groupingSeparator = groupingSeparator;
+            this.minusSign = minusSign;
+            this.groupingSize = groupingSize;
+        }
+
+        static NumberSymbols of(NumberFormat format) {
+            if (!(format instanceof DecimalFormat)) {
+                return UNSUPPORTED;
+            }
+
+            DecimalFormat decimalFormat = (DecimalFormat) format;
+            DecimalFormatSymbols symbols = decimalFormat.getDecimalFormatSymbols();
+            boolean standard = decimalFormat.getPositivePrefix().isEmpty()
+                    && decimalFormat.getPositiveSuffix().isEmpty()
+                    && decimalFormat.getNegativePrefix().equals(String.valueOf(symbols.getMinusSign()))
+                    && decimalFormat.getNegativeSuffix().isEmpty()
+                    && decimalFormat.getMultiplier() == 1
+                    && decimalFormat.getMinimumIntegerDigits() <= 1
+                    && decimalFormat.getMaximumIntegerDigits() >= 19;
+            if (!standard) {
+                return UNSUPPORTED;
+            }
+
+            int groupingSize = decimalFormat.isGroupingUsed() ? decimalFormat.getGroupingSize() : 0;
+            return new NumberSymbols(
+                    symbols.getZeroDigit(), symbols.getGroupingSeparator(), symbols.getMinusSign(), groupingSize);
+        }
+
+        void appendLong(StringBuilder target, long value) {
+            if (value < 0) {
+                target.append(minusSign);
+            }
+
+            // 以负数累计，避免 Long.MIN_VALUE 取反溢出
+            long negative = value < 0 ? value : -value;
+            int digits = 1;
+            for (long n = negative / 10; n != 0; n /= 10) {
+                digits++;
+            }
+            int separators = groupingSize > 0 ? (digits - 1) / groupingSize : 0;
+
+            int end = target.length() + digits + separators;
+            target.setLength(end);
+            int index = end - 1;
+            int count = 0;
+            long n = negative;
+            do {
+                if (groupingSize > 0 && count > 0 && count % groupingSize == 0) {
+                    target.setCharAt(index--, groupingSeparator);
+                }
+                target.setCharAt(index--, (char) (zeroDigit - (int) (n % 10)));
+                n /= 10;
+                count++;
+            } while (n != 0);
+        }
+    }
+
+    /**
+     * 写出一个日期时间值
+     */
+    @FunctionalInterface
+    private interface DateValueFormatter {
+        void formatTo(StringBuilder target, Object value);
+    }
+
+    /**
+     * 绑定到某个ObjectMapper的日期时间格式化器缓存，按 locale → 时区 → 类型 索引
+     *
+     * <p>每个格式化器只在首次使用时解析一次：用几个探测值对比候选格式化器与ObjectMapper的实际输出，
+     * 全部一致才采用，因此日期格式、时间戳开关与时区处理始终和ObjectMapper保持一致。
+     */
+    private static final class DateTimeFormatters {
+        static final int DATE = 0;
+        static final int LOCAL_DATE = 1;
+        static final int LOCAL_TIME = 2;
+        static final int LOCAL_DATE_TIME = 3;
+        static final int ZONED_DATE_TIME = 4;
+        static final int INSTANT = 5;
+        /**
+         * Date的子类（如java.sql.Date），Jackson对其有单独的序列化规则，直接使用ObjectWriter
+         */
+        static final int OTHER = 6;
+
+        private static final DateValueFormatter TO_STRING = (target, value) -> target.append(value);
+
+        final ObjectMapper mapper;
+        final SerializationConfig config;
+        private final Map<Locale, Map<TimeZone, DateValueFormatter[]>> cache = new ConcurrentHashMap<>();
+
+        DateTimeFormatters(ObjectMapper mapper, SerializationConfig config) {
+            this.mapper = mapper;
+            this.config = config;
+        }
+
+        static int typeIndex(Object value) {
+            Class<?> clazz = value.getClass();
+            if (clazz == Date.class) {
+                return DATE;
+            }
+            if (clazz == LocalDateTime.class) {
+                return LOCAL_DATE_TIME;
+            }
+            if (clazz == LocalDate.class) {
+                return LOCAL_DATE;
+            }
+            if (clazz == LocalTime.class) {
+                return LOCAL_TIME;
+            }
+            if (clazz == ZonedDateTime.class) {
+                return ZONED_DATE_TIME;
+            }
+            if (clazz == Instant.class) {
+                return INSTANT;
+            }
+            return OTHER;
+        }
+
+        DateValueFormatter get(int type, Locale locale, TimeZone timeZone) {
+            DateValueFormatter[] formatters = cache.computeIfAbsent(locale, key -> new ConcurrentHashMap<>())
+                    .computeIfAbsent(timeZone, key -> new DateValueFormatter[OTHER + 1]);
+            DateValueFormatter formatter = formatters[type];
+            if (formatter == null) {
+                // 并发解析的结果相同，重复解析无害
+                formatter = resolve(type, locale, timeZone);
+                formatters[type] = formatter;
+            }
+            return formatter;
+        }
+
+        private DateValueFormatter resolve(int type, Locale locale, TimeZone timeZone) {
+            ObjectWriter writer = mapper.writer().with(locale).with(timeZone);
+            DateValueFormatter json = jsonFormatter(writer);
+            if (type == OTHER) {
+                return json;
+            }
+
+            Object[] probes = probes(type);
+            String[] expected = new String[probes.length];
+            try {
+                for (int i = 0; i < probes.length; i++) {
+                    expected[i] = unquote(writer.writeValueAsString(probes[i]));
+                }
+            } catch (JsonProcessingException e) {
+                // 与逐次序列化失败时的行为一致：退回到toString()
+                log.debug("ObjectMapper cannot serialize {}, fallback to toString()", probes[0].getClass(), e);
+                return TO_STRING;
+            }
+
+            for (DateValueFormatter candidate : candidates(type, locale, timeZone)) {
+                if (matches(candidate, probes, expected)) {
+                    return candidate;
+                }
+            }
+            return json;
+        }
+
+        private List<DateValueFormatter> candidates(int type, Locale locale, TimeZone timeZone) {
+            List<DateValueFormatter> candidates = new ArrayList<>(4);
+            ZoneId zone = timeZone.toZoneId();
+            switch (type) {
+                case DATE:
+                    if (config.isEnabled(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)) {
+                        candidates.add((target, value) -> target.append(((Date) value).getTime()));
+                        break;
+                    }
+                    DateFormat dateFormat = config.getDateFormat();
+                    if (dateFormat instanceof SimpleDateFormat) {
+                        String pattern = ((SimpleDateFormat) dateFormat).toPattern();
+                        addDateCandidate(candidates, pattern, locale, zone);
+                        addDateCandidate(candidates, pattern, Locale.getDefault(Locale.Category.FORMAT), zone);
+                    } else if (dateFormat instanceof StdDateFormat) {
+                        addDateCandidate(candidates, "yyyy-MM-dd'T'HH:mm:ss.SSSxx", locale, zone);
+                        addDateCandidate(candidates, "yyyy-MM-dd'T'HH:mm:ss.SSSxxx", locale, zone);
+                    }
+                    break;
+                case LOCAL_DATE:
+                    addCandidate(candidates, DateTimeFormatter.ISO_LOCAL_DATE);
+                    break;
+                case LOCAL_TIME:
+                    addCandidate(candidates, DateTimeFormatter.ISO_LOCAL_TIME);
+                    break;
+                case LOCAL_DATE_TIME:
+                    addCandidate(candidates, DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+                    break;
+                case ZONED_DATE_TIME:
+                    addCandidate(candidates, DateTimeFormatter.ISO_OFFSET_DATE_TIME.withZone(zone));
+                    addCandidate(candidates, DateTimeFormatter.ISO_OFFSET_DATE_TIME);
+                    addCandidate(candidates, DateTimeFormatter.ISO_ZONED_DATE_TIME);
+                    break;
+                case INSTANT:
+                    addCandidate(candidates, DateTimeFormatter.ISO_INSTANT);
+                    break;
+                default:
+                    break;
+            }
+            if (type != DATE) {
+                candidates.add(TO_STRING);
+            }
+            return candidates;
+        }
+
+        private static void addCandidate(List<DateValueFormatter> candidates, DateTimeFormatter formatter) {
+            candidates.add((target, value) -> formatter.formatTo((TemporalAccessor) value, target));
+        }
+
+        private static void addDateCandidate(
+                List<DateValueFormatter> candidates, String pattern, Locale locale, ZoneId zone) {
+            DateTimeFormatter formatter;
+            try {
+                formatter = DateTimeFormatter.ofPattern(pattern, locale).withZone(zone);
+            } catch (IllegalArgumentException e) {
+                // SimpleDateFormat与DateTimeFormatter的模式不完全兼容
+                return;
+            }
+            candidates.add((target, value) -> formatter.formatTo(((Date) value).toInstant(), target));
+        }
+
+        private static boolean matches(DateValueFormatter candidate, Object[] probes, String[] expected) {
+            StringBuilder buffer = new StringBuilder(32);
+            for (int i = 0; i < probes.length; i++) {
+                buffer.setLength(0);
+                try {
+                    candidate.formatTo(buffer, probes[i]);
+                } catch (RuntimeException e) {
+                    return false;
+                }
+                if (!buffer.toString().equals(expected[i])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static DateValueFormatter jsonFormatter(ObjectWriter writer) {
+            return (target, value) -> {
+                try {
+                    target.append(unquote(writer.writeValueAsString(value)));
+                } catch (JsonProcessingException e) {
+                    log.warn("Failed to format datetime with Jackson: {}, fallback to toString()", value, e);
+                    target.append(value);
+                }
+            };
+        }
+
+        private static String unquote(String jsonValue) {
+            // 移除JSON字符串的引号
+            if (jsonValue.length() >= 2 && jsonValue.startsWith("\"") && jsonValue.endsWith("\"")) {
+                return jsonValue.substring(1, jsonValue.length() - 1);
+            }
+            return jsonValue;
+        }
+
+        /**
+         * 探测值覆盖毫秒、整秒、整分与跨年等容易出现格式差异的情况
+         */
+        private static Object[] probes(int type) {
+            LocalDateTime precise = LocalDateTime.of(2001, 2, 3, 4, 5, 6, 789_000_000);
+            LocalDateTime wholeMinute = LocalDateTime.of(2024, 12, 31, 23, 59);
+            LocalDateTime wholeSecond = LocalDateTime.of(1999, 10, 20, 13, 14, 15);
+            LocalDateTime nanos = LocalDateTime.of(2020, 6, 7, 8, 9, 10, 123_456_789);
+            ZoneId offsetZone = ZoneId.of("Asia/Kolkata");
+            switch (type) {
+                case DATE:
+                    return new Object[] {
+                        Date.from(precise.toInstant(ZoneOffset.UTC)),
+                        Date.from(wholeMinute.toInstant(ZoneOffset.UTC)),
+                        Date.from(wholeSecond.toInstant(ZoneOffset.ofHours(-5)))
+                    };
+                case LOCAL_DATE:
+                    return new Object[] {precise.toLocalDate(), wholeMinute.toLocalDate()};
+                case LOCAL_TIME:
+                    return new Object[] {
+                        precise.toLocalTime(), wholeMinute.toLocalTime(), wholeSecond.toLocalTime(), nanos.toLocalTime()
+                    };
+                case LOCAL_DATE_TIME:
+                    return new Object[] {precise, wholeMinute, wholeSecond, nanos};
+                case ZONED_DATE_TIME:
+                    return new Object[] {
+                        precise.atZone(offsetZone), wholeMinute.atZone(ZoneOffset.UTC), nanos.atZone(offsetZone)
+                    };
+                case INSTANT:
+                    return new Object[] {
+                        precise.toInstant(ZoneOffset.UTC),
+                        wholeMinute.toInstant(ZoneOffset.UTC),
+                        nanos.toInstant(ZoneOffset.UTC)
+                    };
+                default:
+                    return new Object[0];
+            }
+        }
     }
 }
@@ -0,0 +1,216 @@
+package io.github.rosestack.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.MissingResourceException;
+import java.util.PropertyResourceBundle;
+import java.util.ResourceBundle;
+import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 基于 {@link ResourceBundle} 的国际化消息解析器
+ *
+ * <p>每个语言首次使用时加载一次全部资源包，把每条消息预编译为 {@link CompiledTemplate}，之后的查找只是两次无锁的哈希表读取。
+ * 多个资源包按构造顺序查找，先出现的键优先；找不到对应语言时使用基础资源包，不回退到JVM默认语言。
+ * {@code .properties} 资源包始终按 UTF-8 读取，与 JDK 版本无关。
+ *
+ * <p>消息使用与 {@link FormatUtils} 一致的占位符语法：包含 {@code {0}} 时按下标替换，否则按顺序替换 {@code {}}。
+ * 不支持 {@link java.text.MessageFormat} 的 {@code {0,number}} 子格式和单引号转义。
+ *
+ * <pre>{@code
+ * MessageResolver resolver = MessageResolver.of("i18n/messages");
+ * String message = resolver.getMessage("user.not.found", Locale.CHINA, "alice");
+ * }</pre>
+ *
+ * @author chensoul
+ * @since 1.0.0
+ */
+@Slf4j
+public final class MessageResolver {
+    private static final ResourceBundle.Control CONTROL = new Utf8Control();
+
+    private final String[] baseNames;
+    private final ClassLoader classLoader;
+    /**
+     * 语言 → 消息键 → 预编译模板，重新加载时整体替换
+     */
+    private volatile Map<Locale, Map<String, CompiledTemplate>> messages = new ConcurrentHashMap<>();
+
+    private MessageResolver(ClassLoader classLoader, String[] baseNames) {
+        this.classLoader = classLoader;
+        this.baseNames = baseNames;
+    }
+
+    /**
+     * 创建消息解析器，使用当前线程的上下文类加载器加载资源包
+     *
+     * @param baseNames 资源包基础名称，如 {@code i18n/messages}
+     * @return 消息解析器
+     */
+    public static MessageResolver of(String... baseNames) {
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        return of(classLoader != null ? classLoader : MessageResolver.class.getClassLoader(), baseNames);
+    }
+
+    /**
+     * 创建消息解析器
+     *
+     * @param classLoader 加载资源包的类加载器
+     * @param baseNames   资源包基础名称，如 {@code i18n/messages}
+     * @return 消息解析器
+     */
+    public static MessageResolver of(ClassLoader classLoader, String... baseNames) {
+        Assert.assertNotNull(classLoader, "classLoader must not be null");
+        Assert.assertNotEmpty(baseNames, "baseNames must not be empty");
+        Assert.assertNoNullElements(baseNames, "baseNames must not contain null");
+        return new MessageResolver(classLoader, baseNames.clone());
+    }
+
+    /**
+     * 解析消息，找不到消息键时使用消息键本身作为模板
+     *
+     * @param key    消息键
+     * @param locale 语言，为null时使用默认语言
+     * @param args   消息参数
+     * @return 消息
+     */
+    public String getMessage(String key, Locale locale, Object... args) {
+        if (key == null) {
+            return null;
+        }
+
+        Locale resolved = locale != null ? locale : Locale.getDefault();
+        CompiledTemplate template = getTemplate(key, resolved);
+        if (template == null) {
+            return FormatUtils.format(key, resolved, TimeZone.getDefault(), args);
+        }
+        return render(template, resolved, args);
+    }
+
+    /**
+     * 是否存在消息键
+     *
+     * @param key    消息键
+     * @param locale 语言，为null时使用默认语言
+     * @return 存在返回true
+     */
+    public boolean contains(String key, Locale locale) {
+        return key != null && getTemplate(key, locale != null ? locale : Locale.getDefault()) != null;
+    }
+
+    /**
+     * 获取消息键对应的预编译模板
+     *
+     * @param key    消息键
+     * @param locale 语言
+     * @return 预编译模板，不存在时返回null
+     */
+    public CompiledTemplate getTemplate(String key, Locale locale) {
+        Map<Locale, Map<String, CompiledTemplate>> current = messages;
+        Map<String, CompiledTemplate> templates = current.get(locale);
+        if (templates == null) {
+            templates = current.computeIfAbsent(locale, this::load);
+        }
+        return templates.get(key);
+    }
+
+    /**
+     * 重新加载资源包
+     *
+     * <p>已加载过的语言先完整加载，再一次性替换，期间的查找始终读到旧的或新的完整消息。
+     */
+    public void reload() {
+        ResourceBundle.clearCache(classLoader);
+        Map<Locale, Map<String, CompiledTemplate>> reloaded = new ConcurrentHashMap<>();
+        for (Locale locale : messages.keySet()) {
+            reloaded.put(locale, load(locale));
+        }
+        messages = reloaded;
+    }
+
+    private Map<String, CompiledTemplate> load(Locale locale) {
+        Map<String, CompiledTemplate> templates = new HashMap<>();
+        for (String baseName : baseNames) {
+            ResourceBundle bundle;
+            try {
+                bundle = ResourceBundle.getBundle(baseName, locale, classLoader, CONTROL);
+            } catch (MissingResourceException e) {
+                log.debug("Resource bundle not found: {}, locale: {}", baseName, locale);
+                continue;
+            }
+
+            for (String key : bundle.keySet()) {
+                if (!templates.containsKey(key)) {
+                    Object value = bundle.getObject(key);
+                    if (value instanceof String) {
+                        templates.put(key, CompiledTemplate.parse((String) value));
+                    }
+                }
+            }
+        }
+        return Collections.unmodifiableMap(templates);
+    }
+
+    private static String render(CompiledTemplate template, Locale locale, Object[] args) {
+        if (args == null || args.length == 0) {
+            return template.getTemplate();
+        }
+        if (template.hasIndexedParameters()) {
+            return template.renderIndexed(locale, TimeZone.getDefault(), args);
+        }
+        return template.render(locale, TimeZone.getDefault(), args);
+    }
+
+    /**
+     * 按 UTF-8 读取 {@code .properties} 资源包、不回退到JVM默认语言的 {@link ResourceBundle.Control}
+     *
+     * <p>Java 8 的 {@link PropertyResourceBundle} 按 ISO-8859-1 解码输入流，因此这里自行以 UTF-8 的 {@link Reader} 读取。
+     */
+    private static final class Utf8Control extends ResourceBundle.Control {
+
+        @Override
+        public Locale getFallbackLocale(String baseName, Locale locale) {
+            return null;
+        }
+
+        @Override
+        public ResourceBundle newBundle(
+                String baseName, Locale locale, String format, ClassLoader loader, boolean reload)
+                throws IllegalAccessException, InstantiationException, IOException {
+            if (!"java.properties".equals(format)) {
+                return super.newBundle(baseName, locale, format, loader, reload);
+            }
+            String resourceName = toResourceName(toBundleName(baseName, locale), "properties");
+            InputStream stream;
+            if (reload) {
+                URL url = loader.getResource(resourceName);
+                if (url == null) {
+                    return null;
+                }
+                URLConnection connection = url.openConnection();
+                connection.setUseCaches(false);
+                stream = connection.getInputStream();
+            } else {
+                stream = loader.getResourceAsStream(resourceName);
+            }
+            if (stream == null) {
+                return null;
+            }
+            try (Reader reader = new InputStreamReader(stream, StandardCharsets.UTF_8)) {
+                return new PropertyResourceBundle(reader);
+            }
+        }
+    }
+}
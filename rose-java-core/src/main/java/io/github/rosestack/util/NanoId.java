@@ -49,16 +49,35 @@ public abstract class NanoId {
      * The generated NanoId String will have 21 symbols.
      * <p>
      * The NanoId String is generated using a cryptographically strong pseudo random
-     * number generator.
+     * number generator, buffered per thread by {@link NanoIdGenerator#getDefault()}.
      *
      * @return A randomly generated NanoId String.
      */
     public static String randomNanoId() {
-        return randomNanoId(DEFAULT_NUMBER_GENERATOR, DEFAULT_ALPHABET, DEFAULT_SIZE);
+        return NanoIdGenerator.getDefault().nextId();
     }
 
+    /**
+     * Static factory to retrieve a url-friendly NanoId String of the given size, using
+     * the default {@link NanoIdGenerator}.
+     *
+     * @param size The number of symbols in the NanoId String.
+     * @return A randomly generated NanoId String.
+     */
     public static String randomNanoId(final int size) {
-        return randomNanoId(DEFAULT_NUMBER_GENERATOR, DEFAULT_ALPHABET, size);
+        return NanoIdGenerator.getDefault().nextId(size);
+    }
+
+    /**
+     * Static factory to retrieve a batch of url-friendly NanoId Strings with 21 symbols,
+     * encoded from one block of random bytes per batch.
+     *
+     * @param count The number of NanoId Strings.
+     * @return The randomly generated NanoId Strings.
+     * @see NanoIdGenerator#generate(int, boolean)
+     */
+    public static String[] randomNanoIds(final int count) {
+        return NanoIdGenerator.getDefault().generate(count);
     }
 
     /**
@@ -88,20 +107,21 @@ public abstract class NanoId {
             throw new IllegalArgumentException("size must be greater than zero.");
         }
 
-        final int mask = (2 << (int) Math.floor(Math.log(alphabet.length - 1) / Math.log(2))) - 1;
+        final int mask = (2 << (31 - Integer.numberOfLeadingZeros((alphabet.length - 1) | 1))) - 1;
         final int step = (int) Math.ceil(1.6 * mask * size / alphabet.length);
 
-        final StringBuilder idBuilder = new StringBuilder();
+        final char[] id = new char[size];
+        final byte[] bytes = new byte[step];
+        int length = 0;
         while (true) {
-            final byte[] bytes = new byte[step];
             random.nextBytes(bytes);
 
             for (int i = 0; i < step; i++) {
                 final int alphabetIndex = bytes[i] & mask;
                 if (alphabetIndex < alphabet.length) {
-                    idBuilder.append(alphabet[alphabetIndex]);
-                    if (idBuilder.length() == size) {
-                        return idBuilder.toString();
+                    id[length++] = alphabet[alphabetIndex];
+                    if (length == size) {
+                        return new String(id);
                     }
                 }
             }
@@ -0,0 +1,280 @@
+package io.github.rosestack.util;
+
+import java.security.SecureRandom;
+import java.util.Random;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+/**
+ * 可复用的 NanoId 生成器
+ *
+ * <p>字母表的掩码在创建时计算一次；随机数来自每个线程独占的随机数生成器，按块批量填充到线程本地缓冲区后逐字节取用，
+ * 多线程并发生成时不争用同一个 {@link SecureRandom}。字母表长度为2的幂（如默认的64个字符）时每个随机字节都能直接映射为一个字符，
+ * 不需要拒绝采样。
+ *
+ * <pre>{@code
+ * NanoIdGenerator generator = NanoIdGenerator.getDefault();
+ * String id = generator.nextId();
+ * }</pre>
+ *
+ * @author chensoul
+ * @since 1.0.0
+ * @see NanoId
+ */
+public final class NanoIdGenerator {
+    /**
+     * 每个线程缓冲的随机字节数
+     */
+    private static final int BUFFER_SIZE = 4096;
+    /**
+     * 批量生成时每次填充的 NanoId 数量，也是并行生成时每个任务的粒度
+     */
+    private static final int BATCH_SIZE = 4096;
+
+    private static final NanoIdGenerator DEFAULT =
+            new NanoIdGenerator(NanoId.DEFAULT_ALPHABET.clone(), NanoId.DEFAULT_SIZE, SecureRandom::new);
+
+    private final char[] alphabet;
+    private final int size;
+    private final int mask;
+    private final boolean rejectionFree;
+    private final boolean ascii;
+    private final ThreadLocal<Entropy> entropy;
+
+    private NanoIdGenerator(char[] alphabet, int size, Supplier<? extends Random> randomFactory) {
+        this.alphabet = alphabet;
+        this.size = size;
+        this.mask = (2 << (31 - Integer.numberOfLeadingZeros((alphabet.length - 1) | 1))) - 1;
+        this.rejectionFree = mask + 1 == alphabet.length;
+        boolean asciiOnly = true;
+        for (char c : alphabet) {
+            asciiOnly &= c < 128;
+        }
+        this.ascii = asciiOnly;
+        this.entropy = ThreadLocal.withInitial(() -> new Entropy(randomFactory.get()));
+    }
+
+    /**
+     * 使用默认字母表、默认长度和 {@link SecureRandom} 的共享生成器
+     *
+     * @return 生成器
+     */
+    public static NanoIdGenerator getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * 创建使用 {@link SecureRandom} 的生成器
+     *
+     * @param alphabet 字母表，1到255个字符
+     * @param size     默认长度
+     * @return 生成器
+     */
+    public static NanoIdGenerator of(char[] alphabet, int size) {
+        return of(alphabet, size, SecureRandom::new);
+    }
+
+    /**
+     * 创建生成器
+     *
+     * @param alphabet      字母表，1到255个字符
+     * @param size          默认长度
+     * @param randomFactory 随机数生成器工厂，每个线程调用一次
+     * @return 生成器
+     */
+    public static NanoIdGenerator of(char[] alphabet, int size, Supplier<? extends Random> randomFactory) {
+        if (alphabet == null) {
+            throw new IllegalArgumentException("alphabet cannot be null.");
+        }
+        if (alphabet.length == 0 || alphabet.length >= 256) {
+            throw new IllegalArgumentException("alphabet must contain between 1 and 255 symbols.");
+        }
+        if (size <= 0) {
+            throw new IllegalArgumentException("size must be greater than zero.");
+        }
+        if (randomFactory == null) {
+            throw new IllegalArgumentException("randomFactory cannot be null.");
+        }
+        return new NanoIdGenerator(alphabet.clone(), size, randomFactory);
+    }
+
+    public char[] getAlphabet() {
+        return alphabet.clone();
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * 生成默认长度的 NanoId
+     *
+     * @return NanoId
+     */
+    public String nextId() {
+        return nextId(size);
+    }
+
+    /**
+     * 生成指定长度的 NanoId
+     *
+     * @param size 长度
+     * @return NanoId
+     */
+    public String nextId(int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("size must be greater than zero.");
+        }
+        char[] chars = new char[size];
+        fill(chars, 0, size);
+        return new String(chars);
+    }
+
+    /**
+     * 生成默认长度的 NanoId 并写入字符数组
+     *
+     * @param target 目标数组
+     * @param offset 起始位置
+     */
+    public void nextId(char[] target, int offset) {
+        checkRange(target.length, offset);
+        fill(target, offset, size);
+    }
+
+    /**
+     * 生成默认长度的 NanoId 并按ASCII写入字节数组，字母表必须全部是ASCII字符
+     *
+     * @param target 目标数组
+     * @param offset 起始位置
+     */
+    public void nextId(byte[] target, int offset) {
+        if (!ascii) {
+            throw new IllegalStateException("alphabet contains non-ASCII symbols.");
+        }
+        checkRange(target.length, offset);
+
+        Entropy source = entropy.get();
+        byte[] buffer = source.buffer;
+        int position = source.position;
+        int end = offset + size;
+        int i = offset;
+        while (i < end) {
+            if (position == BUFFER_SIZE) {
+                source.refill();
+                position = 0;
+            }
+            int index = buffer[position++] & mask;
+            if (rejectionFree || index < alphabet.length) {
+                target[i++] = (byte) alphabet[index];
+            }
+        }
+        source.position = position;
+    }
+
+    /**
+     * 批量生成默认长度的 NanoId
+     *
+     * @param count 数量
+     * @return NanoId数组
+     */
+    public String[] generate(int count) {
+        return generate(count, false);
+    }
+
+    /**
+     * 批量生成默认长度的 NanoId
+     *
+     * @param count    数量
+     * @param parallel 是否在 {@link java.util.concurrent.ForkJoinPool#commonPool()} 中并行生成，适合数十万以上的批量
+     * @return NanoId数组
+     */
+    public String[] generate(int count, boolean parallel) {
+        if (count < 0) {
+            throw new IllegalArgumentException("count must not be negative.");
+        }
+        String[] ids = new String[count];
+        fill(ids, parallel);
+        return ids;
+    }
+
+    /**
+     * 用默认长度的 NanoId 填满数组
+     *
+     * @param target 目标数组
+     */
+    public void fill(String[] target) {
+        fill(target, false);
+    }
+
+    /**
+     * 用默认长度的 NanoId 填满数组
+     *
+     * @param target   目标数组
+     * @param parallel 是否在 {@link java.util.concurrent.ForkJoinPool#commonPool()} 中并行生成
+     */
+    public void fill(String[] target, boolean parallel) {
+        int batches = (target.length + BATCH_SIZE - 1) / BATCH_SIZE;
+        if (parallel && batches > 1) {
+            IntStream.range(0, batches).parallel().forEach(batch -> fillBatch(target, batch));
+        } else {
+            for (int batch = 0; batch < batches; batch++) {
+                fillBatch(target, batch);
+            }
+        }
+    }
+
+    /**
+     * 一次填充整批字符，再切分为字符串
+     */
+    private void fillBatch(String[] target, int batch) {
+        int from = batch * BATCH_SIZE;
+        int count = Math.min(BATCH_SIZE, target.length - from);
+        char[] chars = new char[count * size];
+        fill(chars, 0, chars.length);
+        for (int i = 0; i < count; i++) {
+            target[from + i] = new String(chars, i * size, size);
+        }
+    }
+
+    private void fill(char[] target, int offset, int length) {
+        Entropy source = entropy.get();
+        byte[] buffer = source.buffer;
+        int position = source.position;
+        int end = offset + length;
+        int i = offset;
+        while (i < end) {
+            if (position == BUFFER_SIZE) {
+                source.refill();
+                position = 0;
+            }
+            int index = buffer[position++] & mask;
+            if (rejectionFree || index < alphabet.length) {
+                target[i++] = alphabet[index];
+            }
+        }
+        source.position = position;
+    }
+
+    private void checkRange(int length, int offset) {
+        if (offset < 0 || offset > length - size) {
+            throw new IndexOutOfBoundsException("offset: " + offset + ", size: " + size + ", length: " + length);
+        }
+    }
+
+    /**
+     * 线程独占的随机数生成器及其缓冲区
+     */
+    private static final class Entropy {
+        private final Random random;
+        private final byte[] buffer = new byte[BUFFER_SIZE];
+        private int position = BUFFER_SIZE;
+
+        Entropy(Random random) {
+            this.random = random;
+        }
+
+        void refill() {
+            random.nextBytes(buffer);
+        }
+    }
+}
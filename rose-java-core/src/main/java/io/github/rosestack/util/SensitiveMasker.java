@@ -0,0 +1,22 @@
+package io.github.rosestack.util;
+
+/**
+ * 脱敏函数，对单个字符串值执行脱敏
+ *
+ * <p>实现类应当是无状态且线程安全的，格式不匹配时建议返回原值。
+ *
+ * @author chensoul
+ * @since 1.0.0
+ * @see SensitiveUtils#register(SensitiveType, SensitiveMasker)
+ */
+@FunctionalInterface
+public interface SensitiveMasker {
+
+    /**
+     * 对值进行脱敏
+     *
+     * @param value 原始值，非空白
+     * @return 脱敏后的值
+     */
+    String mask(String value);
+}
@@ -0,0 +1,110 @@
+package io.github.rosestack.util;
+
+import java.util.regex.Pattern;
+
+import io.github.rosestack.lang.Prioritized;
+
+/**
+ * 脱敏策略：将一种脱敏类型（内置 {@link SensitiveType} 或自定义类型）与其脱敏函数、识别正则绑定
+ *
+ * <p>带有识别正则的策略会参与 {@link SensitiveUtils#maskByPattern(String)} 的自动识别，
+ * 按 {@link #getPriority() 优先级} 从高到低依次匹配。
+ *
+ * <pre>{@code
+ * SensitiveStrategy passport = SensitiveStrategy.of(
+ *         "PASSPORT", Pattern.compile("^[EGDSP]\\d{8}$"), v -> SensitiveUtils.maskCustom(v, 1, 3, '*'), 60);
+ * SensitiveUtils.register(passport);
+ * }</pre>
+ *
+ * @author chensoul
+ * @since 1.0.0
+ */
+public final class SensitiveStrategy implements SensitiveMasker, Prioritized {
+    private final String name;
+    private final Pattern pattern;
+    private final SensitiveMasker masker;
+    private final int priority;
+
+    private SensitiveStrategy(String name, Pattern pattern, SensitiveMasker masker, int priority) {
+        Assert.assertNotBlank(name, "name must not be blank");
+        Assert.assertNotNull(masker, "masker must not be null");
+        this.name = name;
+        this.pattern = pattern;
+        this.masker = masker;
+        this.priority = priority;
+    }
+
+    /**
+     * 创建不参与自动识别的策略
+     *
+     * @param name   类型名称
+     * @param masker 脱敏函数
+     * @return 脱敏策略
+     */
+    public static SensitiveStrategy of(String name, SensitiveMasker masker) {
+        return new SensitiveStrategy(name, null, masker, NORMAL_PRIORITY);
+    }
+
+    /**
+     * 创建参与自动识别的策略
+     *
+     * @param name     类型名称
+     * @param pattern  识别正则，为 null 时不参与自动识别
+     * @param masker   脱敏函数
+     * @param priority 识别优先级，数值越小越先匹配
+     * @return 脱敏策略
+     */
+    public static SensitiveStrategy of(String name, Pattern pattern, SensitiveMasker masker, int priority) {
+        return new SensitiveStrategy(name, pattern, masker, priority);
+    }
+
+    /**
+     * 以新的识别优先级复制当前策略
+     *
+     * @param priority 识别优先级
+     * @return 新的脱敏策略
+     */
+    public SensitiveStrategy withPriority(int priority) {
+        return new SensitiveStrategy(name, pattern, masker, priority);
+    }
+
+    /**
+     * 判断值是否符合本策略的识别正则
+     *
+     * @param value 待识别的值
+     * @return 是否匹配，无识别正则时返回 false
+     */
+    public boolean matches(String value) {
+        return pattern != null && pattern.matcher(value).matches();
+    }
+
+    @Override
+    public String mask(String value) {
+        if (StringUtils.isBlank(value)) {
+            return value;
+        }
+        return masker.mask(value);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Pattern getPattern() {
+        return pattern;
+    }
+
+    public SensitiveMasker getMasker() {
+        return masker;
+    }
+
+    @Override
+    public int getPriority() {
+        return priority;
+    }
+
+    @Override
+    public String toString() {
+        return "SensitiveStrategy{name='" + name + "', priority=" + priority + "}";
+    }
+}
@@ -0,0 +1,628 @@
+package io.github.rosestack.util;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 保留格式的可逆脱敏（令牌化）工具
+ *
+ * <p>与 {@link SensitiveUtils} 的单向脱敏不同，令牌化结果由密钥唯一确定且可还原，
+ * 同一密钥下相同的原值总是得到相同的令牌，便于跨表关联脱敏后的数据。 令牌保持原值的格式：
+ * <ul>
+ *   <li>{@link SensitiveType#PHONE}：保留前3位，其余8位令牌化，结果仍是11位手机号</li>
+ *   <li>{@link SensitiveType#ID_CARD}：保留前6位地区码，重新计算校验位</li>
+ *   <li>{@link SensitiveType#BANK_CARD}：保留前6位卡BIN，重新计算Luhn校验位</li>
+ *   <li>{@link SensitiveType#EMAIL}：对用户名中的字母数字令牌化，保留域名</li>
+ *   <li>{@link SensitiveType#IPV4}：保留前两段，后两段令牌化</li>
+ * </ul>
+ *
+ * <p>内部使用以 SipHash-2-4 为轮函数的 Feistel 网络在原值的字符集上做置换，格式不正确的值原样返回。
+ * 每个实例持有一个按类型划分的 LRU 缓存，用于热点值。 实例是线程安全的。
+ *
+ * <pre>{@code
+ * SensitiveTokenizer tokenizer = SensitiveTokenizer.of(secretKey);
+ * String token = tokenizer.tokenize("13812348000", SensitiveType.PHONE);
+ * String phone = tokenizer.detokenize(token, SensitiveType.PHONE);
+ * }</pre>
+ *
+ * @author chensoul
+ * @since 1.0.0
+ */
+public final class SensitiveTokenizer {
+    /**
+     * 默认的每类型缓存容量
+     */
+    public static final int DEFAULT_CACHE_SIZE = 4096;
+
+    private static final int ROUNDS = 10;
+    private static final int CACHE_SEGMENTS = 16;
+    private static final String ALPHANUMERIC = "0123456789abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ";
+    private static final int[] ALPHANUMERIC_INDEX = createIndex(ALPHANUMERIC);
+    private static final int[] ID_CARD_WEIGHTS = {7, 9, 10, 5, 8, 4, 2, 1, 6, 3, 7, 9, 10, 5, 8, 4, 2};
+    private static final char[] ID_CARD_CHECK_CODES = "10X98765432".toCharArray();
+    private static final long[] POW10 = powers(10);
+    private static final long[] POW62 = powers(62);
+    private static final long[] POW256 = powers(256);
+
+    private final long k0;
+    private final long k1;
+    private final LruCache[] caches;
+
+    private SensitiveTokenizer(byte[] key, int cacheSize) {
+        Assert.assertTrue(key != null && key.length >= 16, "key must contain at least 16 bytes");
+        Assert.assertTrue(cacheSize >= 0, "cacheSize must not be negative");
+        ByteBuffer digest = ByteBuffer.wrap(sha256(key));
+        this.k0 = digest.getLong();
+        this.k1 = digest.getLong();
+        this.caches = new LruCache[SensitiveType.values().length];
+        if (cacheSize > 0) {
+            for (int i = 0; i < caches.length; i++) {
+                caches[i] = new LruCache(cacheSize);
+            }
+        }
+    }
+
+    /**
+     * 使用默认缓存容量创建令牌化工具
+     *
+     * @param key 密钥，至少16字节
+     * @return 令牌化工具
+     */
+    public static SensitiveTokenizer of(byte[] key) {
+        return new SensitiveTokenizer(key, DEFAULT_CACHE_SIZE);
+    }
+
+    /**
+     * 创建令牌化工具
+     *
+     * @param key       密钥，至少16字节
+     * @param cacheSize 每种类型的缓存容量，为0时不缓存
+     * @return 令牌化工具
+     */
+    public static SensitiveTokenizer of(byte[] key, int cacheSize) {
+        return new SensitiveTokenizer(key, cacheSize);
+    }
+
+    /**
+     * 令牌化单个值
+     *
+     * @param value 原值
+     * @param type  脱敏类型
+     * @return 令牌，格式不正确时返回原值
+     * @throws IllegalArgumentException 类型不支持令牌化时
+     */
+    public String tokenize(String value, SensitiveType type) {
+        checkSupported(type);
+        if (StringUtils.isBlank(value)) {
+            return value;
+        }
+
+        LruCache cache = caches[type.ordinal()];
+        if (cache == null) {
+            return transform(value, type, true);
+        }
+        String token = cache.get(value);
+        if (token == null) {
+            token = transform(value, type, true);
+            cache.put(value, token);
+        }
+        return token;
+    }
+
+    /**
+     * 将令牌还原为原值
+     *
+     * @param token 令牌
+     * @param type  脱敏类型
+     * @return 原值
+     * @throws IllegalArgumentException 类型不支持令牌化时
+     */
+    public String detokenize(String token, SensitiveType type) {
+        checkSupported(type);
+        if (StringUtils.isBlank(token)) {
+            return token;
+        }
+        return transform(token, type, false);
+    }
+
+    /**
+     * 批量令牌化
+     *
+     * @param values 原值数组
+     * @param type   脱敏类型
+     * @return 令牌数组，与原值一一对应
+     */
+    public String[] tokenize(String[] values, SensitiveType type) {
+        String[] tokens = new String[values.length];
+        tokenize(values, type, tokens);
+        return tokens;
+    }
+
+    /**
+     * 批量令牌化，结果写入调用方提供的数组
+     *
+     * @param values 原值数组
+     * @param type   脱敏类型
+     * @param tokens 结果数组，长度不小于原值数组
+     */
+    public void tokenize(String[] values, SensitiveType type, String[] tokens) {
+        Assert.assertTrue(tokens.length >= values.length, "tokens length must not be less than values length");
+        checkSupported(type);
+        for (int i = 0; i < values.length; i++) {
+            tokens[i] = tokenize(values[i], type);
+        }
+    }
+
+    /**
+     * 批量还原令牌
+     *
+     * @param tokens 令牌数组
+     * @param type   脱敏类型
+     * @return 原值数组
+     */
+    public String[] detokenize(String[] tokens, SensitiveType type) {
+        checkSupported(type);
+        String[] values = new String[tokens.length];
+        for (int i = 0; i < tokens.length; i++) {
+            values[i] = detokenize(tokens[i], type);
+        }
+        return values;
+    }
+
+    /**
+     * 令牌化定长十进制数，结果仍在 [0, 10<sup>digits</sup>) 范围内，适用于以数值存储的号码
+     *
+     * @param value  原值，取值范围 [0, 10<sup>digits</sup>)
+     * @param digits 十进制位数，1 到 18
+     * @return 令牌
+     */
+    public long tokenize(long value, int digits) {
+        checkDigits(value, digits);
+        return encrypt(value, digits, 10, POW10, tweak(-1, digits));
+    }
+
+    /**
+     * 还原 {@link #tokenize(long, int)} 生成的令牌
+     *
+     * @param token  令牌
+     * @param digits 十进制位数，1 到 18
+     * @return 原值
+     */
+    public long detokenize(long token, int digits) {
+        checkDigits(token, digits);
+        return decrypt(token, digits, 10, POW10, tweak(-1, digits));
+    }
+
+    /**
+     * 批量令牌化定长十进制数，不产生中间对象
+     *
+     * @param values 原值数组
+     * @param digits 十进制位数，1 到 18
+     * @param tokens 结果数组，长度不小于原值数组
+     */
+    public void tokenize(long[] values, int digits, long[] tokens) {
+        Assert.assertTrue(tokens.length >= values.length, "tokens length must not be less than values length");
+        long tweak = tweak(-1, digits);
+        for (int i = 0; i < values.length; i++) {
+            checkDigits(values[i], digits);
+            tokens[i] = encrypt(values[i], digits, 10, POW10, tweak);
+        }
+    }
+
+    /**
+     * 批量还原定长十进制数令牌
+     *
+     * @param tokens 令牌数组
+     * @param digits 十进制位数，1 到 18
+     * @param values 结果数组，长度不小于令牌数组
+     */
+    public void detokenize(long[] tokens, int digits, long[] values) {
+        Assert.assertTrue(values.length >= tokens.length, "values length must not be less than tokens length");
+        long tweak = tweak(-1, digits);
+        for (int i = 0; i < tokens.length; i++) {
+            checkDigits(tokens[i], digits);
+            values[i] = decrypt(tokens[i], digits, 10, POW10, tweak);
+        }
+    }
+
+    /**
+     * 以脱敏函数的形式使用令牌化，可注册到 {@link SensitiveUtils} 或用于
+     * {@link SensitiveUtils#maskSensitiveFields(Object, Map)}
+     *
+     * @param type 脱敏类型
+     * @return 脱敏函数
+     */
+    public SensitiveMasker asMasker(SensitiveType type) {
+        checkSupported(type);
+        return value -> tokenize(value, type);
+    }
+
+    /**
+     * 判断类型是否支持令牌化
+     *
+     * @param type 脱敏类型
+     * @return 是否支持
+     */
+    public static boolean isSupported(SensitiveType type) {
+        switch (type) {
+            case PHONE:
+            case ID_CARD:
+            case BANK_CARD:
+            case EMAIL:
+            case IPV4:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * 清空缓存
+     */
+    public void clearCache() {
+        for (LruCache cache : caches) {
+            if (cache != null) {
+                cache.clear();
+            }
+        }
+    }
+
+    private String transform(String value, SensitiveType type, boolean encrypt) {
+        switch (type) {
+            case PHONE:
+                return transformPhone(value, encrypt);
+            case ID_CARD:
+                return transformIdCard(value, encrypt);
+            case BANK_CARD:
+                return transformBankCard(value, encrypt);
+            case EMAIL:
+                return transformEmail(value, encrypt);
+            case IPV4:
+                return transformIpv4(value, encrypt);
+            default:
+                return value;
+        }
+    }
+
+    private String transformPhone(String phone, boolean encrypt) {
+        if (!SensitiveUtils.PHONE_PATTERN.matcher(phone).matches()) {
+            return phone;
+        }
+
+        char[] chars = phone.toCharArray();
+        transformDigits(chars, 3, chars.length, tweak(SensitiveType.PHONE.ordinal(), 0), encrypt);
+        return new String(chars);
+    }
+
+    private String transformIdCard(String idCard, boolean encrypt) {
+        int length = idCard.length();
+        if (length == 15 && isDigits(idCard, 0, 15)) {
+            char[] chars = idCard.toCharArray();
+            transformDigits(chars, 6, 15, tweak(SensitiveType.ID_CARD.ordinal(), 15), encrypt);
+            return new String(chars);
+        }
+
+        if (length != 18 || !isDigits(idCard, 0, 17) || idCardCheckIndex(idCard.charAt(17)) < 0) {
+            return idCard;
+        }
+
+        // 保留原值校验位与正确校验位之间的差值，保证校验位错误的原值也能精确还原
+        char[] chars = idCard.toCharArray();
+        int delta = idCardCheckIndex(chars[17]) - idCardCheckIndex(idCardCheckCode(chars));
+        transformDigits(chars, 6, 17, tweak(SensitiveType.ID_CARD.ordinal(), 18), encrypt);
+        int check = Math.floorMod(idCardCheckIndex(idCardCheckCode(chars)) + delta, 11);
+        chars[17] = ID_CARD_CHECK_CODES[(12 - check) % 11];
+        return new String(chars);
+    }
+
+    private String transformBankCard(String bankCard, boolean encrypt) {
+        if (!SensitiveUtils.BANK_CARD_PATTERN.matcher(bankCard).matches()) {
+            return bankCard;
+        }
+
+        // 保留原值校验位与Luhn校验位之间的差值，合法卡号得到合法令牌
+        char[] chars = bankCard.toCharArray();
+        int last = chars.length - 1;
+        int delta = (chars[last] - '0') - luhnCheckDigit(chars, last);
+        transformDigits(chars, 6, last, tweak(SensitiveType.BANK_CARD.ordinal(), chars.length), encrypt);
+        chars[last] = (char) ('0' + Math.floorMod(luhnCheckDigit(chars, last) + delta, 10));
+        return new String(chars);
+    }
+
+    private String transformEmail(String email, boolean encrypt) {
+        if (!SensitiveUtils.EMAIL_PATTERN.matcher(email).matches()) {
+            return email;
+        }
+
+        char[] chars = email.toCharArray();
+        int atIndex = email.indexOf('@');
+        int[] positions = new int[atIndex];
+        int count = 0;
+        for (int i = 0; i < atIndex; i++) {
+            if (chars[i] < 128 && ALPHANUMERIC_INDEX[chars[i]] >= 0) {
+                positions[count++] = i;
+            }
+        }
+
+        int[] symbols = new int[count];
+        for (int i = 0; i < count; i++) {
+            symbols[i] = ALPHANUMERIC_INDEX[chars[positions[i]]];
+        }
+        transformSymbols(symbols, 62, POW62, tweak(SensitiveType.EMAIL.ordinal(), count), encrypt);
+        for (int i = 0; i < count; i++) {
+            chars[positions[i]] = ALPHANUMERIC.charAt(symbols[i]);
+        }
+        return new String(chars);
+    }
+
+    private String transformIpv4(String ipv4, boolean encrypt) {
+        if (!SensitiveUtils.IPV4_PATTERN.matcher(ipv4).matches()) {
+            return ipv4;
+        }
+
+        int second = ipv4.indexOf('.', ipv4.indexOf('.') + 1);
+        int third = ipv4.indexOf('.', second + 1);
+        long value = Long.parseLong(ipv4.substring(second + 1, third)) << 8
+                | Long.parseLong(ipv4.substring(third + 1));
+        long tweak = tweak(SensitiveType.IPV4.ordinal(), 2);
+        long result = encrypt ? encrypt(value, 2, 256, POW256, tweak) : decrypt(value, 2, 256, POW256, tweak);
+        return ipv4.substring(0, second + 1) + (result >>> 8) + '.' + (result & 0xFF);
+    }
+
+    private void transformDigits(char[] chars, int from, int to, long tweak, boolean encrypt) {
+        int[] symbols = new int[to - from];
+        for (int i = from; i < to; i++) {
+            symbols[i - from] = chars[i] - '0';
+        }
+        transformSymbols(symbols, 10, POW10, tweak, encrypt);
+        for (int i = from; i < to; i++) {
+            chars[i] = (char) ('0' + symbols[i - from]);
+        }
+    }
+
+    /**
+     * 将符号序列切分为能放入 long 的若干块，逐块做保留格式的置换
+     */
+    private void transformSymbols(int[] symbols, int radix, long[] pow, long tweak, boolean encrypt) {
+        int maxChunk = pow.length - 1;
+        int chunks = (symbols.length + maxChunk - 1) / maxChunk;
+        int offset = 0;
+        for (int c = 0; c < chunks; c++) {
+            int length = (symbols.length - offset) / (chunks - c);
+            long value = 0;
+            for (int i = offset; i < offset + length; i++) {
+                value = value * radix + symbols[i];
+            }
+
+            long chunkTweak = tweak ^ ((long) c << 48);
+            value = encrypt
+                    ? encrypt(value, length, radix, pow, chunkTweak)
+                    : decrypt(value, length, radix, pow, chunkTweak);
+
+            for (int i = offset + length - 1; i >= offset; i--) {
+                symbols[i] = (int) (value % radix);
+                value /= radix;
+            }
+            offset += length;
+        }
+    }
+
+    private long encrypt(long value, int length, int radix, long[] pow, long tweak) {
+        int u = length / 2;
+        int v = length - u;
+        long a = value / pow[v];
+        long b = value % pow[v];
+        for (int i = 0; i < ROUNDS; i++) {
+            long modulus = pow[(i & 1) == 0 ? u : v];
+            long c = (a + roundFunction(tweak, i, b) % modulus) % modulus;
+            a = b;
+            b = c;
+        }
+        return a * pow[v] + b;
+    }
+
+    private long decrypt(long value, int length, int radix, long[] pow, long tweak) {
+        int u = length / 2;
+        int v = length - u;
+        long a = value / pow[v];
+        long b = value % pow[v];
+        for (int i = ROUNDS - 1; i >= 0; i--) {
+            long modulus = pow[(i & 1) == 0 ? u : v];
+            long c = b;
+            b = a;
+            a = Math.floorMod(c - roundFunction(tweak, i, b) % modulus, modulus);
+        }
+        return a * pow[v] + b;
+    }
+
+    /**
+     * SipHash-2-4 作为 Feistel 轮函数，输入为 (tweak, round, half)
+     */
+    private long roundFunction(long tweak, int round, long half) {
+        long v0 = k0 ^ 0x736f6d6570736575L;
+        long v1 = k1 ^ 0x646f72616e646f6dL;
+        long v2 = k0 ^ 0x6c7967656e657261L;
+        long v3 = k1 ^ 0x7465646279746573L;
+
+        for (int j = 0; j < 4; j++) {
+            long m = j == 0 ? tweak : j == 1 ? round : j == 2 ? half : 24L << 56;
+            v3 ^= m;
+            for (int i = 0; i < 2; i++) {
+                v0 += v1;
+                v1 = Long.rotateLeft(v1, 13) ^ v0;
+                v0 = Long.rotateLeft(v0, 32);
+                v2 += v3;
+                v3 = Long.rotateLeft(v3, 16) ^ v2;
+                v0 += v3;
+                v3 = Long.rotateLeft(v3, 21) ^ v0;
+                v2 += v1;
+                v1 = Long.rotateLeft(v1, 17) ^ v2;
+                v2 = Long.rotateLeft(v2, 32);
+            }
+            v0 ^= m;
+        }
+
+        v2 ^= 0xff;
+        for (int i = 0; i < 4; i++) {
+            v0 += v1;
+            v1 = Long.rotateLeft(v1, 13) ^ v0;
+            v0 = Long.rotateLeft(v0, 32);
+            v2 += v3;
+            v3 = Long.rotateLeft(v3, 16) ^ v2;
+            v0 += v3;
+            v3 = Long.rotateLeft(v3, 21) ^ v0;
+            v2 += v1;
+            v1 = Long.rotateLeft(v1, 17) ^ v2;
+            v2 = Long.rotateLeft(v2, 32);
+        }
+        return (v0 ^ v1 ^ v2 ^ v3) >>> 2;
+    }
+
+    private static long tweak(int type, int length) {
+        return ((long) (type + 1) << 56) | ((long) length << 32);
+    }
+
+    private static void checkSupported(SensitiveType type) {
+        Assert.assertNotNull(type, "type must not be null");
+        Assert.assertTrue(isSupported(type), () -> "Tokenization is not supported for type: " + type);
+    }
+
+    private static void checkDigits(long value, int digits) {
+        Assert.assertTrue(digits > 0 && digits < POW10.length, "digits must be between 1 and 18");
+        Assert.assertTrue(
+                value >= 0 && value < POW10[digits], () -> value + " is out of range for " + digits + " digits");
+    }
+
+    private static boolean isDigits(String value, int from, int to) {
+        for (int i = from; i < to; i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static char idCardCheckCode(char[] chars) {
+        int sum = 0;
+        for (int i = 0; i < 17; i++) {
+            sum += (chars[i] - '0') * ID_CARD_WEIGHTS[i];
+        }
+        return ID_CARD_CHECK_CODES[sum % 11];
+    }
+
+    private static int idCardCheckIndex(char checkCode) {
+        char c = Character.toUpperCase(checkCode);
+        for (int i = 0; i < ID_CARD_CHECK_CODES.length; i++) {
+            if (ID_CARD_CHECK_CODES[i] == c) {
+                // 以 (12 - i) % 11 作为校验位的数值，使 X 对应 10
+                return (12 - i) % 11;
+            }
+        }
+        return -1;
+    }
+
+    private static int luhnCheckDigit(char[] digits, int length) {
+        int sum = 0;
+        boolean doubled = true;
+        for (int i = length - 1; i >= 0; i--) {
+            int d = digits[i] - '0';
+            if (doubled) {
+                d *= 2;
+                if (d > 9) {
+                    d -= 9;
+                }
+            }
+            sum += d;
+            doubled = !doubled;
+        }
+        return (10 - sum % 10) % 10;
+    }
+
+    private static long[] powers(int radix) {
+        // 保证两半之和不会溢出
+        int max = 0;
+        long limit = 1L << 62;
+        for (long p = 1; p <= limit / radix; p *= radix) {
+            max++;
+        }
+        long[] pow = new long[max + 1];
+        pow[0] = 1;
+        for (int i = 1; i <= max; i++) {
+            pow[i] = pow[i - 1] * radix;
+        }
+        return pow;
+    }
+
+    private static int[] createIndex(String alphabet) {
+        int[] index = new int[128];
+        Arrays.fill(index, -1);
+        for (int i = 0; i < alphabet.length(); i++) {
+            index[alphabet.charAt(i)] = i;
+        }
+        return index;
+    }
+
+    private static byte[] sha256(byte[] key) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update("rose-sensitive-tokenizer".getBytes(StandardCharsets.UTF_8));
+            return digest.digest(key);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * 分段加锁的 LRU 缓存
+     */
+    private static final class LruCache {
+        private final Map<String, String>[] segments;
+
+        @SuppressWarnings("unchecked")
+        LruCache(int capacity) {
+            int segmentCapacity = Math.max(1, capacity / CACHE_SEGMENTS);
+            this.segments = new Map[CACHE_SEGMENTS];
+            for (int i = 0; i < CACHE_SEGMENTS; i++) {
+                segments[i] = new LinkedHashMap<String, String>(16, 0.75f, true) {
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                        return size() > segmentCapacity;
+                    }
+                };
+            }
+        }
+
+        String get(String key) {
+            Map<String, String> segment = segmentFor(key);
+            synchronized (segment) {
+                return segment.get(key);
+            }
+        }
+
+        void put(String key, String value) {
+            Map<String, String> segment = segmentFor(key);
+            synchronized (segment) {
+                segment.put(key, value);
+            }
+        }
+
+        void clear() {
+            for (Map<String, String> segment : segments) {
+                synchronized (segment) {
+                    segment.clear();
+                }
+            }
+        }
+
+        private Map<String, String> segmentFor(String key) {
+            int h = key.hashCode();
+            return segments[(h ^ (h >>> 16)) & (CACHE_SEGMENTS - 1)];
+        }
+    }
+}
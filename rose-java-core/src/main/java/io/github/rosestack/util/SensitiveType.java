@@ -2,8 +2,11 @@ package io.github.rosestack.util;
 
 /**
  * 脱敏类型枚举
+ *
+ * <p>每个类型的脱敏函数由 {@link SensitiveUtils} 的注册表提供，可通过
+ * {@link SensitiveUtils#register(SensitiveType, SensitiveMasker)} 替换。
  */
-public enum SensitiveType {
+public enum SensitiveType implements SensitiveMasker {
     /**
      * 手机号脱敏：138****8000
      */
@@ -54,5 +57,10 @@ public enum SensitiveType {
     /**
      * 自定义脱敏规则
      */
-    CUSTOM
+    CUSTOM;
+
+    @Override
+    public String mask(String value) {
+        return SensitiveUtils.mask(value, this);
+    }
 }
@@ -1,13 +1,23 @@
 package io.github.rosestack.util;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Pattern;
 
+import com.fasterxml.jackson.databind.node.TextNode;
+
+import io.github.rosestack.lang.Prioritized;
+
 import lombok.extern.slf4j.Slf4j;
 
 /**
  * 简化的敏感数据脱敏工具类
  *
- * <p>提供基础的脱敏功能，支持常见的敏感数据类型脱敏。 使用简单直接的方式，无复杂的策略和规则。
+ * <p>提供基础的脱敏功能，支持常见的敏感数据类型脱敏。 每种类型对应一个 {@link SensitiveStrategy}，
+ * 内置类型以 {@link SensitiveType#ordinal()} 为下标直接分派，自定义类型可通过 {@link #register(SensitiveStrategy)} 注册。
  *
  * @author chensoul
  * @since 1.0.0
@@ -37,35 +47,147 @@ public class SensitiveUtils {
     public static final char MASK = '*';
     public static final String MASKED = "****";
 
+    private static final SensitiveMasker NO_MASKER = value -> value;
+
+    /**
+     * 内置类型的脱敏函数，以 {@link SensitiveType#ordinal()} 为下标
+     */
+    private static volatile SensitiveMasker[] typeMaskers = createTypeMaskers();
+
+    /**
+     * 按名称注册的策略，包含内置类型和自定义类型
+     */
+    private static final Map<String, SensitiveStrategy> STRATEGIES = new ConcurrentHashMap<>();
+
+    /**
+     * 参与自动识别的策略，按优先级排序
+     */
+    private static volatile SensitiveStrategy[] detectors;
+
+    static {
+        register(SensitiveStrategy.of(SensitiveType.PHONE.name(), PHONE_PATTERN, SensitiveUtils::maskPhone, 10));
+        register(SensitiveStrategy.of(SensitiveType.EMAIL.name(), EMAIL_PATTERN, SensitiveUtils::maskEmail, 20));
+        register(SensitiveStrategy.of(SensitiveType.ID_CARD.name(), ID_CARD_PATTERN, SensitiveUtils::maskIdCard, 30));
+        register(SensitiveStrategy.of(
+                SensitiveType.BANK_CARD.name(), BANK_CARD_PATTERN, SensitiveUtils::maskBankCard, 40));
+        register(SensitiveStrategy.of(SensitiveType.IPV4.name(), IPV4_PATTERN, SensitiveUtils::maskIpAddress, 50));
+        register(SensitiveStrategy.of(SensitiveType.NAME.name(), SensitiveUtils::maskName));
+        register(SensitiveStrategy.of(SensitiveType.ADDRESS.name(), SensitiveUtils::maskAddress));
+        register(SensitiveStrategy.of(SensitiveType.LICENSE_PLATE.name(), SensitiveUtils::maskLicensePlate));
+        register(SensitiveStrategy.of(SensitiveType.PASSWORD.name(), SensitiveUtils::maskPassword));
+        register(SensitiveStrategy.of(SensitiveType.SECRET_KEY.name(), SensitiveUtils::maskSecretKey));
+    }
+
     public static String mask(String value, SensitiveType type) {
         if (StringUtils.isBlank(value)) {
             return value;
         }
 
-        switch (type) {
-            case NAME:
-                return maskName(value);
-            case PHONE:
-                return maskPhone(value);
-            case EMAIL:
-                return maskEmail(value);
-            case ID_CARD:
-                return maskIdCard(value);
-            case BANK_CARD:
-                return maskBankCard(value);
-            case ADDRESS:
-                return maskAddress(value);
-            case LICENSE_PLATE:
-                return maskLicensePlate(value);
-            case IPV4:
-                return maskIpAddress(value);
-            case PASSWORD:
-                return maskPassword(value);
-            case SECRET_KEY:
-                return maskSecretKey(value);
-            default:
-                return value;
+        return typeMaskers[type.ordinal()].mask(value);
+    }
+
+    /**
+     * 按类型名称脱敏，支持内置类型和自定义类型
+     *
+     * @param value 原始值
+     * @param type  类型名称
+     * @return 脱敏后的值，类型未注册时返回原值
+     */
+    public static String mask(String value, String type) {
+        if (StringUtils.isBlank(value)) {
+            return value;
+        }
+
+        SensitiveStrategy strategy = STRATEGIES.get(type);
+        return strategy != null ? strategy.mask(value) : value;
+    }
+
+    /**
+     * 替换内置类型的脱敏函数，已有的识别正则和优先级保持不变
+     *
+     * @param type   脱敏类型
+     * @param masker 脱敏函数
+     */
+    public static synchronized void register(SensitiveType type, SensitiveMasker masker) {
+        Assert.assertNotNull(type, "type must not be null");
+        SensitiveStrategy current = STRATEGIES.get(type.name());
+        if (current != null && current.getPattern() != null) {
+            register(SensitiveStrategy.of(type.name(), current.getPattern(), masker, current.getPriority()));
+        } else {
+            register(SensitiveStrategy.of(type.name(), masker));
+        }
+    }
+
+    /**
+     * 注册脱敏策略，与 {@link SensitiveType} 同名时替换内置类型的实现
+     *
+     * @param strategy 脱敏策略
+     */
+    public static synchronized void register(SensitiveStrategy strategy) {
+        Assert.assertNotNull(strategy, "strategy must not be null");
+        SensitiveType type = findType(strategy.getName());
+        // SensitiveType 的脱敏函数会回到按类型分派，作为内置类型的实现会无限递归
+        Assert.assertTrue(
+                type == null || !(strategy.getMasker() instanceof SensitiveType),
+                () -> "The masker of " + type + " must not be a SensitiveType");
+        STRATEGIES.put(strategy.getName(), strategy);
+
+        if (type != null) {
+            SensitiveMasker[] maskers = typeMaskers.clone();
+            maskers[type.ordinal()] = strategy.getMasker();
+            typeMaskers = maskers;
+        }
+        detectors = createDetectors();
+    }
+
+    /**
+     * 注销脱敏策略，内置类型恢复为不脱敏
+     *
+     * @param name 类型名称
+     */
+    public static synchronized void unregister(String name) {
+        if (STRATEGIES.remove(name) == null) {
+            return;
+        }
+
+        SensitiveType type = findType(name);
+        if (type != null) {
+            SensitiveMasker[] maskers = typeMaskers.clone();
+            maskers[type.ordinal()] = NO_MASKER;
+            typeMaskers = maskers;
         }
+        detectors = createDetectors();
+    }
+
+    /**
+     * 调整自动识别优先级，数值越小越先匹配
+     *
+     * @param name     类型名称
+     * @param priority 识别优先级
+     */
+    public static synchronized void setDetectionPriority(String name, int priority) {
+        SensitiveStrategy strategy = STRATEGIES.get(name);
+        Assert.assertNotNull(strategy, () -> "No sensitive strategy registered with name: " + name);
+        register(strategy.withPriority(priority));
+    }
+
+    /**
+     * 获取已注册的脱敏策略，调用方可持有该策略以避免每次按名称查找
+     *
+     * @param name 类型名称
+     * @return 脱敏策略，未注册时返回 null
+     */
+    public static SensitiveStrategy getStrategy(String name) {
+        return STRATEGIES.get(name);
+    }
+
+    /**
+     * 获取参与自动识别的策略，按优先级排序
+     *
+     * @return 策略列表
+     */
+    public static List<SensitiveStrategy> getDetectors() {
+        return Collections.unmodifiableList(Arrays.asList(detectors));
     }
 
     /**
@@ -266,31 +388,18 @@ public class SensitiveUtils {
 
     /**
      * 根据模式进行脱敏
+     *
+     * <p>按优先级依次尝试已注册的识别正则，使用第一个匹配策略的脱敏函数。
      */
     public static String maskByPattern(String data) {
-        // 手机号检测
-        if (PHONE_PATTERN.matcher(data).matches()) {
-            return SensitiveUtils.maskPhone(data);
-        }
-
-        // 邮箱检测
-        if (EMAIL_PATTERN.matcher(data).find()) {
-            return SensitiveUtils.maskEmail(data);
-        }
-
-        // 身份证检测
-        if (ID_CARD_PATTERN.matcher(data).matches()) {
-            return SensitiveUtils.maskIdCard(data);
-        }
-
-        // 银行卡检测
-        if (BANK_CARD_PATTERN.matcher(data).matches()) {
-            return SensitiveUtils.maskBankCard(data);
+        if (StringUtils.isBlank(data)) {
+            return data;
         }
 
-        // IP地址检测
-        if (IPV4_PATTERN.matcher(data).matches()) {
-            return SensitiveUtils.maskIpAddress(data);
+        for (SensitiveStrategy detector : detectors) {
+            if (detector.matches(data)) {
+                return detector.mask(data);
+            }
         }
 
         // 如果都不匹配，返回原值
@@ -314,6 +423,53 @@ public class SensitiveUtils {
         return JsonUtils.processFields(object, JsonUtils.createCustomMaskProcessor(MASKED, sensitiveFields));
     }
 
+    /**
+     * 按字段指定脱敏函数对对象进行脱敏处理，字段值为字符串时才会脱敏
+     *
+     * <p>{@link SensitiveType} 与 {@link SensitiveStrategy} 均可作为脱敏函数传入。
+     *
+     * @param object        需要脱敏的对象
+     * @param fieldMaskers  字段名称到脱敏函数的映射
+     * @param <T>           对象类型
+     * @return 脱敏后的对象
+     */
+    public static <T> T maskSensitiveFields(T object, Map<String, ? extends SensitiveMasker> fieldMaskers) {
+        if (object == null || fieldMaskers == null || fieldMaskers.isEmpty()) {
+            return object;
+        }
+
+        return JsonUtils.processFields(object, (fieldName, fieldValue) -> {
+            SensitiveMasker masker = fieldMaskers.get(fieldName);
+            if (masker != null && fieldValue.isTextual()) {
+                String value = fieldValue.asText();
+                return StringUtils.isBlank(value) ? null : new TextNode(masker.mask(value));
+            }
+            return null;
+        });
+    }
+
+    private static SensitiveMasker[] createTypeMaskers() {
+        SensitiveMasker[] maskers = new SensitiveMasker[SensitiveType.values().length];
+        Arrays.fill(maskers, NO_MASKER);
+        return maskers;
+    }
+
+    private static SensitiveStrategy[] createDetectors() {
+        return STRATEGIES.values().stream()
+                .filter(strategy -> strategy.getPattern() != null)
+                .sorted(Prioritized.COMPARATOR)
+                .toArray(SensitiveStrategy[]::new);
+    }
+
+    private static SensitiveType findType(String name) {
+        for (SensitiveType type : SensitiveType.values()) {
+            if (type.name().equals(name)) {
+                return type;
+            }
+        }
+        return null;
+    }
+
     /**
      * 生成智能脱敏符号
      *
@@ -18,11 +18,19 @@ package io.github.rosestack.util;
 
 import org.slf4j.Logger;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import static io.github.rosestack.util.ShutdownHookUtils.SHUTDOWN_HOOK_REPORT_FILE;
 import static io.github.rosestack.util.ShutdownHookUtils.clearShutdownHookCallbacks;
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.slf4j.LoggerFactory.getLogger;
 
 /**
- * The Thread for executing the {@link Runnable} callbacks
+ * The Thread for executing the {@link Runnable} callbacks and the {@link ShutdownTask shutdown tasks}
  *
  * @author <a href="mailto:mercyblitz@gmail.com">Mercy<a/>
  * @see ShutdownHookUtils#registerShutdownHook()
@@ -32,6 +40,11 @@ class ShutdownHookCallbacksThread extends Thread {
 
     private static final Logger logger = getLogger(ShutdownHookCallbacksThread.class);
 
+    /**
+     * The structured report is logged as JSON at debug level to the logger named after {@link ShutdownHookReport}
+     */
+    private static final Logger reportLogger = getLogger(ShutdownHookReport.class);
+
     /**
      * The singleton instance of {@link ShutdownHookCallbacksThread}
      */
@@ -43,17 +56,35 @@ class ShutdownHookCallbacksThread extends Thread {
 
     @Override
     public void run() {
-        executeShutdownHookCallbacks();
+        ShutdownHookReport report = executeShutdownHookCallbacks();
+        publishReport(report, SHUTDOWN_HOOK_REPORT_FILE);
         clearShutdownHookCallbacks();
     }
 
-    private void executeShutdownHookCallbacks() {
-        for (Runnable callback : ShutdownHookUtils.shutdownHookCallbacks) {
-            if (logger.isTraceEnabled()) {
-                logger.trace("The ShutdownHook Callback is about to run : {}", callback);
-            }
-            callback.run();
+    ShutdownHookReport executeShutdownHookCallbacks() {
+        List<Runnable> callbacks = new ArrayList<>(ShutdownHookUtils.shutdownHookCallbacks);
+        List<ShutdownTask> tasks = new ArrayList<>(ShutdownHookUtils.shutdownTasks.values());
+        ShutdownHookReport report = ShutdownHookExecutor.createDefault().execute(callbacks, tasks);
+        if (report.isSuccessful()) {
+            logger.info("The ShutdownHook Callbacks have been executed : {}", report);
+        } else {
+            logger.warn("The ShutdownHook Callbacks have been executed with problems : {}", report);
         }
+        return report;
     }
 
+    static void publishReport(ShutdownHookReport report, String file) {
+        if (!reportLogger.isDebugEnabled() && file.isEmpty()) {
+            return;
+        }
+        String json = report.toJson();
+        reportLogger.debug(json);
+        if (!file.isEmpty()) {
+            try {
+                Files.write(Paths.get(file), json.getBytes(UTF_8));
+            } catch (IOException | RuntimeException e) {
+                logger.error("The ShutdownHook report can't be written to the file[{}]", file, e);
+            }
+        }
+    }
 }
@@ -0,0 +1,582 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.rosestack.util;
+
+import io.github.rosestack.annotation.Nonnull;
+import io.github.rosestack.util.ShutdownHookReport.CallbackResult;
+import io.github.rosestack.util.ShutdownHookReport.Status;
+import org.slf4j.Logger;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.github.rosestack.lang.Prioritized.COMPARATOR;
+import static io.github.rosestack.util.ShutdownHookUtils.SHUTDOWN_HOOK_CALLBACK_TIMEOUT;
+import static io.github.rosestack.util.ShutdownHookUtils.SHUTDOWN_HOOK_PARALLELISM;
+import static io.github.rosestack.util.ShutdownHookUtils.SHUTDOWN_HOOK_SLOW_THRESHOLD;
+import static io.github.rosestack.util.ShutdownHookUtils.SHUTDOWN_HOOK_TIMEOUT;
+import static java.util.Collections.emptyList;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * Executes shutdown hook callbacks and {@link ShutdownTask shutdown tasks} as a dependency graph with bounded
+ * parallelism and deadlines.
+ *
+ * <p>Callbacks are sorted by {@link io.github.rosestack.lang.Prioritized#COMPARATOR}; callbacks that compare equal form
+ * a tier, and each tier depends on the one before it. Shutdown tasks depend on the tasks they name instead. Every
+ * callback or task starts as soon as everything it depends on has finished, on at most {@code parallelism} daemon
+ * threads, so the total time is bounded by the longest dependency chain rather than by the sum of all callbacks. A
+ * task returning a {@link CompletableFuture} releases its thread while the future is pending.</p>
+ *
+ * <p>A callback or task that runs longer than the per-callback timeout is interrupted (or its future cancelled) and
+ * abandoned, and a blocked worker is replaced so the others keep their parallelism. Once the global timeout has elapsed
+ * the running ones are abandoned and the remaining ones are skipped. A failure or timeout is recorded and never
+ * prevents the dependents from running. Tasks that are part of a dependency cycle, or depend on one, are skipped;
+ * dependencies on unknown task names are ignored.</p>
+ *
+ * <p>Every callback and task is timed with {@link System#nanoTime()}. The stack of a thread still running a callback
+ * after the slow threshold is dumped once, logged and attached to the {@link ShutdownHookReport report}, which makes it
+ * possible to tell which callback holds up the shutdown.</p>
+ *
+ * <h3>Example Usage</h3>
+ * <pre>{@code
+ * ShutdownHookReport report = new ShutdownHookExecutor(4, 5000, 25000).execute(callbacks, tasks);
+ * report.getResults(Status.TIMED_OUT).forEach(System.out::println);
+ * }</pre>
+ *
+ * @author chensoul
+ * @see ShutdownHookUtils
+ * @see ShutdownHookReport
+ * @see ShutdownTask
+ * @since 1.0.0
+ */
+public class ShutdownHookExecutor {
+
+    private static final Logger logger = getLogger(ShutdownHookExecutor.class);
+
+    private final int parallelism;
+
+    private final long callbackTimeoutNanos;
+
+    private final long timeoutNanos;
+
+    private final long slowThresholdNanos;
+
+    /**
+     * Creates an executor that dumps the stack of a callback when it times out
+     *
+     * @param parallelism           the maximum number of callbacks running at the same time
+     * @param callbackTimeoutMillis the maximum time a single callback may run, in milliseconds
+     * @param timeoutMillis         the maximum time for all callbacks, in milliseconds
+     */
+    public ShutdownHookExecutor(int parallelism, long callbackTimeoutMillis, long timeoutMillis) {
+        this(parallelism, callbackTimeoutMillis, timeoutMillis, callbackTimeoutMillis);
+    }
+
+    /**
+     * @param parallelism           the maximum number of callbacks running at the same time
+     * @param callbackTimeoutMillis the maximum time a single callback may run, in milliseconds
+     * @param timeoutMillis         the maximum time for all callbacks, in milliseconds
+     * @param slowThresholdMillis   the time after which the stack of a running callback is dumped, in milliseconds
+     */
+    public ShutdownHookExecutor(int parallelism, long callbackTimeoutMillis, long timeoutMillis,
+                                long slowThresholdMillis) {
+        Assert.assertTrue(parallelism > 0, "parallelism must be positive");
+        Assert.assertTrue(callbackTimeoutMillis > 0, "callbackTimeoutMillis must be positive");
+        Assert.assertTrue(timeoutMillis > 0, "timeoutMillis must be positive");
+        Assert.assertTrue(slowThresholdMillis > 0, "slowThresholdMillis must be positive");
+        this.parallelism = parallelism;
+        this.callbackTimeoutNanos = MILLISECONDS.toNanos(callbackTimeoutMillis);
+        this.timeoutNanos = MILLISECONDS.toNanos(timeoutMillis);
+        this.slowThresholdNanos = MILLISECONDS.toNanos(slowThresholdMillis);
+    }
+
+    /**
+     * Creates an executor configured by the system properties declared in {@link ShutdownHookUtils}
+     *
+     * @return non-null
+     */
+    @Nonnull
+    public static ShutdownHookExecutor createDefault() {
+        return new ShutdownHookExecutor(SHUTDOWN_HOOK_PARALLELISM, SHUTDOWN_HOOK_CALLBACK_TIMEOUT, SHUTDOWN_HOOK_TIMEOUT,
+                SHUTDOWN_HOOK_SLOW_THRESHOLD);
+    }
+
+    /**
+     * Executes the callbacks and waits until each of them has completed, failed, timed out or been skipped
+     *
+     * @param callbacks the callbacks in any order
+     * @return the report in priority order
+     */
+    @Nonnull
+    public ShutdownHookReport execute(Collection<? extends Runnable> callbacks) {
+        return execute(callbacks, emptyList());
+    }
+
+    /**
+     * Executes the callbacks and the tasks and waits until each of them has completed, failed, timed out or been
+     * skipped. The callbacks and the tasks do not depend on each other.
+     *
+     * @param callbacks the callbacks in any order
+     * @param tasks     the tasks in any order
+     * @return the report, the callbacks in priority order followed by the tasks in the given order
+     * @throws IllegalArgumentException if two tasks have the same name
+     */
+    @Nonnull
+    public ShutdownHookReport execute(Collection<? extends Runnable> callbacks,
+                                      Collection<? extends ShutdownTask> tasks) {
+        Schedule schedule = new Schedule();
+        schedule.addCallbacks(callbacks);
+        schedule.addTasks(tasks);
+        return schedule.run();
+    }
+
+    private ThreadPoolExecutor newPool() {
+        AtomicInteger counter = new AtomicInteger();
+        return new ThreadPoolExecutor(parallelism, parallelism, 0, MILLISECONDS, new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "ShutdownHookCallback-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * The dependency graph of one execution, driven by the calling thread
+     */
+    private final class Schedule {
+
+        private final List<Node> nodes = new ArrayList<>();
+
+        private final BlockingQueue<Node> events = new LinkedBlockingQueue<>();
+
+        private final Deque<Node> ready = new ArrayDeque<>();
+
+        private final List<Node> running = new ArrayList<>();
+
+        private CallbackResult[] results;
+
+        private int pending;
+
+        private long origin;
+
+        void addCallbacks(Collection<? extends Runnable> callbacks) {
+            Runnable[] sorted = callbacks.toArray(new Runnable[0]);
+            // Arrays.sort is stable, so callbacks of the same tier keep their registration order
+            Arrays.sort(sorted, COMPARATOR);
+
+            Node barrier = null;
+            int tier = 0;
+            for (int from = 0; from < sorted.length; tier++) {
+                int to = from + 1;
+                while (to < sorted.length && COMPARATOR.compare(sorted[from], sorted[to]) == 0) {
+                    to++;
+                }
+                // a barrier joins two tiers with n + m edges instead of n * m
+                Node next = to < sorted.length ? addNode(null, null, -1, null) : null;
+                for (int i = from; i < to; i++) {
+                    Runnable callback = sorted[i];
+                    Node node = addNode(String.valueOf(callback), callback, tier, () -> {
+                        callback.run();
+                        return null;
+                    });
+                    addDependency(node, barrier);
+                    addDependency(next, node);
+                }
+                barrier = next;
+                from = to;
+            }
+        }
+
+        void addTasks(Collection<? extends ShutdownTask> tasks) {
+            Map<String, Node> nodesByName = new HashMap<>();
+            for (ShutdownTask task : tasks) {
+                Node node = addNode(task.getName(), task, -1, task::execute);
+                Assert.assertTrue(nodesByName.put(task.getName(), node) == null,
+                        () -> "Duplicate ShutdownTask name : " + task.getName());
+            }
+            for (ShutdownTask task : tasks) {
+                Node node = nodesByName.get(task.getName());
+                for (String dependency : task.getDependencies()) {
+                    Node dependencyNode = nodesByName.get(dependency);
+                    if (dependencyNode == null) {
+                        logger.warn("The ShutdownTask[{}] depends on the unknown ShutdownTask[{}], which is ignored",
+                                task.getName(), dependency);
+                    } else {
+                        addDependency(node, dependencyNode);
+                    }
+                }
+            }
+        }
+
+        private Node addNode(String name, Object source, int tier, Callable<? extends CompletableFuture<?>> action) {
+            Node node = new Node(nodes.size(), name, source, tier, action, events);
+            nodes.add(node);
+            return node;
+        }
+
+        private void addDependency(Node node, Node dependency) {
+            if (node != null && dependency != null) {
+                dependency.dependents.add(node);
+                node.waiting++;
+            }
+        }
+
+        ShutdownHookReport run() {
+            results = new CallbackResult[nodes.size()];
+            pending = nodes.size();
+            origin = System.nanoTime();
+            skipCycles();
+
+            long deadline = origin + timeoutNanos;
+            boolean deadlineExceeded = false;
+            ThreadPoolExecutor pool = newPool();
+            try {
+                while (pending > 0) {
+                    long now = System.nanoTime();
+                    deadlineExceeded |= now - deadline >= 0;
+                    Node node;
+                    while ((node = ready.poll()) != null) {
+                        if (node.action == null) {
+                            settle(node, Status.COMPLETED, now);
+                        } else if (deadlineExceeded) {
+                            node.cancel();
+                            settle(node, Status.SKIPPED, now);
+                        } else {
+                            running.add(node);
+                            pool.execute(node);
+                        }
+                    }
+
+                    long wakeAt = deadline;
+                    for (Iterator<Node> iterator = running.iterator(); iterator.hasNext(); ) {
+                        node = iterator.next();
+                        Status status = null;
+                        if (deadlineExceeded) {
+                            status = node.cancel() ? Status.SKIPPED : node.abandon(pool, now);
+                        } else if (node.isDone()) {
+                            status = node.error == null ? Status.COMPLETED : Status.FAILED;
+                        } else if (node.isRunning()) {
+                            long nodeDeadline = node.startNanos + callbackTimeoutNanos;
+                            long slowAt = node.startNanos + slowThresholdNanos;
+                            if (now - nodeDeadline >= 0) {
+                                status = node.abandon(pool, now);
+                            } else {
+                                if (node.stackTrace == null && now - slowAt >= 0) {
+                                    node.dumpStack(now);
+                                } else if (node.stackTrace == null && slowAt - wakeAt < 0) {
+                                    wakeAt = slowAt;
+                                }
+                                if (nodeDeadline - wakeAt < 0) {
+                                    wakeAt = nodeDeadline;
+                                }
+                            }
+                        }
+                        if (status != null) {
+                            iterator.remove();
+                            settle(node, status, now);
+                        }
+                    }
+
+                    if (pending > 0 && ready.isEmpty() && !deadlineExceeded) {
+                        try {
+                            events.poll(wakeAt - now, NANOSECONDS);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            deadlineExceeded = true;
+                        }
+                    }
+                }
+            } finally {
+                pool.shutdownNow();
+            }
+
+            List<CallbackResult> report = new ArrayList<>(results.length);
+            for (CallbackResult result : results) {
+                if (result != null) {
+                    report.add(result);
+                }
+            }
+            return new ShutdownHookReport(report, deadlineExceeded, System.nanoTime() - origin);
+        }
+
+        /**
+         * Queues the nodes without dependencies and skips the nodes that can never become ready (Kahn's algorithm)
+         */
+        private void skipCycles() {
+            int[] waiting = new int[nodes.size()];
+            Deque<Node> queue = new ArrayDeque<>();
+            for (Node node : nodes) {
+                waiting[node.index] = node.waiting;
+                if (node.waiting == 0) {
+                    queue.add(node);
+                    ready.add(node);
+                }
+            }
+            int visited = 0;
+            for (Node node; (node = queue.poll()) != null; visited++) {
+                for (Node dependent : node.dependents) {
+                    if (--waiting[dependent.index] == 0) {
+                        queue.add(dependent);
+                    }
+                }
+            }
+            if (visited == nodes.size()) {
+                return;
+            }
+            List<String> names = new ArrayList<>();
+            for (Node node : nodes) {
+                if (waiting[node.index] > 0) {
+                    names.add(node.name);
+                }
+            }
+            IllegalStateException error = new IllegalStateException(
+                    "The ShutdownTasks are part of or depend on a dependency cycle : " + names);
+            logger.error(error.getMessage());
+            for (Node node : nodes) {
+                if (waiting[node.index] > 0) {
+                    node.error = error;
+                    results[node.index] = new CallbackResult(node.name, node.source, node.tier, Status.SKIPPED, error,
+                            -1, 0, null);
+                    pending--;
+                }
+            }
+        }
+
+        private void settle(Node node, Status status, long now) {
+            pending--;
+            if (node.action != null) {
+                if (status == Status.TIMED_OUT) {
+                    logger.warn("The ShutdownHook Callback[{}] did not finish in time and was abandoned", node.name);
+                }
+                boolean started = status != Status.SKIPPED;
+                long end = status == Status.TIMED_OUT ? now : node.endNanos;
+                results[node.index] = new CallbackResult(node.name, node.source, node.tier, status, node.error,
+                        started ? node.startNanos - origin : -1, started ? end - node.startNanos : 0, node.stackTrace);
+            }
+            for (Node dependent : node.dependents) {
+                if (--dependent.waiting == 0) {
+                    ready.add(dependent);
+                }
+            }
+        }
+    }
+
+    /**
+     * A callback, task or tier barrier together with its execution state
+     */
+    private static final class Node implements Runnable {
+
+        private static final int NEW = 0;
+
+        private static final int RUNNING = 1;
+
+        private static final int DONE = 2;
+
+        private static final int CANCELLED = 3;
+
+        private static final int ABANDONED = 4;
+
+        private final int index;
+
+        private final String name;
+
+        private final Object source;
+
+        private final int tier;
+
+        /**
+         * {@code null} for a barrier between two tiers
+         */
+        private final Callable<? extends CompletableFuture<?>> action;
+
+        private final BlockingQueue<Node> events;
+
+        private final List<Node> dependents = new ArrayList<>();
+
+        /**
+         * The number of unsettled dependencies, only accessed by the thread driving the {@link Schedule}
+         */
+        private int waiting;
+
+        private final AtomicInteger state = new AtomicInteger(NEW);
+
+        private volatile long startNanos;
+
+        private volatile Thread runner;
+
+        private volatile CompletableFuture<?> future;
+
+        private volatile Throwable error;
+
+        private volatile long endNanos;
+
+        /**
+         * Only accessed by the thread driving the {@link Schedule}
+         */
+        private StackTraceElement[] stackTrace;
+
+        Node(int index, String name, Object source, int tier, Callable<? extends CompletableFuture<?>> action,
+             BlockingQueue<Node> events) {
+            this.index = index;
+            this.name = name;
+            this.source = source;
+            this.tier = tier;
+            this.action = action;
+            this.events = events;
+        }
+
+        @Override
+        public void run() {
+            startNanos = System.nanoTime();
+            runner = Thread.currentThread();
+            if (!state.compareAndSet(NEW, RUNNING)) {
+                return;
+            }
+            events.add(this);
+            if (logger.isTraceEnabled()) {
+                logger.trace("The ShutdownHook Callback is about to run : {}", name);
+            }
+            CompletableFuture<?> future = null;
+            try {
+                future = action.call();
+            } catch (Throwable e) {
+                fail(e);
+            } finally {
+                // publishes the outcome before leaving, so that abandon() only interrupts this thread while it is
+                // still inside action.call()
+                synchronized (this) {
+                    if (future == null) {
+                        finish();
+                    } else {
+                        this.future = future;
+                    }
+                    runner = null;
+                }
+            }
+            if (state.get() == ABANDONED) {
+                // the interrupt was meant for the abandoned callback, not for the next one run by this worker
+                Thread.interrupted();
+                if (future != null) {
+                    future.cancel(true);
+                }
+            }
+            if (future != null) {
+                // the worker is released while the future is pending
+                future.whenComplete((result, e) -> {
+                    if (e != null) {
+                        fail(e instanceof CompletionException && e.getCause() != null ? e.getCause() : e);
+                    }
+                    finish();
+                });
+            }
+        }
+
+        private void fail(Throwable e) {
+            if (state.get() != RUNNING) {
+                // already reported as timed out, e is typically caused by the interrupt or the cancellation
+                return;
+            }
+            error = e;
+            logger.error("The ShutdownHook Callback[{}] failed", name, e);
+        }
+
+        private void finish() {
+            endNanos = System.nanoTime();
+            if (state.compareAndSet(RUNNING, DONE)) {
+                events.add(this);
+            }
+        }
+
+        boolean isRunning() {
+            return state.get() == RUNNING;
+        }
+
+        boolean isDone() {
+            return state.get() == DONE;
+        }
+
+        /**
+         * @return {@code true} if the callback had not started and never will
+         */
+        boolean cancel() {
+            return state.compareAndSet(NEW, CANCELLED);
+        }
+
+        /**
+         * Dumps the stack of the thread running the callback, or an empty stack if it is waiting for its future
+         */
+        void dumpStack(long now) {
+            Thread thread = runner;
+            stackTrace = thread == null ? new StackTraceElement[0] : thread.getStackTrace();
+            if (logger.isWarnEnabled()) {
+                StringBuilder stack = new StringBuilder();
+                for (StackTraceElement element : stackTrace) {
+                    stack.append(System.lineSeparator()).append("\tat ").append(element);
+                }
+                logger.warn("The ShutdownHook Callback[{}] has been running for {} ms{}", name,
+                        NANOSECONDS.toMillis(now - startNanos),
+                        thread == null ? ", waiting for its future" : " in thread[" + thread.getName() + "] :" + stack);
+            }
+        }
+
+        /**
+         * Interrupts a running callback and gives up waiting for it, adding a worker in place of the one it occupies
+         *
+         * @return the final status of the callback
+         */
+        Status abandon(ThreadPoolExecutor pool, long now) {
+            if (!state.compareAndSet(RUNNING, ABANDONED)) {
+                // finished in the meantime
+                return error == null ? Status.COMPLETED : Status.FAILED;
+            }
+            if (stackTrace == null) {
+                dumpStack(now);
+            }
+            CompletableFuture<?> future;
+            synchronized (this) {
+                Thread thread = runner;
+                if (thread != null) {
+                    // the worker is still inside action.call()
+                    thread.interrupt();
+                    pool.setMaximumPoolSize(pool.getMaximumPoolSize() + 1);
+                    pool.setCorePoolSize(pool.getCorePoolSize() + 1);
+                }
+                future = this.future;
+            }
+            if (future != null) {
+                future.cancel(true);
+            }
+            return Status.TIMED_OUT;
+        }
+    }
+}
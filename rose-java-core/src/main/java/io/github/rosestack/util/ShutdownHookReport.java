@@ -0,0 +1,334 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.rosestack.util;
+
+import io.github.rosestack.annotation.Immutable;
+import io.github.rosestack.annotation.Nonnull;
+import io.github.rosestack.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Collections.unmodifiableList;
+import static java.util.Collections.unmodifiableMap;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * The outcome of one run of the shutdown hook callbacks and {@link ShutdownTask shutdown tasks} by
+ * {@link ShutdownHookExecutor}.
+ *
+ * <p>Every callback and task handed to the executor has exactly one {@link CallbackResult}: callbacks in priority order
+ * first, followed by the tasks in the given order. Those that finished normally are {@link Status#COMPLETED}, those that
+ * threw are {@link Status#FAILED}, those that exceeded their own deadline are {@link Status#TIMED_OUT}, and those that
+ * never started because the global deadline had passed or because they are part of a dependency cycle are
+ * {@link Status#SKIPPED}.</p>
+ *
+ * <p>The timings are taken with {@link System#nanoTime()} relative to the start of the execution. A phase is a priority
+ * tier of callbacks, or the graph of tasks, and lasts from its first start until its last end. The report converts to a
+ * structured {@link #toMap() map} or {@link #toJson() JSON} for logging or writing to a file.</p>
+ *
+ * <h3>Example Usage</h3>
+ * <pre>{@code
+ * ShutdownHookReport report = ShutdownHookUtils.dryRunShutdownHooks();
+ * report.getPhaseDurations(MILLISECONDS).forEach((phase, millis) -> System.out.println(phase + " : " + millis));
+ * report.getResults().stream().filter(result -> result.getStackTrace() != null).forEach(System.out::println);
+ * }</pre>
+ *
+ * @author chensoul
+ * @see ShutdownHookExecutor
+ * @since 1.0.0
+ */
+public final class ShutdownHookReport {
+
+    private final List<CallbackResult> results;
+
+    private final boolean deadlineExceeded;
+
+    private final long durationNanos;
+
+    ShutdownHookReport(List<CallbackResult> results, boolean deadlineExceeded, long durationNanos) {
+        this.results = unmodifiableList(results);
+        this.deadlineExceeded = deadlineExceeded;
+        this.durationNanos = durationNanos;
+    }
+
+    /**
+     * @return the results of all callbacks and tasks
+     */
+    @Nonnull
+    @Immutable
+    public List<CallbackResult> getResults() {
+        return results;
+    }
+
+    @Nonnull
+    @Immutable
+    public List<CallbackResult> getResults(Status status) {
+        return unmodifiableList(results.stream().filter(result -> result.getStatus() == status).collect(toList()));
+    }
+
+    /**
+     * @return {@code true} if the global deadline was reached before every callback had finished
+     */
+    public boolean isDeadlineExceeded() {
+        return deadlineExceeded;
+    }
+
+    /**
+     * @return {@code true} if every callback and task completed normally
+     */
+    public boolean isSuccessful() {
+        return results.stream().allMatch(result -> result.getStatus() == Status.COMPLETED);
+    }
+
+    public int count(Status status) {
+        return (int) results.stream().filter(result -> result.getStatus() == status).count();
+    }
+
+    /**
+     * @return the wall-clock time of the whole execution in nanoseconds
+     */
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+    /**
+     * @param unit the unit of the durations
+     * @return the durations of the phases that started, the priority tiers ({@code "tier-0"}, {@code "tier-1"}, ...) in
+     * order followed by {@code "tasks"}
+     */
+    @Nonnull
+    @Immutable
+    public Map<String, Long> getPhaseDurations(TimeUnit unit) {
+        Map<String, long[]> spans = new LinkedHashMap<>();
+        for (CallbackResult result : results) {
+            if (result.getStartNanos() < 0) {
+                continue;
+            }
+            String phase = result.getTier() < 0 ? "tasks" : "tier-" + result.getTier();
+            long end = result.getStartNanos() + result.getDurationNanos();
+            long[] span = spans.get(phase);
+            if (span == null) {
+                spans.put(phase, new long[]{result.getStartNanos(), end});
+            } else {
+                span[0] = Math.min(span[0], result.getStartNanos());
+                span[1] = Math.max(span[1], end);
+            }
+        }
+        Map<String, Long> durations = new LinkedHashMap<>();
+        spans.forEach((phase, span) -> durations.put(phase, unit.convert(span[1] - span[0], NANOSECONDS)));
+        return unmodifiableMap(durations);
+    }
+
+    /**
+     * Converts this report to a structure of maps, lists, strings, numbers and booleans, durations in milliseconds
+     *
+     * @return non-null
+     */
+    @Nonnull
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("successful", isSuccessful());
+        map.put("deadlineExceeded", deadlineExceeded);
+        map.put("durationMillis", toMillis(durationNanos));
+        map.put("phases", getPhaseDurations(MILLISECONDS));
+        List<Map<String, Object>> callbacks = new ArrayList<>(results.size());
+        for (CallbackResult result : results) {
+            callbacks.add(result.toMap());
+        }
+        map.put("callbacks", callbacks);
+        return map;
+    }
+
+    /**
+     * @return the {@link #toMap() structured report} as JSON
+     */
+    @Nonnull
+    public String toJson() {
+        return JsonUtils.toString(toMap());
+    }
+
+    @Override
+    public String toString() {
+        return "ShutdownHookReport{" +
+                "completed=" + count(Status.COMPLETED) +
+                ", failed=" + count(Status.FAILED) +
+                ", timedOut=" + count(Status.TIMED_OUT) +
+                ", skipped=" + count(Status.SKIPPED) +
+                ", deadlineExceeded=" + deadlineExceeded +
+                ", durationMillis=" + toMillis(durationNanos) +
+                '}';
+    }
+
+    /**
+     * The status of a callback or task after the shutdown hook callbacks have been executed
+     */
+    public enum Status {
+
+        COMPLETED,
+
+        FAILED,
+
+        TIMED_OUT,
+
+        SKIPPED
+    }
+
+    /**
+     * The result of a single callback or task
+     */
+    public static final class CallbackResult {
+
+        private final String name;
+
+        private final Object source;
+
+        private final int tier;
+
+        private final Status status;
+
+        private final Throwable error;
+
+        private final long startNanos;
+
+        private final long durationNanos;
+
+        private final StackTraceElement[] stackTrace;
+
+        CallbackResult(String name, Object source, int tier, Status status, Throwable error, long startNanos,
+                       long durationNanos, StackTraceElement[] stackTrace) {
+            this.name = name;
+            this.source = source;
+            this.tier = tier;
+            this.status = status;
+            this.error = error;
+            this.startNanos = startNanos;
+            this.durationNanos = durationNanos;
+            this.stackTrace = stackTrace;
+        }
+
+        /**
+         * @return the {@link ShutdownTask#getName() task name}, or the string representation of the callback
+         */
+        @Nonnull
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * @return the callback, or {@code null} if this is the result of a {@link ShutdownTask}
+         */
+        @Nullable
+        public Runnable getCallback() {
+            return source instanceof ShutdownTask ? null : (Runnable) source;
+        }
+
+        /**
+         * @return the task, or {@code null} if this is the result of a callback
+         */
+        @Nullable
+        public ShutdownTask getTask() {
+            return source instanceof ShutdownTask ? (ShutdownTask) source : null;
+        }
+
+        /**
+         * @return the zero-based index of the priority tier the callback ran in, or {@code -1} for a
+         * {@link ShutdownTask}
+         */
+        public int getTier() {
+            return tier;
+        }
+
+        @Nonnull
+        public Status getStatus() {
+            return status;
+        }
+
+        /**
+         * @return the exception thrown by a {@link Status#FAILED failed} callback, the cause of a
+         * {@link Status#SKIPPED skipped} task in a dependency cycle, otherwise {@code null}
+         */
+        @Nullable
+        public Throwable getError() {
+            return error;
+        }
+
+        /**
+         * @return the nanoseconds from the start of the execution until this callback started, or {@code -1} if it
+         * never started
+         */
+        public long getStartNanos() {
+            return startNanos;
+        }
+
+        /**
+         * @return the nanoseconds this callback ran until it finished or was abandoned, {@code 0} if it never started
+         */
+        public long getDurationNanos() {
+            return durationNanos;
+        }
+
+        /**
+         * @return the stack of the thread running this callback, dumped once it ran longer than the slow threshold,
+         * otherwise {@code null}
+         */
+        @Nullable
+        public StackTraceElement[] getStackTrace() {
+            return stackTrace == null ? null : stackTrace.clone();
+        }
+
+        Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("name", name);
+            map.put("tier", tier);
+            map.put("status", status.name());
+            map.put("startMillis", startNanos < 0 ? -1 : toMillis(startNanos));
+            map.put("durationMillis", toMillis(durationNanos));
+            if (error != null) {
+                map.put("error", error.toString());
+            }
+            if (stackTrace != null) {
+                List<String> frames = new ArrayList<>(stackTrace.length);
+                for (StackTraceElement element : stackTrace) {
+                    frames.add(element.toString());
+                }
+                map.put("stackTrace", frames);
+            }
+            return map;
+        }
+
+        @Override
+        public String toString() {
+            return "CallbackResult{" +
+                    "name=" + name +
+                    ", tier=" + tier +
+                    ", status=" + status +
+                    ", durationMillis=" + toMillis(durationNanos) +
+                    (error == null ? "" : ", error=" + error) +
+                    '}';
+        }
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
@@ -23,20 +23,28 @@ import io.github.rosestack.annotation.Nullable;
 import io.github.rosestack.processor.configuration.ConfigurationProperty;
 import org.slf4j.Logger;
 
+import java.lang.reflect.Field;
+import java.util.HashSet;
 import java.util.Map;
 import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Predicate;
 
 import static io.github.rosestack.constants.PropertyConstants.MICROSPHERE_PROPERTY_NAME_PREFIX;
 import static io.github.rosestack.lang.Prioritized.COMPARATOR;
 import static io.github.rosestack.processor.configuration.ConfigurationProperty.SYSTEM_PROPERTIES_SOURCE;
 import static io.github.rosestack.util.ShutdownHookCallbacksThread.INSTANCE;
+import static java.lang.Boolean.getBoolean;
 import static java.lang.Integer.getInteger;
 import static java.lang.Integer.parseInt;
+import static java.lang.Long.getLong;
+import static java.lang.Long.parseLong;
 import static java.lang.Runtime.getRuntime;
-import static java.util.Collections.emptyMap;
+import static java.lang.System.getProperty;
+import static java.util.Collections.unmodifiableMap;
 import static java.util.Collections.unmodifiableSet;
 import static java.util.stream.Collectors.toSet;
 import static org.slf4j.LoggerFactory.getLogger;
@@ -56,6 +64,11 @@ import static org.slf4j.LoggerFactory.getLogger;
  * });
  * }</pre>
  *
+ * <p>The {@link ShutdownHookCallbacksThread} is registered on the first callback or task, so loading this class costs
+ * nothing. The shutdown hook threads are tracked by this class itself; the threads registered directly through
+ * {@link Runtime#addShutdownHook(Thread)} are only visible with the opt-in
+ * {@link #SHUTDOWN_HOOK_INTROSPECTION_ENABLED JDK introspection}.</p>
+ *
  * <h4>Filtering Existing Shutdown Hooks</h4>
  * <pre>{@code
  * Set<Thread> shutdownHooks = ShutdownHookUtils.getShutdownHookThreads();
@@ -102,6 +115,129 @@ public abstract class ShutdownHookUtils {
     )
     public static final int SHUTDOWN_HOOK_CALLBACKS_CAPACITY = getInteger(SHUTDOWN_HOOK_CALLBACKS_CAPACITY_PROPERTY_NAME, DEFAULT_SHUTDOWN_HOOK_CALLBACKS_CAPACITY);
 
+    /**
+     * The System property name of the maximum number of ShutdownHook callbacks running concurrently within one priority tier : {@code "rose.shutdown-hook.parallelism"}
+     */
+    public static final String SHUTDOWN_HOOK_PARALLELISM_PROPERTY_NAME = MICROSPHERE_PROPERTY_NAME_PREFIX + "shutdown-hook.parallelism";
+
+    /**
+     * The default property value of the ShutdownHook callbacks parallelism : {@code "4"}
+     */
+    public static final String DEFAULT_SHUTDOWN_HOOK_PARALLELISM_PROPERTY_VALUE = "4";
+
+    /**
+     * The maximum number of ShutdownHook callbacks running concurrently within one priority tier, the default value is 4
+     */
+    @ConfigurationProperty(
+            name = SHUTDOWN_HOOK_PARALLELISM_PROPERTY_NAME,
+            defaultValue = DEFAULT_SHUTDOWN_HOOK_PARALLELISM_PROPERTY_VALUE,
+            description = "The maximum number of ShutdownHook callbacks running concurrently within one priority tier",
+            source = SYSTEM_PROPERTIES_SOURCE
+    )
+    public static final int SHUTDOWN_HOOK_PARALLELISM = getInteger(SHUTDOWN_HOOK_PARALLELISM_PROPERTY_NAME, parseInt(DEFAULT_SHUTDOWN_HOOK_PARALLELISM_PROPERTY_VALUE));
+
+    /**
+     * The System property name of the timeout in milliseconds of a single ShutdownHook callback : {@code "rose.shutdown-hook.callback-timeout"}
+     */
+    public static final String SHUTDOWN_HOOK_CALLBACK_TIMEOUT_PROPERTY_NAME = MICROSPHERE_PROPERTY_NAME_PREFIX + "shutdown-hook.callback-timeout";
+
+    /**
+     * The default property value of the timeout of a single ShutdownHook callback : {@code "10000"}
+     */
+    public static final String DEFAULT_SHUTDOWN_HOOK_CALLBACK_TIMEOUT_PROPERTY_VALUE = "10000";
+
+    /**
+     * The timeout in milliseconds of a single ShutdownHook callback, the default value is 10000
+     */
+    @ConfigurationProperty(
+            name = SHUTDOWN_HOOK_CALLBACK_TIMEOUT_PROPERTY_NAME,
+            defaultValue = DEFAULT_SHUTDOWN_HOOK_CALLBACK_TIMEOUT_PROPERTY_VALUE,
+            description = "The timeout in milliseconds of a single ShutdownHook callback",
+            source = SYSTEM_PROPERTIES_SOURCE
+    )
+    public static final long SHUTDOWN_HOOK_CALLBACK_TIMEOUT = getLong(SHUTDOWN_HOOK_CALLBACK_TIMEOUT_PROPERTY_NAME, parseLong(DEFAULT_SHUTDOWN_HOOK_CALLBACK_TIMEOUT_PROPERTY_VALUE));
+
+    /**
+     * The System property name of the timeout in milliseconds of all ShutdownHook callbacks : {@code "rose.shutdown-hook.timeout"}
+     */
+    public static final String SHUTDOWN_HOOK_TIMEOUT_PROPERTY_NAME = MICROSPHERE_PROPERTY_NAME_PREFIX + "shutdown-hook.timeout";
+
+    /**
+     * The default property value of the timeout of all ShutdownHook callbacks : {@code "25000"}, which leaves a margin within
+     * the default 30 seconds termination grace period of Kubernetes
+     */
+    public static final String DEFAULT_SHUTDOWN_HOOK_TIMEOUT_PROPERTY_VALUE = "25000";
+
+    /**
+     * The timeout in milliseconds of all ShutdownHook callbacks, the default value is 25000
+     */
+    @ConfigurationProperty(
+            name = SHUTDOWN_HOOK_TIMEOUT_PROPERTY_NAME,
+            defaultValue = DEFAULT_SHUTDOWN_HOOK_TIMEOUT_PROPERTY_VALUE,
+            description = "The timeout in milliseconds of all ShutdownHook callbacks",
+            source = SYSTEM_PROPERTIES_SOURCE
+    )
+    public static final long SHUTDOWN_HOOK_TIMEOUT = getLong(SHUTDOWN_HOOK_TIMEOUT_PROPERTY_NAME, parseLong(DEFAULT_SHUTDOWN_HOOK_TIMEOUT_PROPERTY_VALUE));
+
+    /**
+     * The System property name of the duration in milliseconds after which the stack of a running ShutdownHook callback
+     * is dumped : {@code "rose.shutdown-hook.slow-threshold"}
+     */
+    public static final String SHUTDOWN_HOOK_SLOW_THRESHOLD_PROPERTY_NAME = MICROSPHERE_PROPERTY_NAME_PREFIX + "shutdown-hook.slow-threshold";
+
+    /**
+     * The default property value of the slow ShutdownHook callback threshold : {@code "5000"}
+     */
+    public static final String DEFAULT_SHUTDOWN_HOOK_SLOW_THRESHOLD_PROPERTY_VALUE = "5000";
+
+    /**
+     * The duration in milliseconds after which the stack of a running ShutdownHook callback is dumped, the default value
+     * is 5000
+     */
+    @ConfigurationProperty(
+            name = SHUTDOWN_HOOK_SLOW_THRESHOLD_PROPERTY_NAME,
+            defaultValue = DEFAULT_SHUTDOWN_HOOK_SLOW_THRESHOLD_PROPERTY_VALUE,
+            description = "The duration in milliseconds after which the stack of a running ShutdownHook callback is dumped",
+            source = SYSTEM_PROPERTIES_SOURCE
+    )
+    public static final long SHUTDOWN_HOOK_SLOW_THRESHOLD = getLong(SHUTDOWN_HOOK_SLOW_THRESHOLD_PROPERTY_NAME, parseLong(DEFAULT_SHUTDOWN_HOOK_SLOW_THRESHOLD_PROPERTY_VALUE));
+
+    /**
+     * The System property name of the file the {@link ShutdownHookReport} is written to as JSON at JVM shutdown :
+     * {@code "rose.shutdown-hook.report-file"}
+     */
+    public static final String SHUTDOWN_HOOK_REPORT_FILE_PROPERTY_NAME = MICROSPHERE_PROPERTY_NAME_PREFIX + "shutdown-hook.report-file";
+
+    /**
+     * The file the {@link ShutdownHookReport} is written to as JSON at JVM shutdown, the default value is empty, which
+     * means no file is written
+     */
+    @ConfigurationProperty(
+            name = SHUTDOWN_HOOK_REPORT_FILE_PROPERTY_NAME,
+            description = "The file the ShutdownHook report is written to as JSON at JVM shutdown",
+            source = SYSTEM_PROPERTIES_SOURCE
+    )
+    public static final String SHUTDOWN_HOOK_REPORT_FILE = getProperty(SHUTDOWN_HOOK_REPORT_FILE_PROPERTY_NAME, "");
+
+    /**
+     * The System property name of whether the shutdown hook threads registered outside of this class are read from the
+     * JDK internals : {@code "rose.shutdown-hook.introspection-enabled"}
+     */
+    public static final String SHUTDOWN_HOOK_INTROSPECTION_ENABLED_PROPERTY_NAME = MICROSPHERE_PROPERTY_NAME_PREFIX + "shutdown-hook.introspection-enabled";
+
+    /**
+     * Whether the shutdown hook threads registered outside of this class are read from the JDK internals, the default
+     * value is {@code false}. It only takes effect if {@link #isShutdownHookIntrospectionSupported() supported}, which
+     * requires {@code --add-opens java.base/java.lang=ALL-UNNAMED} since Java 16.
+     */
+    @ConfigurationProperty(
+            name = SHUTDOWN_HOOK_INTROSPECTION_ENABLED_PROPERTY_NAME,
+            defaultValue = "false",
+            description = "Whether the shutdown hook threads registered outside of ShutdownHookUtils are read from the JDK internals",
+            source = SYSTEM_PROPERTIES_SOURCE
+    )
+    public static final boolean SHUTDOWN_HOOK_INTROSPECTION_ENABLED = getBoolean(SHUTDOWN_HOOK_INTROSPECTION_ENABLED_PROPERTY_NAME);
+
     /**
      * The {@link Predicate} to filter the type that is {@link ShutdownHookCallbacksThread}
      */
@@ -109,20 +245,26 @@ public abstract class ShutdownHookUtils {
 
     static final PriorityBlockingQueue<Runnable> shutdownHookCallbacks = new PriorityBlockingQueue<>(SHUTDOWN_HOOK_CALLBACKS_CAPACITY, COMPARATOR);
 
+    static final Map<String, ShutdownTask> shutdownTasks = new ConcurrentHashMap<>();
+
+    /**
+     * The shutdown hook threads registered through this class
+     */
+    private static final Set<Thread> shutdownHookThreads = ConcurrentHashMap.newKeySet();
+
+    private static final AtomicBoolean shutdownHookRegistered = new AtomicBoolean();
+
     private static final String TARGET_CLASS_NAME = "java.lang.ApplicationShutdownHooks";
 
     private static final String HOOKS_FIELD_NAME = "hooks";
 
-    static {
-        registerShutdownHook();
-    }
-
     /**
      * Registers the {@link ShutdownHookCallbacksThread} as a JVM shutdown hook to execute registered callbacks
      * during application shutdown.
      *
-     * <p>If no such hook has been previously registered, this method adds the hook using
-     * {@link Runtime#addShutdownHook(Thread)}.</p>
+     * <p>The hook is added using {@link Runtime#addShutdownHook(Thread)} once; subsequent calls only read a flag. It is
+     * called by {@link #addShutdownHookCallback(Runnable)} and {@link #addShutdownTask(ShutdownTask)}, so that loading
+     * this class does not register anything.</p>
      *
      * <h3>Example Usage</h3>
      * <pre>{@code
@@ -131,12 +273,62 @@ public abstract class ShutdownHookUtils {
      * }</pre>
      */
     public static void registerShutdownHook() {
+        if (!shutdownHookRegistered.get() && shutdownHookRegistered.compareAndSet(false, true)) {
+            try {
+                addShutdownHookThread(INSTANCE);
+            } catch (IllegalStateException e) {
+                logger.warn("The ShutdownHook Callbacks Thread can't be registered, the JVM is shutting down", e);
+            }
+        }
+    }
 
-        Set<Thread> shutdownHookThreads = filterShutdownHookThreads(SHUTDOWN_HOOK_CALLBACKS_THREAD_FILTER);
+    /**
+     * Registers a thread as a JVM shutdown hook by {@link Runtime#addShutdownHook(Thread)} and tracks it, so that it
+     * can be found by {@link #filterShutdownHookThreads(Predicate)} without any introspection.
+     *
+     * @param hookThread the thread to be registered
+     * @return {@code true} if registered, {@code false} if it has been registered through this class already
+     * @throws IllegalArgumentException if the thread has been started, or registered directly through {@link Runtime}
+     * @throws IllegalStateException    if the JVM is shutting down
+     */
+    public static boolean addShutdownHookThread(@Nonnull Thread hookThread) {
+        Assert.assertNotNull(hookThread, "hookThread must not be null");
+        if (!shutdownHookThreads.add(hookThread)) {
+            return false;
+        }
+        try {
+            getRuntime().addShutdownHook(hookThread);
+        } catch (RuntimeException e) {
+            shutdownHookThreads.remove(hookThread);
+            throw e;
+        }
+        return true;
+    }
 
-        if (shutdownHookThreads.isEmpty()) {
-            getRuntime().addShutdownHook(INSTANCE);
+    /**
+     * De-registers a JVM shutdown hook by {@link Runtime#removeShutdownHook(Thread)}
+     *
+     * @param hookThread the thread to be de-registered
+     * @return {@code true} if it had been registered
+     * @throws IllegalStateException if the JVM is shutting down
+     */
+    public static boolean removeShutdownHookThread(@Nullable Thread hookThread) {
+        if (hookThread == null) {
+            return false;
         }
+        shutdownHookThreads.remove(hookThread);
+        return getRuntime().removeShutdownHook(hookThread);
+    }
+
+    /**
+     * Checks whether the shutdown hook threads registered outside of this class can be read from the JDK internals,
+     * which fails under the strong encapsulation of Java 16 or later unless {@code java.lang} is opened.
+     *
+     * @return {@code true} if supported
+     * @see #SHUTDOWN_HOOK_INTROSPECTION_ENABLED
+     */
+    public static boolean isShutdownHookIntrospectionSupported() {
+        return JdkShutdownHooks.HOOKS_FIELD != null;
     }
 
     /**
@@ -239,24 +431,23 @@ public abstract class ShutdownHookUtils {
     @Nonnull
     @Immutable
     public static Set<Thread> filterShutdownHookThreads(Predicate<? super Thread> hookThreadFilter, boolean removed) {
-        Map<Thread, Thread> shutdownHookThreadsMap = shutdownHookThreadsMap();
-
-        Set<Thread> shutdownHookThreads = shutdownHookThreadsMap.keySet().stream()
+        Set<Thread> filteredThreads = shutdownHookThreads().stream()
                 .filter(hookThreadFilter)
                 .collect(toSet());
 
         if (removed) {
-            shutdownHookThreads.forEach(shutdownHookThreadsMap::remove);
+            filteredThreads.forEach(ShutdownHookUtils::removeShutdownHookThread);
         }
 
-        return unmodifiableSet(shutdownHookThreads);
+        return unmodifiableSet(filteredThreads);
     }
 
     /**
      * Adds a shutdown hook callback to be executed during JVM shutdown.
      *
      * <p>This method registers a {@link Runnable} callback that will be invoked when the JVM begins its shutdown sequence.
-     * The callback is added to an internal queue and will be executed in the order determined by its priority.
+     * The callback is added to an internal queue; callbacks are executed by {@link ShutdownHookExecutor} in tiers of equal
+     * priority, concurrently within a tier and bounded by {@link #SHUTDOWN_HOOK_CALLBACK_TIMEOUT} and {@link #SHUTDOWN_HOOK_TIMEOUT}.
      * If the callback is already registered, it will not be added again.</p>
      *
      * <h3>Example Usage</h3>
@@ -284,6 +475,7 @@ public abstract class ShutdownHookUtils {
     public static boolean addShutdownHookCallback(@Nullable Runnable callback) {
         boolean added = false;
         if (callback != null) {
+            registerShutdownHook();
             added = shutdownHookCallbacks.add(callback);
         }
         return added;
@@ -368,18 +560,134 @@ public abstract class ShutdownHookUtils {
         return shutdownHookCallbacks;
     }
 
+    /**
+     * Adds a named {@link ShutdownTask} to be executed during JVM shutdown.
+     *
+     * <p>The task starts once all the tasks named by its {@link ShutdownTask#getDependencies() dependencies} have
+     * finished, concurrently with the other tasks whose dependencies have finished and with the
+     * {@link #addShutdownHookCallback(Runnable) callbacks}. A dependency may be registered after its dependent.</p>
+     *
+     * <h3>Example Usage</h3>
+     * <pre>{@code
+     * ShutdownHookUtils.addShutdownTask(ShutdownTask.of("http-server", server::stop));
+     * ShutdownHookUtils.addShutdownTask(ShutdownTask.async("queues", queues::drainAsync, "http-server"));
+     * ShutdownHookUtils.addShutdownTask(ShutdownTask.of("metrics", metrics::flush, "queues"));
+     * }</pre>
+     *
+     * @param task the task to be executed during JVM shutdown; may be {@code null}, in which case no action is taken
+     * @return {@code true} if the task was added; {@code false} if it is {@code null} or a task with the same name has
+     * already been added
+     * @see ShutdownHookExecutor
+     */
+    public static boolean addShutdownTask(@Nullable ShutdownTask task) {
+        if (task == null) {
+            return false;
+        }
+        registerShutdownHook();
+        return shutdownTasks.putIfAbsent(task.getName(), task) == null;
+    }
+
+    /**
+     * Removes a previously added {@link ShutdownTask}
+     *
+     * @param name the name of the task; may be {@code null}, in which case no action is taken
+     * @return {@code true} if the task was removed; {@code false} if it was not found or if the name was {@code null}
+     */
+    public static boolean removeShutdownTask(@Nullable String name) {
+        return name != null && shutdownTasks.remove(name) != null;
+    }
+
+    /**
+     * @return A non-null, unmodifiable map of all added {@link ShutdownTask shutdown tasks} by their names
+     */
+    @Nonnull
+    @Immutable
+    public static Map<String, ShutdownTask> getShutdownTasks() {
+        return unmodifiableMap(shutdownTasks);
+    }
+
+    /**
+     * Executes the registered shutdown hook callbacks and {@link ShutdownTask shutdown tasks} now, in the calling
+     * thread, exactly as the JVM shutdown would, and keeps them registered.
+     *
+     * <p>This is intended for test harnesses that measure how long a shutdown takes and which phase or callback
+     * dominates it. The callbacks and tasks really run, so the resources they release are released.</p>
+     *
+     * <h3>Example Usage</h3>
+     * <pre>{@code
+     * ShutdownHookReport report = ShutdownHookUtils.dryRunShutdownHooks();
+     * report.getPhaseDurations(TimeUnit.MILLISECONDS).forEach((phase, millis) -> System.out.println(phase + " : " + millis));
+     * }</pre>
+     *
+     * @return the report of the execution
+     */
+    @Nonnull
+    public static ShutdownHookReport dryRunShutdownHooks() {
+        return INSTANCE.executeShutdownHookCallbacks();
+    }
+
     static void clearShutdownHookCallbacks() {
         shutdownHookCallbacks.clear();
+        shutdownTasks.clear();
     }
 
     @Nonnull
-    private static Map<Thread, Thread> shutdownHookThreadsMap() {
-        Class<?> applicationShutdownHooksClass = null;
-        try {
-            applicationShutdownHooksClass = ClassLoader.getSystemClassLoader().loadClass(TARGET_CLASS_NAME);
-        } catch (ClassNotFoundException e) {
+    private static Set<Thread> shutdownHookThreads() {
+        if (SHUTDOWN_HOOK_INTROSPECTION_ENABLED && isShutdownHookIntrospectionSupported()) {
+            Set<Thread> threads = JdkShutdownHooks.getThreads();
+            if (threads != null) {
+                return threads;
+            }
+        }
+        return shutdownHookThreads;
+    }
+
+    /**
+     * The opt-in introspection of {@code java.lang.ApplicationShutdownHooks}, initialized on first use
+     */
+    private static final class JdkShutdownHooks {
+
+        private static final Class<?> HOOKS_CLASS;
+
+        private static final Field HOOKS_FIELD;
+
+        static {
+            Class<?> hooksClass = null;
+            Field hooksField = null;
+            try {
+                hooksClass = Class.forName(TARGET_CLASS_NAME);
+                hooksField = hooksClass.getDeclaredField(HOOKS_FIELD_NAME);
+                // InaccessibleObjectException since Java 9 is a RuntimeException
+                hooksField.setAccessible(true);
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                logger.debug("The JDK shutdown hooks can't be introspected", e);
+                hooksField = null;
+            }
+            HOOKS_CLASS = hooksClass;
+            HOOKS_FIELD = hooksField;
+        }
+
+        /**
+         * @return the snapshot of the threads, or {@code null} if the JVM is shutting down
+         */
+        @Nullable
+        static Set<Thread> getThreads() {
+            synchronized (HOOKS_CLASS) {
+                try {
+                    Map<?, ?> hooks = (Map<?, ?>) HOOKS_FIELD.get(null);
+                    if (hooks == null) {
+                        return null;
+                    }
+                    Set<Thread> threads = new HashSet<>(hooks.size() * 2);
+                    for (Object thread : hooks.keySet()) {
+                        threads.add((Thread) thread);
+                    }
+                    return threads;
+                } catch (IllegalAccessException e) {
+                    return null;
+                }
+            }
         }
-        return applicationShutdownHooksClass == null ? emptyMap() : FieldUtils.getStaticFieldValue(applicationShutdownHooksClass, HOOKS_FIELD_NAME);
     }
 
     private ShutdownHookUtils() {
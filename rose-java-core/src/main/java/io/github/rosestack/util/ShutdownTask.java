@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.rosestack.util;
+
+import io.github.rosestack.annotation.Nonnull;
+import io.github.rosestack.annotation.Nullable;
+
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+import static java.util.Collections.emptySet;
+
+/**
+ * A named shutdown task that runs once all the tasks it depends on have finished.
+ *
+ * <p>Unlike priority numbers, dependencies express an exact order such as "close the HTTP server, then drain the
+ * queues, then flush the metrics", while unrelated tasks still run in parallel. A task may complete asynchronously by
+ * returning a {@link CompletableFuture}; it does not occupy a shutdown thread while the future is pending.</p>
+ *
+ * <h3>Example Usage</h3>
+ * <pre>{@code
+ * ShutdownHookUtils.addShutdownTask(ShutdownTask.of("http-server", server::stop));
+ * ShutdownHookUtils.addShutdownTask(ShutdownTask.async("queues", queues::drainAsync, "http-server"));
+ * ShutdownHookUtils.addShutdownTask(ShutdownTask.of("metrics", metrics::flush, "queues"));
+ * ShutdownHookUtils.addShutdownTask(ShutdownTask.of("datasource", dataSource::close, "queues"));
+ * }</pre>
+ *
+ * @author chensoul
+ * @see ShutdownHookUtils#addShutdownTask(ShutdownTask)
+ * @see ShutdownHookExecutor
+ * @since 1.0.0
+ */
+public interface ShutdownTask {
+
+    /**
+     * @return the unique name of this task
+     */
+    @Nonnull
+    String getName();
+
+    /**
+     * @return the names of the tasks that must have finished before this task starts, the default is none
+     */
+    @Nonnull
+    default Collection<String> getDependencies() {
+        return emptySet();
+    }
+
+    /**
+     * Executes this task.
+     *
+     * <p>The task has finished once this method returns {@code null} or the returned future completes. The task still
+     * counts as finished for its dependents if it throws, fails or times out, so that the rest of the shutdown goes on.</p>
+     *
+     * @return {@code null} if the task has finished synchronously, otherwise a future completing when it has finished
+     * @throws Exception if the task fails
+     */
+    @Nullable
+    CompletableFuture<?> execute() throws Exception;
+
+    /**
+     * Creates a synchronous task
+     *
+     * @param name      the unique name
+     * @param action    the action
+     * @param dependsOn the names of the tasks that must have finished before this task starts
+     * @return non-null
+     */
+    @Nonnull
+    static ShutdownTask of(String name, Runnable action, String... dependsOn) {
+        Assert.assertNotNull(action, "action must not be null");
+        return new DefaultShutdownTask(name, () -> {
+            action.run();
+            return null;
+        }, dependsOn);
+    }
+
+    /**
+     * Creates an asynchronous task
+     *
+     * @param name      the unique name
+     * @param action    the action starting the work and returning a future completing when it has finished
+     * @param dependsOn the names of the tasks that must have finished before this task starts
+     * @return non-null
+     */
+    @Nonnull
+    static ShutdownTask async(String name, Supplier<? extends CompletableFuture<?>> action, String... dependsOn) {
+        Assert.assertNotNull(action, "action must not be null");
+        return new DefaultShutdownTask(name, action::get, dependsOn);
+    }
+}
@@ -0,0 +1,258 @@
+package io.github.rosestack.util;
+
+import java.security.SecureRandom;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * 按时间递增的ID生成器，支持 UUIDv7、ULID 和64位雪花ID
+ *
+ * <p>每种ID各自维护一个"时间戳 + 计数器"状态，通过CAS无锁推进：时钟前进时计数器归零，同一毫秒内或时钟回拨时在上一个状态上加一，
+ * 计数器溢出时借用下一毫秒，因此同一条序列上的ID严格递增。时钟回拨（或借用的时间）超过 {@code maxBackwardMillis} 时抛出
+ * {@link IllegalStateException}。
+ *
+ * <p>{@code stripes} 大于1时按线程把状态分散到多个序列，每个序列独占缓存行，减少高并发下的CAS冲突。此时同一线程生成的ID严格递增，
+ * 不同线程之间只保证按毫秒有序；雪花ID把序列号写入最低位以保证全局唯一，每个序列每毫秒可用的序列号相应减少。
+ *
+ * <ul>
+ *   <li>雪花ID：1位符号、41位相对 {@code epochMillis} 的毫秒数、10位工作节点、12位序列号</li>
+ *   <li>UUIDv7：48位Unix毫秒数、12位计数器（rand_a）、62位随机数，符合 RFC 9562</li>
+ *   <li>ULID：48位Unix毫秒数、16位计数器、64位随机数，以26个字符的 Crockford Base32 表示</li>
+ * </ul>
+ *
+ * <pre>{@code
+ * TimeOrderedIdGenerator generator = TimeOrderedIdGenerator.of(workerId);
+ * long id = generator.nextSnowflakeId();
+ * UUID uuid = generator.nextUuidV7();
+ * }</pre>
+ *
+ * @author chensoul
+ * @since 1.0.0
+ * @see Uuids#uuidToBase64(UUID)
+ * @see Uuids#uuidToCrockford(UUID)
+ */
+public final class TimeOrderedIdGenerator {
+    /**
+     * 雪花ID的默认起始时间：2025-01-01T00:00:00Z
+     */
+    public static final long DEFAULT_EPOCH_MILLIS = 1735689600000L;
+    /**
+     * 默认允许的时钟回拨毫秒数
+     */
+    public static final long DEFAULT_MAX_BACKWARD_MILLIS = 1000L;
+
+    public static final int MAX_WORKER_ID = (1 << 10) - 1;
+    public static final int MAX_STRIPES = 64;
+
+    private static final int WORKER_BITS = 10;
+    private static final int SEQUENCE_BITS = 12;
+    private static final int TIMESTAMP_SHIFT = WORKER_BITS + SEQUENCE_BITS;
+    private static final long MAX_TIMESTAMP = (1L << 41) - 1;
+
+    private static final int UUID_COUNTER_BITS = 12;
+    private static final int ULID_COUNTER_BITS = 16;
+
+    private static final TimeOrderedIdGenerator DEFAULT = new TimeOrderedIdGenerator(
+            0, DEFAULT_EPOCH_MILLIS, 1, DEFAULT_MAX_BACKWARD_MILLIS, System::currentTimeMillis, SecureRandom::new);
+
+    private final int workerId;
+    private final long epochMillis;
+    private final int stripeBits;
+    private final int stripeMask;
+    private final long maxBackwardMillis;
+    private final LongSupplier clock;
+    private final ThreadLocal<Random> random;
+
+    private final Sequence snowflake;
+    private final Sequence uuidV7;
+    private final Sequence ulid;
+
+    TimeOrderedIdGenerator(
+            int workerId,
+            long epochMillis,
+            int stripes,
+            long maxBackwardMillis,
+            LongSupplier clock,
+            Supplier<? extends Random> randomFactory) {
+        this.workerId = workerId;
+        this.epochMillis = epochMillis;
+        this.stripeBits = Integer.numberOfTrailingZeros(stripes);
+        this.stripeMask = stripes - 1;
+        this.maxBackwardMillis = maxBackwardMillis;
+        this.clock = clock;
+        this.random = ThreadLocal.withInitial(randomFactory::get);
+        this.snowflake = new Sequence(SEQUENCE_BITS - stripeBits, stripes);
+        this.uuidV7 = new Sequence(UUID_COUNTER_BITS, stripes);
+        this.ulid = new Sequence(ULID_COUNTER_BITS, stripes);
+    }
+
+    /**
+     * 工作节点为0、不分散序列的共享生成器
+     *
+     * @return 生成器
+     */
+    public static TimeOrderedIdGenerator getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * 创建不分散序列的生成器
+     *
+     * @param workerId 工作节点，0到1023
+     * @return 生成器
+     */
+    public static TimeOrderedIdGenerator of(int workerId) {
+        return of(workerId, DEFAULT_EPOCH_MILLIS, 1);
+    }
+
+    /**
+     * 创建生成器
+     *
+     * @param workerId    工作节点，0到1023
+     * @param epochMillis 雪花ID的起始时间
+     * @param stripes     每种ID的序列数，1到64之间的2的幂
+     * @return 生成器
+     */
+    public static TimeOrderedIdGenerator of(int workerId, long epochMillis, int stripes) {
+        Assert.assertTrue(workerId >= 0 && workerId <= MAX_WORKER_ID, "workerId must be between 0 and 1023");
+        Assert.assertTrue(epochMillis >= 0, "epochMillis must not be negative");
+        Assert.assertTrue(
+                stripes > 0 && stripes <= MAX_STRIPES && (stripes & (stripes - 1)) == 0,
+                "stripes must be a power of two between 1 and 64");
+        return new TimeOrderedIdGenerator(
+                workerId,
+                epochMillis,
+                stripes,
+                DEFAULT_MAX_BACKWARD_MILLIS,
+                System::currentTimeMillis,
+                SecureRandom::new);
+    }
+
+    public int getWorkerId() {
+        return workerId;
+    }
+
+    public long getEpochMillis() {
+        return epochMillis;
+    }
+
+    public int getStripes() {
+        return stripeMask + 1;
+    }
+
+    /**
+     * 生成雪花ID
+     *
+     * @return 正数ID
+     */
+    public long nextSnowflakeId() {
+        int stripe = stripe();
+        long state = snowflake.next(stripe, clock.getAsLong() - epochMillis, maxBackwardMillis);
+        long timestamp = state >>> snowflake.counterBits;
+        if (timestamp > MAX_TIMESTAMP) {
+            throw new IllegalStateException("Snowflake timestamp overflow, epochMillis: " + epochMillis);
+        }
+        long sequence = ((state & snowflake.counterMask) << stripeBits) | stripe;
+        return (timestamp << TIMESTAMP_SHIFT) | ((long) workerId << SEQUENCE_BITS) | sequence;
+    }
+
+    /**
+     * 生成 UUIDv7
+     *
+     * @return UUID
+     */
+    public UUID nextUuidV7() {
+        long state = uuidV7.next(stripe(), clock.getAsLong(), maxBackwardMillis);
+        long timestamp = state >>> UUID_COUNTER_BITS;
+        long msb = (timestamp << 16) | 0x7000L | (state & uuidV7.counterMask);
+        long lsb = (random.get().nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(msb, lsb);
+    }
+
+    /**
+     * 生成 ULID
+     *
+     * @return 26个字符的 Crockford Base32 字符串
+     */
+    public String nextUlid() {
+        return Uuids.uuidToCrockford(nextUlidAsUuid());
+    }
+
+    /**
+     * 生成 ULID 的128位值，高48位为毫秒数
+     *
+     * @return 以 UUID 承载的 ULID
+     */
+    public UUID nextUlidAsUuid() {
+        long state = ulid.next(stripe(), clock.getAsLong(), maxBackwardMillis);
+        return new UUID(state, random.get().nextLong());
+    }
+
+    /**
+     * 雪花ID中的Unix毫秒时间戳
+     *
+     * @param id 本生成器生成的雪花ID
+     * @return 毫秒时间戳
+     */
+    public long getTimestamp(long id) {
+        return (id >>> TIMESTAMP_SHIFT) + epochMillis;
+    }
+
+    /**
+     * 雪花ID中的工作节点
+     *
+     * @param id 雪花ID
+     * @return 工作节点
+     */
+    public static int getWorkerId(long id) {
+        return (int) (id >>> SEQUENCE_BITS) & MAX_WORKER_ID;
+    }
+
+    private int stripe() {
+        return (int) Thread.currentThread().getId() & stripeMask;
+    }
+
+    /**
+     * 一组"时间戳 + 计数器"状态，每个状态独占一个缓存行
+     */
+    private static final class Sequence {
+        /**
+         * 相邻状态之间间隔的 long 数，避免伪共享
+         */
+        private static final int PADDING = 16;
+
+        private final int counterBits;
+        private final long counterMask;
+        private final AtomicLongArray states;
+
+        Sequence(int counterBits, int stripes) {
+            this.counterBits = counterBits;
+            this.counterMask = (1L << counterBits) - 1;
+            this.states = new AtomicLongArray(stripes * PADDING);
+        }
+
+        long next(int stripe, long now, long maxBackwardMillis) {
+            int index = stripe * PADDING;
+            for (; ; ) {
+                long previous = states.get(index);
+                long previousTime = previous >>> counterBits;
+                long next;
+                if (now > previousTime) {
+                    next = now << counterBits;
+                } else if (previousTime - now > maxBackwardMillis) {
+                    throw new IllegalStateException(
+                            "Clock moved backwards by " + (previousTime - now) + "ms, refusing to generate id");
+                } else {
+                    // 计数器溢出时进位到时间戳，借用下一毫秒
+                    next = previous + 1;
+                }
+                if (states.compareAndSet(index, previous, next)) {
+                    return next;
+                }
+            }
+        }
+    }
+}
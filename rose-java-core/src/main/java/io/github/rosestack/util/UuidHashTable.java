@@ -0,0 +1,243 @@
+package io.github.rosestack.util;
+
+import java.util.Arrays;
+
+/**
+ * {@link UuidSet} 和 {@link UuidMap} 共用的开放寻址哈希表，UUID 的高位和低位成对内联存储在 long 数组中
+ *
+ * <p>使用线性探测，删除时向前移动后续元素而不留墓碑。全零槽位表示空位，nil UUID（全零）单独记录，在值数组中占用最后一个位置。
+ * 非线程安全。
+ *
+ * @author chensoul
+ * @since 1.0.0
+ */
+abstract class UuidHashTable {
+    static final int DEFAULT_EXPECTED_SIZE = 16;
+    private static final int MAX_CAPACITY = 1 << 29;
+
+    /**
+     * 第 i 个槽位的高位和低位分别位于 {@code 2i} 和 {@code 2i+1}
+     */
+    long[] keys;
+    /**
+     * 每个槽位的值，长度为容量加一，最后一个位置属于 nil UUID；只存键时为null
+     */
+    Object[] values;
+
+    int mask;
+    int size;
+    boolean hasNil;
+    private int threshold;
+    private final boolean withValues;
+
+    UuidHashTable(int expectedSize, boolean withValues) {
+        Assert.assertTrue(expectedSize >= 0, "expectedSize must not be negative");
+        this.withValues = withValues;
+        allocate(capacityFor(expectedSize));
+    }
+
+    private static int capacityFor(int expectedSize) {
+        long required = Math.max(expectedSize, 2) * 4L / 3 + 1;
+        if (required > MAX_CAPACITY) {
+            return MAX_CAPACITY;
+        }
+        return Integer.highestOneBit((int) required - 1) << 1;
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity << 1];
+        values = withValues ? new Object[capacity + 1] : null;
+        mask = capacity - 1;
+        threshold = capacity - (capacity >>> 2);
+    }
+
+    static int hash(long msb, long lsb) {
+        long h = (msb ^ Long.rotateLeft(lsb, 32)) * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    final int nilSlot() {
+        return mask + 1;
+    }
+
+    /**
+     * 查找槽位
+     *
+     * @return 槽位，不存在时返回-1
+     */
+    final int find(long msb, long lsb) {
+        if (msb == 0 && lsb == 0) {
+            return hasNil ? nilSlot() : -1;
+        }
+        int index = hash(msb, lsb) & mask;
+        for (; ; ) {
+            long m = keys[index << 1];
+            long l = keys[(index << 1) + 1];
+            if (m == msb && l == lsb) {
+                return index;
+            }
+            if (m == 0 && l == 0) {
+                return -1;
+            }
+            index = (index + 1) & mask;
+        }
+    }
+
+    /**
+     * 插入键
+     *
+     * @return 已存在时返回其槽位，新插入时返回 {@code ~slot}
+     */
+    final int insert(long msb, long lsb) {
+        if (msb == 0 && lsb == 0) {
+            if (hasNil) {
+                return nilSlot();
+            }
+            hasNil = true;
+            size++;
+            return ~nilSlot();
+        }
+        int index = hash(msb, lsb) & mask;
+        for (; ; ) {
+            long m = keys[index << 1];
+            long l = keys[(index << 1) + 1];
+            if (m == msb && l == lsb) {
+                return index;
+            }
+            if (m == 0 && l == 0) {
+                keys[index << 1] = msb;
+                keys[(index << 1) + 1] = lsb;
+                if (++size > threshold) {
+                    resize();
+                    return ~find(msb, lsb);
+                }
+                return ~index;
+            }
+            index = (index + 1) & mask;
+        }
+    }
+
+    /**
+     * 删除槽位上的键和值，并把后续探测链上的元素前移填补空位
+     */
+    final void removeAt(int slot) {
+        size--;
+        if (slot == nilSlot()) {
+            hasNil = false;
+            if (values != null) {
+                values[slot] = null;
+            }
+            return;
+        }
+
+        int gap = slot;
+        int index = slot;
+        for (; ; ) {
+            index = (index + 1) & mask;
+            long m = keys[index << 1];
+            long l = keys[(index << 1) + 1];
+            if (m == 0 && l == 0) {
+                break;
+            }
+            int home = hash(m, l) & mask;
+            // 元素的初始位置不在 (gap, index] 之间时可以移到空位
+            if (((index - home) & mask) >= ((index - gap) & mask)) {
+                keys[gap << 1] = m;
+                keys[(gap << 1) + 1] = l;
+                if (values != null) {
+                    values[gap] = values[index];
+                }
+                gap = index;
+            }
+        }
+        keys[gap << 1] = 0;
+        keys[(gap << 1) + 1] = 0;
+        if (values != null) {
+            values[gap] = null;
+        }
+    }
+
+    private void resize() {
+        int oldCapacity = mask + 1;
+        if (oldCapacity == MAX_CAPACITY) {
+            throw new IllegalStateException("UUID table is full, size: " + size);
+        }
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(oldCapacity << 1);
+        for (int i = 0; i < oldCapacity; i++) {
+            long m = oldKeys[i << 1];
+            long l = oldKeys[(i << 1) + 1];
+            if (m == 0 && l == 0) {
+                continue;
+            }
+            int index = hash(m, l) & mask;
+            while (keys[index << 1] != 0 || keys[(index << 1) + 1] != 0) {
+                index = (index + 1) & mask;
+            }
+            keys[index << 1] = m;
+            keys[(index << 1) + 1] = l;
+            if (values != null) {
+                values[index] = oldValues[i];
+            }
+        }
+        if (values != null) {
+            values[nilSlot()] = oldValues[oldCapacity];
+        }
+    }
+
+    final void clearTable() {
+        Arrays.fill(keys, 0);
+        if (values != null) {
+            Arrays.fill(values, null);
+        }
+        size = 0;
+        hasNil = false;
+    }
+
+    /**
+     * 按槽位顺序把所有键写入新数组，nil UUID 在最后
+     */
+    final long[] copyKeyBits() {
+        long[] bits = new long[size << 1];
+        int position = 0;
+        for (int i = 0; i <= mask; i++) {
+            long m = keys[i << 1];
+            long l = keys[(i << 1) + 1];
+            if (m != 0 || l != 0) {
+                bits[position++] = m;
+                bits[position++] = l;
+            }
+        }
+        return bits;
+    }
+
+    /**
+     * 按槽位顺序把所有键编码为 URL 安全 Base64，nil UUID 在最后
+     */
+    final String[] encodeKeys() {
+        String[] encoded = new String[size];
+        char[] chars = new char[22];
+        int position = 0;
+        for (int i = 0; i <= mask; i++) {
+            long m = keys[i << 1];
+            long l = keys[(i << 1) + 1];
+            if (m != 0 || l != 0) {
+                Uuids.writeBase64(m, l, chars, 0);
+                encoded[position++] = new String(chars);
+            }
+        }
+        if (hasNil) {
+            encoded[position] = Uuids.toBase64(0, 0);
+        }
+        return encoded;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+}
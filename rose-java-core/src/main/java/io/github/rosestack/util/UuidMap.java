@@ -0,0 +1,227 @@
+package io.github.rosestack.util;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * 以 long 数组内联存储键的 UUID 映射
+ *
+ * <p>键只占用两个 long，不创建 {@link UUID} 对象和 {@link Map.Entry} 节点；值存放在平行的对象数组中。
+ * 所有操作都有接受高位和低位的重载，遍历时通过 {@link EntryConsumer} 直接回调。不支持null值，非线程安全。
+ *
+ * @param <V> 值类型
+ * @author chensoul
+ * @since 1.0.0
+ * @see UuidSet
+ */
+public final class UuidMap<V> extends UuidHashTable {
+    /**
+     * 解码 Base64 时复用的缓冲区
+     */
+    private final long[] scratch = new long[2];
+
+    public UuidMap() {
+        this(DEFAULT_EXPECTED_SIZE);
+    }
+
+    /**
+     * @param expectedSize 预期元素数量，达到该数量前不会扩容
+     */
+    public UuidMap(int expectedSize) {
+        super(expectedSize, true);
+    }
+
+    /**
+     * 从以 UUID 为键的映射创建
+     *
+     * @param map 映射
+     * @param <V> 值类型
+     * @return 映射
+     */
+    public static <V> UuidMap<V> of(Map<UUID, ? extends V> map) {
+        UuidMap<V> result = new UuidMap<>(map.size());
+        map.forEach(result::put);
+        return result;
+    }
+
+    public V put(UUID key, V value) {
+        return put(key.getMostSignificantBits(), key.getLeastSignificantBits(), value);
+    }
+
+    /**
+     * 设置值
+     *
+     * @param msb   键的高64位
+     * @param lsb   键的低64位
+     * @param value 值
+     * @return 原来的值，不存在时返回null
+     */
+    public V put(long msb, long lsb, V value) {
+        Assert.assertNotNull(value, "value must not be null");
+        int slot = insert(msb, lsb);
+        if (slot < 0) {
+            values[~slot] = value;
+            return null;
+        }
+        V previous = valueAt(slot);
+        values[slot] = value;
+        return previous;
+    }
+
+    /**
+     * 以 {@link Uuids#uuidToBase64(UUID)} 编码的键设置值
+     *
+     * @param base64 URL 安全 Base64 字符串
+     * @param value  值
+     * @return 原来的值，不存在时返回null
+     */
+    public V putBase64(CharSequence base64, V value) {
+        Uuids.decodeBase64(base64, scratch, 0);
+        return put(scratch[0], scratch[1], value);
+    }
+
+    /**
+     * 不存在时设置值
+     *
+     * @return 原来的值，不存在时返回null
+     */
+    public V putIfAbsent(long msb, long lsb, V value) {
+        Assert.assertNotNull(value, "value must not be null");
+        int slot = insert(msb, lsb);
+        if (slot < 0) {
+            values[~slot] = value;
+            return null;
+        }
+        return valueAt(slot);
+    }
+
+    /**
+     * 不存在时计算并设置值
+     *
+     * @param msb             键的高64位
+     * @param lsb             键的低64位
+     * @param mappingFunction 值的计算函数，只在键不存在时调用，不能返回null
+     * @return 当前的值
+     */
+    public V computeIfAbsent(long msb, long lsb, Function<UUID, ? extends V> mappingFunction) {
+        int slot = find(msb, lsb);
+        if (slot >= 0) {
+            return valueAt(slot);
+        }
+        V value = mappingFunction.apply(new UUID(msb, lsb));
+        Assert.assertNotNull(value, "mappingFunction must not return null");
+        values[~insert(msb, lsb)] = value;
+        return value;
+    }
+
+    public V get(UUID key) {
+        return get(key.getMostSignificantBits(), key.getLeastSignificantBits());
+    }
+
+    /**
+     * 获取值
+     *
+     * @param msb 键的高64位
+     * @param lsb 键的低64位
+     * @return 值，不存在时返回null
+     */
+    public V get(long msb, long lsb) {
+        int slot = find(msb, lsb);
+        return slot >= 0 ? valueAt(slot) : null;
+    }
+
+    public V getOrDefault(long msb, long lsb, V defaultValue) {
+        int slot = find(msb, lsb);
+        return slot >= 0 ? valueAt(slot) : defaultValue;
+    }
+
+    public V getBase64(CharSequence base64) {
+        Uuids.decodeBase64(base64, scratch, 0);
+        return get(scratch[0], scratch[1]);
+    }
+
+    public boolean containsKey(UUID key) {
+        return containsKey(key.getMostSignificantBits(), key.getLeastSignificantBits());
+    }
+
+    public boolean containsKey(long msb, long lsb) {
+        return find(msb, lsb) >= 0;
+    }
+
+    public V remove(UUID key) {
+        return remove(key.getMostSignificantBits(), key.getLeastSignificantBits());
+    }
+
+    /**
+     * 删除键
+     *
+     * @param msb 键的高64位
+     * @param lsb 键的低64位
+     * @return 原来的值，不存在时返回null
+     */
+    public V remove(long msb, long lsb) {
+        int slot = find(msb, lsb);
+        if (slot < 0) {
+            return null;
+        }
+        V previous = valueAt(slot);
+        removeAt(slot);
+        return previous;
+    }
+
+    public void clear() {
+        clearTable();
+    }
+
+    /**
+     * 遍历所有键值对，不创建 UUID 对象，遍历期间不能修改映射
+     *
+     * @param consumer 回调
+     */
+    public void forEach(EntryConsumer<? super V> consumer) {
+        for (int i = 0; i <= mask; i++) {
+            long msb = keys[i << 1];
+            long lsb = keys[(i << 1) + 1];
+            if (msb != 0 || lsb != 0) {
+                consumer.accept(msb, lsb, valueAt(i));
+            }
+        }
+        if (hasNil) {
+            consumer.accept(0, 0, valueAt(nilSlot()));
+        }
+    }
+
+    /**
+     * 所有键的高位和低位，交替排列
+     *
+     * @return 长度为 {@code 2 * size()} 的数组
+     */
+    public long[] keysToBits() {
+        return copyKeyBits();
+    }
+
+    /**
+     * 所有键的 URL 安全 Base64 编码
+     *
+     * @return Base64 字符串数组
+     */
+    public String[] keysToBase64() {
+        return encodeKeys();
+    }
+
+    @SuppressWarnings("unchecked")
+    private V valueAt(int slot) {
+        return (V) values[slot];
+    }
+
+    /**
+     * 接收键的高位、低位和值的回调
+     *
+     * @param <V> 值类型
+     */
+    @FunctionalInterface
+    public interface EntryConsumer<V> {
+        void accept(long msb, long lsb, V value);
+    }
+}
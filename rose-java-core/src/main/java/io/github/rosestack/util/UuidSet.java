@@ -0,0 +1,212 @@
+package io.github.rosestack.util;
+
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * 以 long 数组内联存储的 UUID 集合
+ *
+ * <p>每个元素只占用两个 long（按75%的负载因子约21字节），不创建 {@link UUID} 对象，也没有装箱和链表节点，适合对数百万个 UUID 去重。
+ * 所有操作都有接受高位和低位的重载，遍历时通过 {@link UuidConsumer} 直接回调两个 long。非线程安全。
+ *
+ * <pre>{@code
+ * UuidSet seen = new UuidSet(ids.length / 2);
+ * int added = seen.addAll(ids);
+ * }</pre>
+ *
+ * @author chensoul
+ * @since 1.0.0
+ * @see UuidMap
+ */
+public final class UuidSet extends UuidHashTable {
+    /**
+     * 解码 Base64 时复用的缓冲区
+     */
+    private final long[] scratch = new long[2];
+
+    public UuidSet() {
+        this(DEFAULT_EXPECTED_SIZE);
+    }
+
+    /**
+     * @param expectedSize 预期元素数量，达到该数量前不会扩容
+     */
+    public UuidSet(int expectedSize) {
+        super(expectedSize, false);
+    }
+
+    /**
+     * 从 UUID 集合创建
+     *
+     * @param uuids UUID 集合
+     * @return 集合
+     */
+    public static UuidSet of(Collection<UUID> uuids) {
+        UuidSet set = new UuidSet(uuids.size());
+        for (UUID uuid : uuids) {
+            set.add(uuid);
+        }
+        return set;
+    }
+
+    public boolean add(UUID uuid) {
+        return add(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+    }
+
+    /**
+     * 添加元素
+     *
+     * @param msb 高64位
+     * @param lsb 低64位
+     * @return 原来不存在时返回true
+     */
+    public boolean add(long msb, long lsb) {
+        return insert(msb, lsb) < 0;
+    }
+
+    /**
+     * 添加 {@link Uuids#uuidToBase64(UUID)} 编码的元素
+     *
+     * @param base64 URL 安全 Base64 字符串
+     * @return 原来不存在时返回true
+     */
+    public boolean addBase64(CharSequence base64) {
+        Uuids.decodeBase64(base64, scratch, 0);
+        return add(scratch[0], scratch[1]);
+    }
+
+    /**
+     * 批量添加，第 i 个元素的高位和低位分别位于 {@code 2i} 和 {@code 2i+1}
+     *
+     * @param bits 高位和低位交替排列的数组，如 {@link Uuids#randomUuidBits(int)} 的结果
+     * @return 新添加的元素数量
+     */
+    public int addAll(long[] bits) {
+        Assert.assertTrue((bits.length & 1) == 0, "bits length must be even");
+        int added = 0;
+        for (int i = 0; i < bits.length; i += 2) {
+            if (insert(bits[i], bits[i + 1]) < 0) {
+                added++;
+            }
+        }
+        return added;
+    }
+
+    public boolean contains(UUID uuid) {
+        return contains(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+    }
+
+    public boolean contains(long msb, long lsb) {
+        return find(msb, lsb) >= 0;
+    }
+
+    public boolean containsBase64(CharSequence base64) {
+        Uuids.decodeBase64(base64, scratch, 0);
+        return contains(scratch[0], scratch[1]);
+    }
+
+    /**
+     * 批量判断是否存在
+     *
+     * @param bits   高位和低位交替排列的数组
+     * @param result 第 i 个元素是否存在，长度不小于 {@code bits.length / 2}
+     * @return 存在的元素数量
+     */
+    public int contains(long[] bits, boolean[] result) {
+        Assert.assertTrue((bits.length & 1) == 0, "bits length must be even");
+        Assert.assertTrue(result.length >= bits.length >> 1, "result is too short");
+        int found = 0;
+        for (int i = 0; i < bits.length; i += 2) {
+            boolean present = find(bits[i], bits[i + 1]) >= 0;
+            result[i >> 1] = present;
+            if (present) {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * 是否包含全部元素
+     *
+     * @param bits 高位和低位交替排列的数组
+     * @return 全部存在时返回true
+     */
+    public boolean containsAll(long[] bits) {
+        Assert.assertTrue((bits.length & 1) == 0, "bits length must be even");
+        for (int i = 0; i < bits.length; i += 2) {
+            if (find(bits[i], bits[i + 1]) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public boolean remove(UUID uuid) {
+        return remove(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+    }
+
+    /**
+     * 删除元素
+     *
+     * @param msb 高64位
+     * @param lsb 低64位
+     * @return 原来存在时返回true
+     */
+    public boolean remove(long msb, long lsb) {
+        int slot = find(msb, lsb);
+        if (slot < 0) {
+            return false;
+        }
+        removeAt(slot);
+        return true;
+    }
+
+    public void clear() {
+        clearTable();
+    }
+
+    /**
+     * 遍历所有元素，不创建 UUID 对象，遍历期间不能修改集合
+     *
+     * @param consumer 回调
+     */
+    public void forEach(UuidConsumer consumer) {
+        for (int i = 0; i <= mask; i++) {
+            long msb = keys[i << 1];
+            long lsb = keys[(i << 1) + 1];
+            if (msb != 0 || lsb != 0) {
+                consumer.accept(msb, lsb);
+            }
+        }
+        if (hasNil) {
+            consumer.accept(0, 0);
+        }
+    }
+
+    /**
+     * 所有元素的高位和低位，交替排列
+     *
+     * @return 长度为 {@code 2 * size()} 的数组
+     */
+    public long[] toBits() {
+        return copyKeyBits();
+    }
+
+    /**
+     * 所有元素的 URL 安全 Base64 编码
+     *
+     * @return Base64 字符串数组
+     */
+    public String[] toBase64() {
+        return encodeKeys();
+    }
+
+    /**
+     * 接收 UUID 高位和低位的回调
+     */
+    @FunctionalInterface
+    public interface UuidConsumer {
+        void accept(long msb, long lsb);
+    }
+}
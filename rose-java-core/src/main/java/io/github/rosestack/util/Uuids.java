@@ -1,41 +1,277 @@
 package io.github.rosestack.util;
 
-import java.nio.ByteBuffer;
-import java.util.Base64;
+import java.security.SecureRandom;
+import java.util.Arrays;
 import java.util.UUID;
+import java.util.stream.IntStream;
 
 public abstract class Uuids {
-    // Use Java 8's built-in Base64 encoder/decoder
-    private static final Base64.Encoder URL_SAFE_ENCODER =
-            Base64.getUrlEncoder().withoutPadding();
-    private static final Base64.Decoder URL_SAFE_DECODER = Base64.getUrlDecoder();
+    /**
+     * 批量生成时每次读取随机数的 UUID 数量，也是并行生成时每个任务的粒度
+     */
+    private static final int BATCH_SIZE = 4096;
+    /**
+     * 每个线程独占的随机数生成器，批量生成时不争用 {@link UUID#randomUUID()} 共享的实例
+     */
+    private static final ThreadLocal<SecureRandom> THREAD_RANDOM = ThreadLocal.withInitial(SecureRandom::new);
+    /**
+     * Crockford Base32 字母表，去掉了 I、L、O、U，字典序与数值大小一致
+     */
+    private static final char[] CROCKFORD_ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    /**
+     * Crockford Base32 解码表，大小写不敏感，I/L 视为1，O 视为0，非法字符为-1
+     */
+    private static final byte[] CROCKFORD_DECODE = new byte[128];
+    /**
+     * UUID 的 URL 安全 Base64 长度（不含填充）
+     */
+    private static final int BASE64_UUID_LENGTH = 22;
+    /**
+     * long 的 URL 安全 Base64 长度（不含填充）
+     */
+    private static final int BASE64_LONG_LENGTH = 11;
+    private static final char[] BASE64_ALPHABET =
+            "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_".toCharArray();
+    private static final byte[] BASE64_DECODE = new byte[128];
+
+    static {
+        Arrays.fill(BASE64_DECODE, (byte) -1);
+        for (int i = 0; i < BASE64_ALPHABET.length; i++) {
+            BASE64_DECODE[BASE64_ALPHABET[i]] = (byte) i;
+        }
+
+        Arrays.fill(CROCKFORD_DECODE, (byte) -1);
+        for (int i = 0; i < CROCKFORD_ALPHABET.length; i++) {
+            char c = CROCKFORD_ALPHABET[i];
+            CROCKFORD_DECODE[c] = (byte) i;
+            CROCKFORD_DECODE[Character.toLowerCase(c)] = (byte) i;
+        }
+        CROCKFORD_DECODE['I'] = CROCKFORD_DECODE['i'] = CROCKFORD_DECODE['L'] = CROCKFORD_DECODE['l'] = 1;
+        CROCKFORD_DECODE['O'] = CROCKFORD_DECODE['o'] = 0;
+    }
 
     private Uuids() {}
 
     /**
-     * Generate a UUID and encode it to a URL-safe Base64 string.
+     * Encode a UUID to a 22-character URL-safe Base64 string without padding.
      *
+     * @param uuid The UUID.
      * @return A URL-safe Base64 encoded UUID string.
      */
     public static String uuidToBase64(UUID uuid) {
-        ByteBuffer bb = ByteBuffer.wrap(new byte[16]);
-        bb.putLong(uuid.getMostSignificantBits());
-        bb.putLong(uuid.getLeastSignificantBits());
-        return URL_SAFE_ENCODER.encodeToString(bb.array());
+        return toBase64(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+    }
+
+    /**
+     * 把 UUID 的高位和低位编码为22个字符的 URL 安全 Base64 字符串，与 {@link #uuidToBase64(UUID)} 结果相同
+     *
+     * @param msb 高64位
+     * @param lsb 低64位
+     * @return URL 安全 Base64 字符串
+     */
+    public static String toBase64(long msb, long lsb) {
+        char[] chars = new char[BASE64_UUID_LENGTH];
+        writeBase64(msb, lsb, chars, 0);
+        return new String(chars);
+    }
+
+    /**
+     * 把 UUID 编码为22个字符的 URL 安全 Base64 并写入字符数组
+     *
+     * @param msb    高64位
+     * @param lsb    低64位
+     * @param target 目标数组
+     * @param offset 起始位置
+     */
+    public static void writeBase64(long msb, long lsb, char[] target, int offset) {
+        checkRange(target.length, offset, BASE64_UUID_LENGTH);
+        for (int i = 0; i < 10; i++) {
+            target[offset + i] = BASE64_ALPHABET[(int) (msb >>> (58 - 6 * i)) & 63];
+        }
+        target[offset + 10] = BASE64_ALPHABET[(int) (((msb & 15) << 2) | (lsb >>> 62))];
+        for (int i = 0; i < 10; i++) {
+            target[offset + 11 + i] = BASE64_ALPHABET[(int) (lsb >>> (56 - 6 * i)) & 63];
+        }
+        target[offset + 21] = BASE64_ALPHABET[(int) (lsb & 3) << 4];
+    }
+
+    /**
+     * 把 UUID 编码为22个字符的 URL 安全 Base64 并按ASCII写入字节数组
+     *
+     * @param msb    高64位
+     * @param lsb    低64位
+     * @param target 目标数组
+     * @param offset 起始位置
+     */
+    public static void writeBase64(long msb, long lsb, byte[] target, int offset) {
+        checkRange(target.length, offset, BASE64_UUID_LENGTH);
+        for (int i = 0; i < 10; i++) {
+            target[offset + i] = (byte) BASE64_ALPHABET[(int) (msb >>> (58 - 6 * i)) & 63];
+        }
+        target[offset + 10] = (byte) BASE64_ALPHABET[(int) (((msb & 15) << 2) | (lsb >>> 62))];
+        for (int i = 0; i < 10; i++) {
+            target[offset + 11 + i] = (byte) BASE64_ALPHABET[(int) (lsb >>> (56 - 6 * i)) & 63];
+        }
+        target[offset + 21] = (byte) BASE64_ALPHABET[(int) (lsb & 3) << 4];
+    }
+
+    /**
+     * 把 UUID 编码为22个字符的 URL 安全 Base64 并追加到 {@link StringBuilder}
+     *
+     * @param builder 目标
+     * @param uuid    UUID
+     * @return builder
+     */
+    public static StringBuilder appendBase64(StringBuilder builder, UUID uuid) {
+        return appendBase64(builder, uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+    }
+
+    /**
+     * 把 UUID 的高位和低位编码为22个字符的 URL 安全 Base64 并追加到 {@link StringBuilder}
+     *
+     * @param builder 目标
+     * @param msb     高64位
+     * @param lsb     低64位
+     * @return builder
+     */
+    public static StringBuilder appendBase64(StringBuilder builder, long msb, long lsb) {
+        builder.ensureCapacity(builder.length() + BASE64_UUID_LENGTH);
+        for (int i = 0; i < 10; i++) {
+            builder.append(BASE64_ALPHABET[(int) (msb >>> (58 - 6 * i)) & 63]);
+        }
+        builder.append(BASE64_ALPHABET[(int) (((msb & 15) << 2) | (lsb >>> 62))]);
+        for (int i = 0; i < 10; i++) {
+            builder.append(BASE64_ALPHABET[(int) (lsb >>> (56 - 6 * i)) & 63]);
+        }
+        return builder.append(BASE64_ALPHABET[(int) (lsb & 3) << 4]);
     }
 
     /**
      * Decode a URL-safe Base64 string back to a UUID.
      *
+     * <p>Accepts the 22-character form and the padded 24-character form ending with {@code ==}.
+     *
      * @param base64 A URL-safe Base64 encoded UUID string.
      * @return The decoded UUID.
      */
-    public static UUID base64ToUuid(String base64) {
-        byte[] bytes = URL_SAFE_DECODER.decode(base64);
-        ByteBuffer bb = ByteBuffer.wrap(bytes);
-        long high = bb.getLong();
-        long low = bb.getLong();
-        return new UUID(high, low);
+    public static UUID base64ToUuid(CharSequence base64) {
+        checkBase64Length(base64);
+        return base64ToUuid(base64, 0);
+    }
+
+    /**
+     * 从指定位置解码22个字符的 URL 安全 Base64 UUID
+     *
+     * @param source 源字符序列
+     * @param offset 起始位置
+     * @return UUID
+     */
+    public static UUID base64ToUuid(CharSequence source, int offset) {
+        checkRange(source.length(), offset, BASE64_UUID_LENGTH);
+        return new UUID(base64MostSignificantBits(source, offset), base64LeastSignificantBits(source, offset));
+    }
+
+    /**
+     * 解码 URL 安全 Base64 UUID，高位和低位依次写入 long 数组，不创建 UUID 对象
+     *
+     * @param base64       22个字符，或以 {@code ==} 结尾的24个字符
+     * @param target       目标数组
+     * @param targetOffset 高位写入的位置，低位写入下一个位置
+     */
+    public static void decodeBase64(CharSequence base64, long[] target, int targetOffset) {
+        checkBase64Length(base64);
+        checkRange(target.length, targetOffset, 2);
+        target[targetOffset] = base64MostSignificantBits(base64, 0);
+        target[targetOffset + 1] = base64LeastSignificantBits(base64, 0);
+    }
+
+    private static void checkBase64Length(CharSequence base64) {
+        int length = base64.length();
+        Assert.assertTrue(
+                length == BASE64_UUID_LENGTH
+                        || (length == BASE64_UUID_LENGTH + 2
+                                && base64.charAt(22) == '='
+                                && base64.charAt(23) == '='),
+                "base64 must have 22 characters");
+    }
+
+    private static long base64MostSignificantBits(CharSequence source, int offset) {
+        long msb = 0;
+        for (int i = 0; i < 10; i++) {
+            msb = (msb << 6) | base64Value(source.charAt(offset + i), offset + i);
+        }
+        return (msb << 4) | (base64Value(source.charAt(offset + 10), offset + 10) >>> 2);
+    }
+
+    private static long base64LeastSignificantBits(CharSequence source, int offset) {
+        long lsb = base64Value(source.charAt(offset + 10), offset + 10) & 3;
+        for (int i = 11; i < 21; i++) {
+            lsb = (lsb << 6) | base64Value(source.charAt(offset + i), offset + i);
+        }
+        return (lsb << 2) | lastBase64Value(source.charAt(offset + 21), offset + 21);
+    }
+
+    /**
+     * 从字节数组的指定位置解码22个ASCII字符的 URL 安全 Base64 UUID
+     *
+     * @param source 源字节数组
+     * @param offset 起始位置
+     * @return UUID
+     */
+    public static UUID base64ToUuid(byte[] source, int offset) {
+        long[] bits = new long[2];
+        decodeBase64(source, offset, bits, 0);
+        return new UUID(bits[0], bits[1]);
+    }
+
+    /**
+     * 从字节数组的指定位置解码22个ASCII字符的 URL 安全 Base64 UUID，高位和低位依次写入 long 数组，不创建 UUID 对象
+     *
+     * @param source       源字节数组
+     * @param offset       起始位置
+     * @param target       目标数组
+     * @param targetOffset 高位写入的位置，低位写入下一个位置
+     */
+    public static void decodeBase64(byte[] source, int offset, long[] target, int targetOffset) {
+        checkRange(source.length, offset, BASE64_UUID_LENGTH);
+        checkRange(target.length, targetOffset, 2);
+        long msb = 0;
+        for (int i = 0; i < 10; i++) {
+            msb = (msb << 6) | base64Value((char) (source[offset + i] & 0xFF), offset + i);
+        }
+        int middle = base64Value((char) (source[offset + 10] & 0xFF), offset + 10);
+        msb = (msb << 4) | (middle >>> 2);
+        long lsb = middle & 3;
+        for (int i = 11; i < 21; i++) {
+            lsb = (lsb << 6) | base64Value((char) (source[offset + i] & 0xFF), offset + i);
+        }
+        target[targetOffset] = msb;
+        target[targetOffset + 1] = (lsb << 2) | lastBase64Value((char) (source[offset + 21] & 0xFF), offset + 21);
+    }
+
+    private static int base64Value(char c, int index) {
+        int value = c < 128 ? BASE64_DECODE[c] : -1;
+        if (value < 0) {
+            throw new IllegalArgumentException("Illegal base64 character " + c + " at index " + index);
+        }
+        return value;
+    }
+
+    /**
+     * 最后一个字符只携带2位，其余4位必须为0
+     */
+    private static int lastBase64Value(char c, int index) {
+        int value = base64Value(c, index);
+        if ((value & 15) != 0) {
+            throw new IllegalArgumentException("Illegal base64 character " + c + " at index " + index);
+        }
+        return value >>> 4;
+    }
+
+    private static void checkRange(int length, int offset, int size) {
+        if (offset < 0 || offset > length - size) {
+            throw new IndexOutOfBoundsException("offset: " + offset + ", size: " + size + ", length: " + length);
+        }
     }
 
     /**
@@ -46,4 +282,268 @@ public abstract class Uuids {
     public static String fastRandomUUID() {
         return uuidToBase64(UUID.randomUUID());
     }
+
+    /**
+     * 把 long 编码为11个字符的 URL 安全 Base64 字符串
+     *
+     * @param value 数值
+     * @return URL 安全 Base64 字符串
+     */
+    public static String longToBase64(long value) {
+        char[] chars = new char[BASE64_LONG_LENGTH];
+        for (int i = 0; i < 10; i++) {
+            chars[i] = BASE64_ALPHABET[(int) (value >>> (58 - 6 * i)) & 63];
+        }
+        chars[10] = BASE64_ALPHABET[(int) (value & 15) << 2];
+        return new String(chars);
+    }
+
+    /**
+     * 把 URL 安全 Base64 字符串解码为 long
+     *
+     * <p>接受11个字符，或以 {@code =} 结尾的12个字符
+     *
+     * @param base64 {@link #longToBase64(long)} 编码的字符串
+     * @return 数值
+     */
+    public static long base64ToLong(String base64) {
+        int length = base64.length();
+        Assert.assertTrue(
+                length == BASE64_LONG_LENGTH || (length == BASE64_LONG_LENGTH + 1 && base64.charAt(11) == '='),
+                "base64 must encode 8 bytes");
+        long value = 0;
+        for (int i = 0; i < 10; i++) {
+            value = (value << 6) | base64Value(base64.charAt(i), i);
+        }
+        // 最后一个字符只携带4位，其余2位必须为0
+        char last = base64.charAt(10);
+        int lastValue = base64Value(last, 10);
+        if ((lastValue & 3) != 0) {
+            throw new IllegalArgumentException("Illegal base64 character " + last + " at index 10");
+        }
+        return (value << 4) | (lastValue >>> 2);
+    }
+
+    /**
+     * 把 UUID 编码为26个字符的 Crockford Base32 字符串（即 ULID 的文本形式），字典序与数值大小一致
+     *
+     * @param uuid UUID
+     * @return Crockford Base32 字符串
+     */
+    public static String uuidToCrockford(UUID uuid) {
+        long msb = uuid.getMostSignificantBits();
+        long lsb = uuid.getLeastSignificantBits();
+        char[] chars = new char[26];
+        for (int i = 25; i >= 0; i--) {
+            chars[i] = CROCKFORD_ALPHABET[(int) lsb & 31];
+            lsb = (lsb >>> 5) | (msb << 59);
+            msb >>>= 5;
+        }
+        return new String(chars);
+    }
+
+    /**
+     * 把 Crockford Base32 字符串解码为 UUID
+     *
+     * @param crockford 26个字符的 Crockford Base32 字符串
+     * @return UUID
+     */
+    public static UUID crockfordToUuid(String crockford) {
+        Assert.assertTrue(crockford != null && crockford.length() == 26, "crockford must have 26 characters");
+        Assert.assertTrue(crockfordValue(crockford, 0) < 8, "crockford value out of 128-bit range");
+        long msb = 0;
+        long lsb = 0;
+        for (int i = 0; i < 26; i++) {
+            msb = (msb << 5) | (lsb >>> 59);
+            lsb = (lsb << 5) | crockfordValue(crockford, i);
+        }
+        return new UUID(msb, lsb);
+    }
+
+    /**
+     * 把 long 按无符号数编码为13个字符的 Crockford Base32 字符串，字典序与无符号数值大小一致
+     *
+     * @param value 数值
+     * @return Crockford Base32 字符串
+     */
+    public static String longToCrockford(long value) {
+        char[] chars = new char[13];
+        for (int i = 12; i >= 0; i--) {
+            chars[i] = CROCKFORD_ALPHABET[(int) value & 31];
+            value >>>= 5;
+        }
+        return new String(chars);
+    }
+
+    /**
+     * 把 Crockford Base32 字符串解码为 long
+     *
+     * @param crockford 13个字符的 Crockford Base32 字符串
+     * @return 数值
+     */
+    public static long crockfordToLong(String crockford) {
+        Assert.assertTrue(crockford != null && crockford.length() == 13, "crockford must have 13 characters");
+        Assert.assertTrue(crockfordValue(crockford, 0) < 16, "crockford value out of 64-bit range");
+        long value = 0;
+        for (int i = 0; i < 13; i++) {
+            value = (value << 5) | crockfordValue(crockford, i);
+        }
+        return value;
+    }
+
+    private static int crockfordValue(String text, int index) {
+        char c = text.charAt(index);
+        int value = c < 128 ? CROCKFORD_DECODE[c] : -1;
+        if (value < 0) {
+            throw new IllegalArgumentException("Illegal crockford character " + c + " at index " + index);
+        }
+        return value;
+    }
+
+    /**
+     * 批量生成简短的 UUID 字符串
+     *
+     * @param count 数量
+     * @return 简短的 UUID 字符串数组
+     */
+    public static String[] fastRandomUUIDs(int count) {
+        return fastRandomUUIDs(count, false);
+    }
+
+    /**
+     * 批量生成简短的 UUID 字符串
+     *
+     * @param count    数量
+     * @param parallel 是否在 {@link java.util.concurrent.ForkJoinPool#commonPool()} 中并行生成
+     * @return 简短的 UUID 字符串数组
+     */
+    public static String[] fastRandomUUIDs(int count, boolean parallel) {
+        Assert.assertTrue(count >= 0, "count must not be negative");
+        String[] ids = new String[count];
+        fillFastRandomUUIDs(ids, parallel);
+        return ids;
+    }
+
+    /**
+     * 用简短的 UUID 字符串填满数组
+     *
+     * @param target 目标数组
+     */
+    public static void fillFastRandomUUIDs(String[] target) {
+        fillFastRandomUUIDs(target, false);
+    }
+
+    /**
+     * 用简短的 UUID 字符串填满数组
+     *
+     * @param target   目标数组
+     * @param parallel 是否在 {@link java.util.concurrent.ForkJoinPool#commonPool()} 中并行生成
+     */
+    public static void fillFastRandomUUIDs(String[] target, boolean parallel) {
+        forEachBatch(target.length, parallel, (from, count) -> {
+            byte[] random = randomBytes(count);
+            char[] chars = new char[BASE64_UUID_LENGTH];
+            for (int i = 0; i < count; i++) {
+                setVersion4(random, i << 4);
+                writeBase64(readLong(random, i << 4), readLong(random, (i << 4) + 8), chars, 0);
+                target[from + i] = new String(chars);
+            }
+        });
+    }
+
+    /**
+     * 批量生成随机（版本4）UUID，以 long 数组的形式返回，第 i 个 UUID 的高位和低位分别位于 {@code 2i} 和 {@code 2i+1}
+     *
+     * @param count 数量
+     * @return 长度为 {@code 2 * count} 的数组
+     */
+    public static long[] randomUuidBits(int count) {
+        return randomUuidBits(count, false);
+    }
+
+    /**
+     * 批量生成随机（版本4）UUID，以 long 数组的形式返回
+     *
+     * @param count    数量
+     * @param parallel 是否在 {@link java.util.concurrent.ForkJoinPool#commonPool()} 中并行生成
+     * @return 长度为 {@code 2 * count} 的数组
+     * @see #randomUuidBits(int)
+     */
+    public static long[] randomUuidBits(int count, boolean parallel) {
+        Assert.assertTrue(count >= 0 && count <= Integer.MAX_VALUE / 2, "count out of range");
+        long[] bits = new long[count << 1];
+        fillRandomUuidBits(bits, parallel);
+        return bits;
+    }
+
+    /**
+     * 用随机（版本4）UUID 的高位和低位填满数组，数组长度必须为偶数
+     *
+     * @param target 目标数组
+     */
+    public static void fillRandomUuidBits(long[] target) {
+        fillRandomUuidBits(target, false);
+    }
+
+    /**
+     * 用随机（版本4）UUID 的高位和低位填满数组，数组长度必须为偶数
+     *
+     * @param target   目标数组
+     * @param parallel 是否在 {@link java.util.concurrent.ForkJoinPool#commonPool()} 中并行生成
+     */
+    public static void fillRandomUuidBits(long[] target, boolean parallel) {
+        Assert.assertTrue((target.length & 1) == 0, "target length must be even");
+        forEachBatch(target.length >> 1, parallel, (from, count) -> {
+            byte[] random = randomBytes(count);
+            for (int i = 0; i < count; i++) {
+                setVersion4(random, i << 4);
+                target[(from + i) << 1] = readLong(random, i << 4);
+                target[((from + i) << 1) + 1] = readLong(random, (i << 4) + 8);
+            }
+        });
+    }
+
+    /**
+     * 按批处理 [0, count)，每批一次读取全部随机数
+     */
+    private static void forEachBatch(int count, boolean parallel, BatchConsumer consumer) {
+        int batches = (count + BATCH_SIZE - 1) / BATCH_SIZE;
+        if (parallel && batches > 1) {
+            IntStream.range(0, batches)
+                    .parallel()
+                    .forEach(batch -> consumer.accept(
+                            batch * BATCH_SIZE, Math.min(BATCH_SIZE, count - batch * BATCH_SIZE)));
+        } else {
+            for (int batch = 0; batch < batches; batch++) {
+                consumer.accept(batch * BATCH_SIZE, Math.min(BATCH_SIZE, count - batch * BATCH_SIZE));
+            }
+        }
+    }
+
+    private static byte[] randomBytes(int count) {
+        byte[] bytes = new byte[count << 4];
+        THREAD_RANDOM.get().nextBytes(bytes);
+        return bytes;
+    }
+
+    /**
+     * 设置版本4和IETF变体标记，与 {@link UUID#randomUUID()} 相同
+     */
+    private static void setVersion4(byte[] bytes, int offset) {
+        bytes[offset + 6] = (byte) ((bytes[offset + 6] & 0x0f) | 0x40);
+        bytes[offset + 8] = (byte) ((bytes[offset + 8] & 0x3f) | 0x80);
+    }
+
+    private static long readLong(byte[] bytes, int offset) {
+        long value = 0;
+        for (int i = offset; i < offset + 8; i++) {
+            value = (value << 8) | (bytes[i] & 0xff);
+        }
+        return value;
+    }
+
+    @FunctionalInterface
+    private interface BatchConsumer {
+        void accept(int from, int count);
+    }
 }
@@ -0,0 +1,42 @@
+package io.github.rosestack.util;
+
+import java.util.Locale;
+import java.util.TimeZone;
+
+/**
+ * 值格式化函数，将单个值按本地化和时区写入目标
+ *
+ * <p>实现类应当是无状态且线程安全的。
+ *
+ * @param <T> 值类型
+ * @author chensoul
+ * @since 1.0.0
+ * @see LocaleFormatUtils#register(Class, ValueFormatter)
+ */
+@FunctionalInterface
+public interface ValueFormatter<T> {
+
+    /**
+     * 格式化值并追加到目标
+     *
+     * @param target   目标
+     * @param value    值，非null
+     * @param locale   本地化设置
+     * @param timeZone 时区设置
+     */
+    void formatTo(StringBuilder target, T value, Locale locale, TimeZone timeZone);
+
+    /**
+     * 格式化值
+     *
+     * @param value    值，非null
+     * @param locale   本地化设置
+     * @param timeZone 时区设置
+     * @return 格式化后的字符串
+     */
+    default String format(T value, Locale locale, TimeZone timeZone) {
+        StringBuilder target = new StringBuilder(32);
+        formatTo(target, value, locale, timeZone);
+        return target.toString();
+    }
+}
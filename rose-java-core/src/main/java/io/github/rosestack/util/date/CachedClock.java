@@ -0,0 +1,284 @@
+/*
+ * Copyright © 2025 rosestack.github.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.rosestack.util.date;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import io.github.rosestack.util.Assert;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 粗粒度缓存时钟，由后台线程按固定刻度刷新当前时间，读取时只是一次volatile读
+ *
+ * <p>适用于请求打点、日志时间戳等高频但不要求精确到刻度以内的场景。每次刷新只在跨秒时重新生成格式化字符串，
+ * 只在跨天时重新计算日期、当天开始和结束时间；时区偏移量在切换前保持不变，不必每次查询时区规则。
+ *
+ * <pre>{@code
+ * String now = CachedClock.second().getNormDateTime();
+ * }</pre>
+ *
+ * @author <a href="mailto:ichensoul@gmail.com">chensoul</a>
+ * @since 0.0.1
+ */
+@Slf4j
+public final class CachedClock implements AutoCloseable {
+    private final ZoneId zoneId;
+    private final long tickMillis;
+    private final ScheduledExecutorService scheduler;
+    private volatile Snapshot snapshot;
+
+    private CachedClock(ZoneId zoneId, long tickMillis) {
+        this.zoneId = zoneId;
+        this.tickMillis = tickMillis;
+        this.snapshot = Snapshot.of(System.currentTimeMillis(), zoneId, null);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "rose-cached-clock-" + tickMillis + "ms");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.scheduler.scheduleAtFixedRate(this::tick, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 以1毫秒为刻度、使用系统时区的共享时钟，首次调用时启动
+     *
+     * @return 时钟
+     */
+    public static CachedClock millisecond() {
+        return MillisecondHolder.INSTANCE;
+    }
+
+    /**
+     * 以1秒为刻度、使用系统时区的共享时钟，首次调用时启动
+     *
+     * @return 时钟
+     */
+    public static CachedClock second() {
+        return SecondHolder.INSTANCE;
+    }
+
+    /**
+     * 启动一个新的时钟，不再使用时需要调用 {@link #close()} 停止后台线程
+     *
+     * @param tickMillis 刷新刻度，单位毫秒
+     * @param zoneId     时区
+     * @return 时钟
+     */
+    public static CachedClock start(long tickMillis, ZoneId zoneId) {
+        Assert.assertTrue(tickMillis > 0, "tickMillis must be positive");
+        Assert.assertNotNull(zoneId, "zoneId must not be null");
+        return new CachedClock(zoneId, tickMillis);
+    }
+
+    private void tick() {
+        // scheduleAtFixedRate 在任务抛出异常后停止调度，时间将不再更新，因此异常只记录日志
+        try {
+            long millis = System.currentTimeMillis();
+            Snapshot current = snapshot;
+            if (millis != current.millis) {
+                snapshot = Snapshot.of(millis, zoneId, current);
+            }
+        } catch (RuntimeException e) {
+            log.error("Failed to refresh the cached clock[{}ms, {}]", tickMillis, zoneId, e);
+        }
+    }
+
+    public ZoneId getZone() {
+        return zoneId;
+    }
+
+    public long getTickMillis() {
+        return tickMillis;
+    }
+
+    /**
+     * 当前毫秒时间戳，误差不超过一个刻度
+     */
+    public long millis() {
+        return snapshot.millis;
+    }
+
+    public Instant instant() {
+        return Instant.ofEpochMilli(snapshot.millis);
+    }
+
+    public LocalDateTime getLocalDateTime() {
+        return snapshot.dateTime;
+    }
+
+    public LocalDate getLocalDate() {
+        return snapshot.date;
+    }
+
+    /**
+     * 当天开始时间
+     */
+    public LocalDateTime getStartDay() {
+        return snapshot.startOfDay;
+    }
+
+    /**
+     * 当天结束时间
+     */
+    public LocalDateTime getEndDay() {
+        return snapshot.endOfDay;
+    }
+
+    /**
+     * {@link DatePattern#NORM_DATETIME} 格式的当前时间
+     */
+    public String getNormDateTime() {
+        return snapshot.normDateTime;
+    }
+
+    /**
+     * {@link DatePattern#NORM_DATE} 格式的当前日期
+     */
+    public String getNormDate() {
+        return snapshot.normDate;
+    }
+
+    /**
+     * 停止后台刷新，共享时钟不能停止
+     */
+    @Override
+    public void close() {
+        Assert.assertTrue(
+                this != MillisecondHolder.INSTANCE && this != SecondHolder.INSTANCE, "shared clock cannot be closed");
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * 某一刻的时间及其派生值，相邻刻度间复用未变化的部分
+     */
+    private static final class Snapshot {
+        private final long millis;
+        private final long epochSecond;
+        private final ZoneOffset offset;
+        /**
+         * 当前偏移量保持有效的截止时刻（不含），单位为秒
+         */
+        private final long offsetValidUntil;
+
+        private final LocalDateTime dateTime;
+        private final LocalDate date;
+        private final LocalDateTime startOfDay;
+        private final LocalDateTime endOfDay;
+        private final String normDateTime;
+        private final String normDate;
+
+        private Snapshot(
+                long millis,
+                ZoneOffset offset,
+                long offsetValidUntil,
+                LocalDateTime dateTime,
+                LocalDate date,
+                LocalDateTime startOfDay,
+                LocalDateTime endOfDay,
+                String normDateTime,
+                String normDate) {
+            this.millis = millis;
+            this.epochSecond = Math.floorDiv(millis, 1000L);
+            this.offset = offset;
+            this.offsetValidUntil = offsetValidUntil;
+            this.dateTime = dateTime;
+            this.date = date;
+            this.startOfDay = startOfDay;
+            this.endOfDay = endOfDay;
+            this.normDateTime = normDateTime;
+            this.normDate = normDate;
+        }
+
+        static Snapshot of(long millis, ZoneId zoneId, Snapshot previous) {
+            long epochSecond = Math.floorDiv(millis, 1000L);
+            ZoneOffset offset;
+            long offsetValidUntil;
+            if (previous != null && epochSecond >= previous.epochSecond && epochSecond < previous.offsetValidUntil) {
+                offset = previous.offset;
+                offsetValidUntil = previous.offsetValidUntil;
+            } else {
+                ZoneRules rules = zoneId.getRules();
+                Instant instant = Instant.ofEpochMilli(millis);
+                offset = rules.getOffset(instant);
+                ZoneOffsetTransition next = rules.nextTransition(instant);
+                offsetValidUntil = next != null ? next.toEpochSecond() : Long.MAX_VALUE;
+            }
+
+            int nano = (int) Math.floorMod(millis, 1000L) * 1_000_000;
+            LocalDateTime dateTime = LocalDateTime.ofEpochSecond(epochSecond, nano, offset);
+            if (previous != null && previous.epochSecond == epochSecond && previous.offset.equals(offset)) {
+                return new Snapshot(
+                        millis,
+                        offset,
+                        offsetValidUntil,
+                        dateTime,
+                        previous.date,
+                        previous.startOfDay,
+                        previous.endOfDay,
+                        previous.normDateTime,
+                        previous.normDate);
+            }
+
+            LocalDate date = dateTime.toLocalDate();
+            String normDateTime = FixedDateLayout.NORM_DATETIME.format(dateTime);
+            if (normDateTime == null) {
+                normDateTime = DatePattern.NORM_DATETIME_FORMATTER.format(dateTime);
+            }
+            if (previous != null && previous.date.equals(date)) {
+                return new Snapshot(
+                        millis,
+                        offset,
+                        offsetValidUntil,
+                        dateTime,
+                        previous.date,
+                        previous.startOfDay,
+                        previous.endOfDay,
+                        normDateTime,
+                        previous.normDate);
+            }
+
+            return new Snapshot(
+                    millis,
+                    offset,
+                    offsetValidUntil,
+                    dateTime,
+                    date,
+                    date.atStartOfDay(),
+                    date.atTime(LocalTime.MAX),
+                    normDateTime,
+                    DateUtils.format(date, DatePattern.NORM_DATE));
+        }
+    }
+
+    private static final class MillisecondHolder {
+        static final CachedClock INSTANCE = new CachedClock(ZoneId.systemDefault(), 1);
+    }
+
+    private static final class SecondHolder {
+        static final CachedClock INSTANCE = new CachedClock(ZoneId.systemDefault(), 1000);
+    }
+}
@@ -18,6 +18,9 @@ package io.github.rosestack.util.date;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 日期格式
@@ -26,6 +29,13 @@ import java.util.Locale;
  * @since 0.0.1
  */
 public class DatePattern {
+    /**
+     * 缓存的格式化器数量上限，超出后新的格式化器不再缓存
+     */
+    private static final int MAX_CACHE_SIZE = 1024;
+
+    private static final Map<FormatterKey, DateTimeFormatter> FORMATTER_CACHE = new ConcurrentHashMap<>();
+
     public static final String NORM_MONTH = "yyyy-MM";
     public static final DateTimeFormatter NORM_MONTH_FORMATTER = createFormatter(NORM_MONTH);
 
@@ -68,11 +78,73 @@ public class DatePattern {
     public static final String PURE_DATETIME_MS = "yyyyMMddHHmmssSSS";
     public static final DateTimeFormatter PURE_DATETIME_MS_FORMATTER = createFormatter(PURE_DATETIME_MS);
 
+    /**
+     * 获取格式化器，使用默认语言和系统时区
+     *
+     * @param pattern 日期模式
+     * @return 格式化器
+     */
     public static DateTimeFormatter createFormatter(String pattern) {
         return createFormatter(pattern, Locale.getDefault(), ZoneId.systemDefault());
     }
 
+    /**
+     * 获取格式化器，按 (模式, 语言, 时区) 缓存，模式只解析一次
+     *
+     * @param pattern 日期模式
+     * @param locale  语言
+     * @param zoneId  时区
+     * @return 格式化器
+     */
     public static DateTimeFormatter createFormatter(String pattern, Locale locale, ZoneId zoneId) {
-        return DateTimeFormatter.ofPattern(pattern, locale).withZone(zoneId);
+        FormatterKey key = new FormatterKey(pattern, locale, zoneId);
+        DateTimeFormatter formatter = FORMATTER_CACHE.get(key);
+        if (formatter == null) {
+            formatter = DateTimeFormatter.ofPattern(pattern, locale).withZone(zoneId);
+            if (FORMATTER_CACHE.size() < MAX_CACHE_SIZE) {
+                FORMATTER_CACHE.putIfAbsent(key, formatter);
+            }
+        }
+        return formatter;
+    }
+
+    /**
+     * 清理格式化器缓存，主要用于测试或内存管理
+     */
+    public static void clearCache() {
+        FORMATTER_CACHE.clear();
+    }
+
+    private static final class FormatterKey {
+        private final String pattern;
+        private final Locale locale;
+        private final ZoneId zoneId;
+        private final int hash;
+
+        FormatterKey(String pattern, Locale locale, ZoneId zoneId) {
+            this.pattern = pattern;
+            this.locale = locale;
+            this.zoneId = zoneId;
+            this.hash = (pattern.hashCode() * 31 + Objects.hashCode(locale)) * 31 + Objects.hashCode(zoneId);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof FormatterKey)) {
+                return false;
+            }
+            FormatterKey other = (FormatterKey) o;
+            return pattern.equals(other.pattern)
+                    && Objects.equals(locale, other.locale)
+                    && Objects.equals(zoneId, other.zoneId);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
     }
 }
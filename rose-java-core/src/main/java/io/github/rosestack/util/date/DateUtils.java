@@ -15,9 +15,16 @@
  */
 package io.github.rosestack.util.date;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.time.*;
 import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.TemporalAccessor;
 import java.time.temporal.TemporalAdjusters;
+import java.time.temporal.TemporalQueries;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
 import java.util.*;
 
 /**
@@ -28,9 +35,190 @@ import java.util.*;
  */
 public class DateUtils {
     private static final ZoneId zoneId = ZoneId.systemDefault();
+    /**
+     * 系统时区最近使用的偏移量区间
+     */
+    private static volatile OffsetWindow offsetWindow;
 
+    /**
+     * 格式化日期时间，{@link DatePattern#NORM_DATETIME} 等定长格式直接写出各位数字，其他格式使用缓存的格式化器
+     */
     public static String format(final LocalDateTime localDateTime, String datePattern) {
-        return localDateTime.format(DateTimeFormatter.ofPattern(datePattern, Locale.CHINA));
+        FixedDateLayout layout = FixedDateLayout.of(datePattern);
+        if (layout != null) {
+            String result = layout.format(localDateTime);
+            if (result != null) {
+                return result;
+            }
+        }
+        return localDateTime.format(getFormatter(datePattern));
+    }
+
+    /**
+     * 格式化日期，{@link DatePattern#NORM_DATE} 直接写出各位数字，其他格式使用缓存的格式化器
+     */
+    public static String format(final LocalDate localDate, String datePattern) {
+        FixedDateLayout layout = FixedDateLayout.of(datePattern);
+        if (layout != null) {
+            String result = layout.format(localDate);
+            if (result != null) {
+                return result;
+            }
+        }
+        return localDate.format(getFormatter(datePattern));
+    }
+
+    /**
+     * 解析日期时间，仅包含日期的格式时间为零点
+     *
+     * <p>{@link DatePattern#NORM_DATETIME}、{@link DatePattern#NORM_DATETIME_MS}、{@link DatePattern#PURE_DATETIME}、
+     * {@link DatePattern#PURE_DATE}、{@link DatePattern#ISO8601} 等定长格式按字符偏移直接读取，不合法时回退到通用格式化器。
+     *
+     * @throws DateTimeParseException 文本无法解析
+     */
+    public static LocalDateTime parse(final CharSequence text, String datePattern) {
+        FixedDateLayout layout = FixedDateLayout.of(datePattern);
+        if (layout != null) {
+            LocalDateTime result = layout.parse(text);
+            if (result != null) {
+                return result;
+            }
+        }
+        return parseWithFormatter(text, datePattern);
+    }
+
+    /**
+     * 解析字节数组中的ASCII日期时间，仅包含日期的格式时间为零点
+     *
+     * @throws DateTimeParseException 文本无法解析
+     */
+    public static LocalDateTime parse(final byte[] bytes, int offset, int length, String datePattern) {
+        FixedDateLayout layout = FixedDateLayout.of(datePattern);
+        if (layout != null) {
+            LocalDateTime result = layout.parse(bytes, offset, length);
+            if (result != null) {
+                return result;
+            }
+        }
+        return parseWithFormatter(new String(bytes, offset, length, StandardCharsets.ISO_8859_1), datePattern);
+    }
+
+    /**
+     * 解析缓冲区中 position 到 limit 之间的ASCII日期时间，不改变缓冲区的位置
+     *
+     * @throws DateTimeParseException 文本无法解析
+     */
+    public static LocalDateTime parse(final ByteBuffer buffer, String datePattern) {
+        FixedDateLayout layout = FixedDateLayout.of(datePattern);
+        if (layout != null) {
+            LocalDateTime result = layout.parse(buffer);
+            if (result != null) {
+                return result;
+            }
+        }
+        return parseWithFormatter(decode(buffer), datePattern);
+    }
+
+    /**
+     * 解析日期时间并按系统时区转换为毫秒时间戳，定长格式不创建中间对象
+     *
+     * @throws DateTimeParseException 文本无法解析
+     */
+    public static long parseMillis(final CharSequence text, String datePattern) {
+        FixedDateLayout layout = FixedDateLayout.of(datePattern);
+        if (layout != null) {
+            long localMillis = layout.parseLocalMillis(text);
+            if (localMillis != FixedDateLayout.INVALID) {
+                return toEpochMillis(localMillis);
+            }
+        }
+        return toMilliseconds(parseWithFormatter(text, datePattern));
+    }
+
+    /**
+     * 解析字节数组中的ASCII日期时间并按系统时区转换为毫秒时间戳
+     *
+     * @throws DateTimeParseException 文本无法解析
+     */
+    public static long parseMillis(final byte[] bytes, int offset, int length, String datePattern) {
+        FixedDateLayout layout = FixedDateLayout.of(datePattern);
+        if (layout != null) {
+            long localMillis = layout.parseLocalMillis(bytes, offset, length);
+            if (localMillis != FixedDateLayout.INVALID) {
+                return toEpochMillis(localMillis);
+            }
+        }
+        return toMilliseconds(
+                parseWithFormatter(new String(bytes, offset, length, StandardCharsets.ISO_8859_1), datePattern));
+    }
+
+    /**
+     * 解析缓冲区中 position 到 limit 之间的ASCII日期时间并按系统时区转换为毫秒时间戳，不改变缓冲区的位置
+     *
+     * @throws DateTimeParseException 文本无法解析
+     */
+    public static long parseMillis(final ByteBuffer buffer, String datePattern) {
+        FixedDateLayout layout = FixedDateLayout.of(datePattern);
+        if (layout != null) {
+            long localMillis = layout.parseLocalMillis(buffer);
+            if (localMillis != FixedDateLayout.INVALID) {
+                return toEpochMillis(localMillis);
+            }
+        }
+        return toMilliseconds(parseWithFormatter(decode(buffer), datePattern));
+    }
+
+    private static LocalDateTime parseWithFormatter(final CharSequence text, String datePattern) {
+        TemporalAccessor parsed = getFormatter(datePattern).parse(text);
+        LocalDate date = parsed.query(TemporalQueries.localDate());
+        if (date == null) {
+            throw new DateTimeParseException("Text '" + text + "' does not contain a date", text, 0);
+        }
+        LocalTime time = parsed.query(TemporalQueries.localTime());
+        return LocalDateTime.of(date, time != null ? time : LocalTime.MIDNIGHT);
+    }
+
+    private static String decode(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.duplicate().get(bytes);
+        return new String(bytes, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * 本地时间毫秒数按系统时区转换为时间戳，结果与 {@link #toMilliseconds(LocalDateTime)} 一致
+     *
+     * <p>缓存最近一段偏移量不变的本地时间区间，区间内只做一次减法；夏令时切换造成的重叠或间隔时刻不缓存。
+     */
+    private static long toEpochMillis(long localMillis) {
+        long localSecond = Math.floorDiv(localMillis, 1000L);
+        OffsetWindow window = offsetWindow;
+        if (window == null || localSecond < window.start || localSecond >= window.end) {
+            window = OffsetWindow.of(zoneId, localSecond);
+            if (window.contains(localSecond)) {
+                offsetWindow = window;
+            }
+        }
+        return localMillis - window.offsetSeconds * 1000L;
+    }
+
+    /**
+     * 解析日期
+     *
+     * @throws DateTimeParseException 文本无法解析
+     */
+    public static LocalDate parseDate(final CharSequence text, String datePattern) {
+        FixedDateLayout layout = FixedDateLayout.of(datePattern);
+        if (layout != null && !layout.hasTime()) {
+            LocalDateTime result = layout.parse(text);
+            if (result != null) {
+                return result.toLocalDate();
+            }
+        }
+        return LocalDate.parse(text, getFormatter(datePattern));
+    }
+
+    private static DateTimeFormatter getFormatter(String datePattern) {
+        return DatePattern.createFormatter(datePattern, Locale.CHINA, zoneId);
     }
 
     /**
@@ -102,6 +290,51 @@ public class DateUtils {
         return LocalDateTime.now(zoneId);
     }
 
+    /**
+     * 粗粒度的当前时间，误差不超过1秒，读取时不查询系统时钟和时区规则
+     *
+     * @see CachedClock#second()
+     */
+    public static LocalDateTime getCoarseLocalDateTime() {
+        return CachedClock.second().getLocalDateTime();
+    }
+
+    /**
+     * 粗粒度的当前日期
+     *
+     * @see CachedClock#second()
+     */
+    public static LocalDate getCoarseLocalDate() {
+        return CachedClock.second().getLocalDate();
+    }
+
+    /**
+     * 粗粒度的当天开始时间
+     *
+     * @see CachedClock#second()
+     */
+    public static LocalDateTime getCoarseStartDay() {
+        return CachedClock.second().getStartDay();
+    }
+
+    /**
+     * 粗粒度的当天结束时间
+     *
+     * @see CachedClock#second()
+     */
+    public static LocalDateTime getCoarseEndDay() {
+        return CachedClock.second().getEndDay();
+    }
+
+    /**
+     * 粗粒度的当前时间，{@link DatePattern#NORM_DATETIME} 格式，每秒只格式化一次
+     *
+     * @see CachedClock#second()
+     */
+    public static String getCoarseNormDateTime() {
+        return CachedClock.second().getNormDateTime();
+    }
+
     public static LocalDateTime getLocalDateTimeUTC() {
         return LocalDateTime.now(Clock.systemUTC());
     }
@@ -153,4 +386,52 @@ public class DateUtils {
     public static LocalDate getLastDayOfYear(LocalDate localDate) {
         return localDate.with(TemporalAdjusters.lastDayOfYear());
     }
+
+    /**
+     * 偏移量不变的本地时间区间 [start, end)，单位为秒
+     */
+    private static final class OffsetWindow {
+        private final long start;
+        private final long end;
+        private final int offsetSeconds;
+
+        private OffsetWindow(long start, long end, int offsetSeconds) {
+            this.start = start;
+            this.end = end;
+            this.offsetSeconds = offsetSeconds;
+        }
+
+        static OffsetWindow of(ZoneId zone, long localSecond) {
+            ZoneRules rules = zone.getRules();
+            LocalDateTime local = LocalDateTime.ofEpochSecond(localSecond, 0, ZoneOffset.UTC);
+            // 与 atZone 相同：间隔和重叠时刻使用切换前的偏移量
+            ZoneOffset offset = rules.getOffset(local);
+            if (rules.isFixedOffset()) {
+                return new OffsetWindow(Long.MIN_VALUE, Long.MAX_VALUE, offset.getTotalSeconds());
+            }
+
+            Instant instant = Instant.ofEpochSecond(localSecond - offset.getTotalSeconds());
+            ZoneOffsetTransition previous = rules.previousTransition(instant.plusSeconds(1));
+            ZoneOffsetTransition next = rules.nextTransition(instant);
+            long start = previous == null ? Long.MIN_VALUE : localSecondAfter(previous);
+            long end = next == null ? Long.MAX_VALUE : localSecondBefore(next);
+            return new OffsetWindow(start, end, offset.getTotalSeconds());
+        }
+
+        boolean contains(long localSecond) {
+            return localSecond >= start && localSecond < end;
+        }
+
+        private static long localSecondAfter(ZoneOffsetTransition transition) {
+            LocalDateTime before = transition.getDateTimeBefore();
+            LocalDateTime after = transition.getDateTimeAfter();
+            return (before.isAfter(after) ? before : after).toEpochSecond(ZoneOffset.UTC);
+        }
+
+        private static long localSecondBefore(ZoneOffsetTransition transition) {
+            LocalDateTime before = transition.getDateTimeBefore();
+            LocalDateTime after = transition.getDateTimeAfter();
+            return (before.isBefore(after) ? before : after).toEpochSecond(ZoneOffset.UTC);
+        }
+    }
 }
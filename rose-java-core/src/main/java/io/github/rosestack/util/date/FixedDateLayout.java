@@ -0,0 +1,311 @@
+/*
+ * Copyright © 2025 rosestack.github.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.rosestack.util.date;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+
+/**
+ * 定长的纯数字日期格式，按字符偏移直接读写各字段，不经过 {@link java.time.format.DateTimeFormatter}
+ *
+ * <p>字段位置由模式字符串计算得出，其余字符作为字面量原样输出和校验。解析时一次遍历完成校验和取值，
+ * 年份超出 0001-9999 或输入不合法时由调用方回退到通用格式化器。
+ *
+ * @author <a href="mailto:ichensoul@gmail.com">chensoul</a>
+ * @since 0.0.1
+ */
+enum FixedDateLayout {
+    NORM_DATE(DatePattern.NORM_DATE),
+    NORM_DATETIME(DatePattern.NORM_DATETIME),
+    NORM_DATETIME_MS(DatePattern.NORM_DATETIME_MS),
+    ISO8601(DatePattern.ISO8601),
+    PURE_DATE(DatePattern.PURE_DATE),
+    PURE_DATETIME(DatePattern.PURE_DATETIME);
+
+    /**
+     * 解析失败时 {@link #parseLocalMillis} 的返回值
+     */
+    static final long INVALID = Long.MIN_VALUE;
+
+    private static final int FIELD_COUNT = 7;
+    private static final int YEAR = 0;
+    private static final int MONTH = 1;
+    private static final int DAY = 2;
+    private static final int HOUR = 3;
+    private static final int MINUTE = 4;
+    private static final int SECOND = 5;
+    private static final int MILLI = 6;
+    private static final int LITERAL = -1;
+
+    private static final int SECONDS_PER_DAY = 86400;
+    private static final int DAYS_0000_TO_1970 = (146097 * 5) - (30 * 365 + 7);
+
+    private final String pattern;
+    private final char[] literals;
+    /**
+     * 每个位置所属的字段，字面量为 {@link #LITERAL}
+     */
+    private final byte[] fieldAt;
+    private final int[] offsets = new int[FIELD_COUNT];
+
+    FixedDateLayout(String pattern) {
+        this.pattern = pattern;
+        this.literals = pattern.toCharArray();
+        this.fieldAt = new byte[literals.length];
+        Arrays.fill(fieldAt, (byte) LITERAL);
+        for (int field = 0; field < FIELD_COUNT; field++) {
+            String token = token(field);
+            int offset = pattern.indexOf(token);
+            offsets[field] = offset;
+            if (offset >= 0) {
+                Arrays.fill(fieldAt, offset, offset + token.length(), (byte) field);
+            }
+        }
+    }
+
+    private static String token(int field) {
+        switch (field) {
+            case YEAR:
+                return "yyyy";
+            case MONTH:
+                return "MM";
+            case DAY:
+                return "dd";
+            case HOUR:
+                return "HH";
+            case MINUTE:
+                return "mm";
+            case SECOND:
+                return "ss";
+            default:
+                return "SSS";
+        }
+    }
+
+    /**
+     * 查找模式对应的定长格式
+     *
+     * @param pattern 日期模式
+     * @return 定长格式，不支持时返回null
+     */
+    static FixedDateLayout of(String pattern) {
+        for (FixedDateLayout layout : values()) {
+            if (layout.pattern.equals(pattern)) {
+                return layout;
+            }
+        }
+        return null;
+    }
+
+    String getPattern() {
+        return pattern;
+    }
+
+    boolean hasTime() {
+        return offsets[HOUR] >= 0;
+    }
+
+    /**
+     * 格式化日期时间
+     *
+     * @param dateTime 日期时间
+     * @return 格式化结果，年份超出四位数时返回null
+     */
+    String format(LocalDateTime dateTime) {
+        int year = dateTime.getYear();
+        // yyyy 为纪元年，公元前的年份交给通用格式化器
+        if (year < 1 || year > 9999) {
+            return null;
+        }
+
+        char[] chars = literals.clone();
+        writeDigits(chars, YEAR, year);
+        writeDigits(chars, MONTH, dateTime.getMonthValue());
+        writeDigits(chars, DAY, dateTime.getDayOfMonth());
+        writeDigits(chars, HOUR, dateTime.getHour());
+        writeDigits(chars, MINUTE, dateTime.getMinute());
+        writeDigits(chars, SECOND, dateTime.getSecond());
+        writeDigits(chars, MILLI, dateTime.getNano() / 1_000_000);
+        return new String(chars);
+    }
+
+    /**
+     * 格式化日期
+     *
+     * @param date 日期
+     * @return 格式化结果，年份超出四位数或格式包含时间时返回null
+     */
+    String format(LocalDate date) {
+        return hasTime() ? null : format(date.atStartOfDay());
+    }
+
+    /**
+     * 解析日期时间，仅包含日期的格式时间为零点
+     *
+     * @param text 文本
+     * @return 日期时间，格式或取值不合法时返回null
+     */
+    LocalDateTime parse(CharSequence text) {
+        return toLocalDateTime(parseLocalMillis(text));
+    }
+
+    LocalDateTime parse(byte[] bytes, int offset, int length) {
+        return toLocalDateTime(parseLocalMillis(bytes, offset, length));
+    }
+
+    LocalDateTime parse(ByteBuffer buffer) {
+        return toLocalDateTime(parseLocalMillis(buffer));
+    }
+
+    /**
+     * 解析为本地时间（不含时区）从 1970-01-01T00:00 起的毫秒数
+     *
+     * @param text 文本
+     * @return 毫秒数，格式或取值不合法时返回 {@link #INVALID}
+     */
+    long parseLocalMillis(CharSequence text) {
+        if (text.length() != literals.length) {
+            return INVALID;
+        }
+
+        int[] values = new int[FIELD_COUNT];
+        for (int i = 0; i < literals.length; i++) {
+            if (!accept(values, i, text.charAt(i))) {
+                return INVALID;
+            }
+        }
+        return toLocalMillis(values);
+    }
+
+    long parseLocalMillis(byte[] bytes, int offset, int length) {
+        if (length != literals.length || offset < 0 || offset > bytes.length - length) {
+            return INVALID;
+        }
+
+        int[] values = new int[FIELD_COUNT];
+        for (int i = 0; i < literals.length; i++) {
+            if (!accept(values, i, (char) (bytes[offset + i] & 0xFF))) {
+                return INVALID;
+            }
+        }
+        return toLocalMillis(values);
+    }
+
+    /**
+     * 解析缓冲区中 position 到 limit 之间的内容，不改变缓冲区的位置
+     */
+    long parseLocalMillis(ByteBuffer buffer) {
+        if (buffer.remaining() != literals.length) {
+            return INVALID;
+        }
+
+        int position = buffer.position();
+        int[] values = new int[FIELD_COUNT];
+        for (int i = 0; i < literals.length; i++) {
+            if (!accept(values, i, (char) (buffer.get(position + i) & 0xFF))) {
+                return INVALID;
+            }
+        }
+        return toLocalMillis(values);
+    }
+
+    private boolean accept(int[] values, int index, char c) {
+        int field = fieldAt[index];
+        if (field == LITERAL) {
+            return c == literals[index];
+        }
+        int digit = c - '0';
+        if (digit < 0 || digit > 9) {
+            return false;
+        }
+        values[field] = values[field] * 10 + digit;
+        return true;
+    }
+
+    private static long toLocalMillis(int[] values) {
+        int year = values[YEAR];
+        int month = values[MONTH];
+        int day = values[DAY];
+        if (year == 0 || month < 1 || month > 12 || day < 1 || day > lengthOfMonth(year, month)) {
+            return INVALID;
+        }
+        if (values[HOUR] > 23 || values[MINUTE] > 59 || values[SECOND] > 59) {
+            return INVALID;
+        }
+
+        long seconds = epochDay(year, month, day) * SECONDS_PER_DAY
+                + values[HOUR] * 3600L
+                + values[MINUTE] * 60L
+                + values[SECOND];
+        return seconds * 1000 + values[MILLI];
+    }
+
+    private static LocalDateTime toLocalDateTime(long localMillis) {
+        if (localMillis == INVALID) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(
+                Math.floorDiv(localMillis, 1000L), (int) Math.floorMod(localMillis, 1000L) * 1_000_000, ZoneOffset.UTC);
+    }
+
+    private static boolean isLeapYear(int year) {
+        return (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0);
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        switch (month) {
+            case 2:
+                return isLeapYear(year) ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    /**
+     * 与 {@link LocalDate#toEpochDay()} 相同的算法，年份为正数
+     */
+    private static long epochDay(int year, int month, int day) {
+        long total = 365L * year + (year + 3) / 4 - (year + 99) / 100 + (year + 399) / 400;
+        total += (367 * month - 362) / 12;
+        total += day - 1;
+        if (month > 2) {
+            total--;
+            if (!isLeapYear(year)) {
+                total--;
+            }
+        }
+        return total - DAYS_0000_TO_1970;
+    }
+
+    private void writeDigits(char[] chars, int field, int value) {
+        int offset = offsets[field];
+        if (offset < 0) {
+            return;
+        }
+        for (int i = offset + token(field).length() - 1; i >= offset; i--) {
+            chars[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+}
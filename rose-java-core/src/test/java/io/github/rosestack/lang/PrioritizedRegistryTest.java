@@ -0,0 +1,86 @@
+package io.github.rosestack.lang;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class PrioritizedRegistryTest {
+
+    @Test
+    void testSortedLikeStableSort() {
+        Random random = new Random(5);
+        PrioritizedRegistry<Object> registry = new PrioritizedRegistry<>();
+        PrioritizedRegistry<Object> bulk = new PrioritizedRegistry<>();
+        List<Object> expected = new ArrayList<>();
+        List<Object> batch = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            Object component = random.nextInt(5) == 0 ? "plain-" + i : new Component(random.nextInt(7) - 3, i);
+            assertTrue(registry.add(component));
+            expected.add(component);
+            batch.add(component);
+            if (batch.size() == 37) {
+                assertEquals(batch.size(), bulk.addAll(batch));
+                batch.clear();
+            }
+        }
+        bulk.addAll(batch);
+        // List.sort 是稳定排序，注册表应与之一致
+        expected.sort(Prioritized.COMPARATOR);
+
+        assertEquals(expected, registry.snapshot());
+        assertEquals(expected, bulk.snapshot());
+        List<Object> iterated = new ArrayList<>();
+        registry.forEach(iterated::add);
+        assertEquals(expected, iterated);
+    }
+
+    @Test
+    void testSnapshotIsImmutable() {
+        PrioritizedRegistry<Object> registry = new PrioritizedRegistry<>();
+        Component low = new Component(10, 0);
+        Component high = new Component(Prioritized.MAX_PRIORITY, 1);
+        registry.add(low);
+        List<Object> before = registry.snapshot();
+
+        assertFalse(registry.add(null));
+        registry.add("plain");
+        registry.add(high);
+        assertEquals(Collections.singletonList(low), before);
+        assertEquals(Arrays.asList(high, low, "plain"), registry.snapshot());
+        assertThrows(UnsupportedOperationException.class, () -> registry.snapshot().add("x"));
+
+        assertTrue(registry.contains("plain"));
+        assertTrue(registry.remove("plain"));
+        assertFalse(registry.remove("plain"));
+        assertEquals(2, registry.size());
+        registry.clear();
+        assertTrue(registry.isEmpty());
+        assertFalse(registry.iterator().hasNext());
+    }
+
+    static final class Component implements Prioritized {
+        private final int priority;
+        private final int id;
+
+        Component(int priority, int id) {
+            this.priority = priority;
+            this.id = id;
+        }
+
+        @Override
+        public int getPriority() {
+            return priority;
+        }
+
+        @Override
+        public String toString() {
+            return id + "@" + priority;
+        }
+    }
+}
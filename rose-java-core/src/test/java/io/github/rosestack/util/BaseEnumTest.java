@@ -0,0 +1,87 @@
+package io.github.rosestack.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class BaseEnumTest {
+
+    @Test
+    void testFromCode() {
+        assertSame(Status.ACTIVE, BaseEnum.fromCode(Status.class, "1"));
+        assertSame(Status.ACTIVE, BaseEnum.fromCode(Status.class, 1));
+        assertSame(Status.DELETED, BaseEnum.fromCode(Status.class, 9));
+        assertNull(BaseEnum.fromCode(Status.class, (String) null));
+        assertThrows(IllegalArgumentException.class, () -> BaseEnum.fromCode(Status.class, "01"));
+        assertThrows(IllegalArgumentException.class, () -> BaseEnum.fromCode(Status.class, 2));
+        assertThrows(IllegalArgumentException.class, () -> BaseEnum.fromCode(Status.class, -1));
+
+        // 代码重复时以声明在前的常量为准
+        assertSame(Color.RED, BaseEnum.fromCode(Color.class, "r"));
+        assertSame(Color.BLUE, BaseEnum.fromCode(Color.class, "b"));
+        assertNull(BaseEnum.fromCodeOrNull(Color.class, "x"));
+        assertThrows(IllegalArgumentException.class, () -> BaseEnum.fromCode(Color.class, 0));
+    }
+
+    @Test
+    void testFromName() {
+        assertSame(Status.INACTIVE, BaseEnum.fromName(Status.class, "停用"));
+        assertNull(BaseEnum.fromName(Status.class, null));
+        assertThrows(IllegalArgumentException.class, () -> BaseEnum.fromName(Status.class, "INACTIVE"));
+    }
+
+    @Test
+    void testFromCodes() {
+        Status[] statuses = BaseEnum.fromCodes(Status.class, "0", null, "9", "1");
+        assertArrayEquals(new Status[] {Status.INACTIVE, null, Status.DELETED, Status.ACTIVE}, statuses);
+        assertEquals(0, BaseEnum.fromCodes(Color.class).length);
+        assertThrows(IllegalArgumentException.class, () -> BaseEnum.fromCodes(Status.class, "1", "5"));
+    }
+
+    enum Status implements BaseEnum {
+        INACTIVE("0", "停用"),
+        ACTIVE("1", "启用"),
+        DELETED("9", "删除");
+
+        private final String code;
+        private final String name;
+
+        Status(String code, String name) {
+            this.code = code;
+            this.name = name;
+        }
+
+        @Override
+        public String getCode() {
+            return code;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+    }
+
+    enum Color implements BaseEnum {
+        RED("r"),
+        CRIMSON("r"),
+        BLUE("b"),
+        NONE(null);
+
+        private final String code;
+
+        Color(String code) {
+            this.code = code;
+        }
+
+        @Override
+        public String getCode() {
+            return code;
+        }
+
+        @Override
+        public String getName() {
+            return name();
+        }
+    }
+}
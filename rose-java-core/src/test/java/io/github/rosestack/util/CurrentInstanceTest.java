@@ -0,0 +1,115 @@
+package io.github.rosestack.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import io.github.rosestack.util.CurrentInstance.Snapshot;
+
+class CurrentInstanceTest {
+
+    @AfterEach
+    void clear() {
+        CurrentInstance.clearAll();
+    }
+
+    @Test
+    void testSetGetAndRestore() {
+        String user = "alice";
+        Integer tenant = 7;
+        CurrentInstance.set(String.class, user);
+        CurrentInstance.set(Integer.class, tenant);
+        assertSame(user, CurrentInstance.get(String.class));
+        assertSame(tenant, CurrentInstance.get(Integer.class));
+
+        Map<Class<?>, CurrentInstance> saved = CurrentInstance.getInstances();
+        assertEquals(2, saved.size());
+        CurrentInstance.set(String.class, null);
+        assertNull(CurrentInstance.get(String.class));
+        CurrentInstance.restoreInstances(saved);
+        assertSame(user, CurrentInstance.get(String.class));
+
+        CurrentInstance.clearAll();
+        assertNull(CurrentInstance.get(Integer.class));
+        assertTrue(CurrentInstance.getInstances().isEmpty());
+    }
+
+    @Test
+    void testSnapshotIsImmutable() {
+        String first = "first";
+        CurrentInstance.set(String.class, first);
+        Snapshot snapshot = CurrentInstance.capture();
+        assertSame(snapshot, CurrentInstance.capture());
+
+        CurrentInstance.set(String.class, "second");
+        CurrentInstance.set(Integer.class, 1);
+        assertNotSame(snapshot, CurrentInstance.capture());
+        assertEquals(1, snapshot.size());
+
+        Snapshot previous = CurrentInstance.attach(snapshot);
+        assertEquals(2, previous.size());
+        assertSame(first, CurrentInstance.get(String.class));
+        assertNull(CurrentInstance.get(Integer.class));
+
+        CurrentInstance.attach(previous);
+        assertEquals(Integer.valueOf(1), CurrentInstance.get(Integer.class));
+    }
+
+    @Test
+    void testSlotsOfManyTypes() {
+        Object[] values = {"s", 1, 2L, 3.0, 'c', true, new StringBuilder("b"), new Object()};
+        setAll(values);
+        for (Object value : values) {
+            assertSame(value, CurrentInstance.get(value.getClass()));
+        }
+        assertEquals(values.length, CurrentInstance.capture().size());
+
+        CurrentInstance.set(Long.class, null);
+        CurrentInstance.set(Long.class, null);
+        assertNull(CurrentInstance.get(Long.class));
+        assertSame(values[0], CurrentInstance.get(String.class));
+        assertSame(values[7], CurrentInstance.get(Object.class));
+        assertEquals(values.length - 1, CurrentInstance.capture().size());
+        assertEquals(values.length - 1, CurrentInstance.getInstances().size());
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static void setAll(Object[] values) {
+        for (Object value : values) {
+            CurrentInstance.set((Class) value.getClass(), value);
+        }
+    }
+
+    @Test
+    void testPropagationToExecutors() throws Exception {
+        String user = "bob";
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            CurrentInstance.set(String.class, user);
+            Executor executor = CurrentInstance.wrap(pool);
+            assertSame(user, CompletableFuture.supplyAsync(() -> CurrentInstance.get(String.class), executor).get());
+
+            Future<String> wrapped = pool.submit(CurrentInstance.wrap(() -> CurrentInstance.get(String.class)));
+            assertSame(user, wrapped.get());
+
+            // 执行线程原有的实例在任务结束后恢复
+            Future<String> unwrapped = pool.submit(() -> CurrentInstance.get(String.class));
+            assertNull(unwrapped.get());
+
+            CurrentInstance.set(String.class, "carol");
+            Runnable task = CurrentInstance.wrap(() -> assertEquals("carol", CurrentInstance.get(String.class)));
+            CurrentInstance.set(String.class, user);
+            pool.submit(task).get();
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
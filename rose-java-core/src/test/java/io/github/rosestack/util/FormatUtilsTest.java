@@ -2,6 +2,7 @@ package io.github.rosestack.util;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.io.StringWriter;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.HashMap;
@@ -237,6 +238,58 @@ class FormatUtilsTest {
         assertTrue(result.contains("对象:"));
     }
 
+    @Test
+    void testCompiledTemplate() {
+        CompiledTemplate template = CompiledTemplate.compile("用户 {name} 第 {0} 次 {} 操作 {bad-name} {");
+        assertSame(template, CompiledTemplate.compile("用户 {name} 第 {0} 次 {} 操作 {bad-name} {"));
+        assertTrue(template.hasNamedParameters());
+        assertTrue(template.hasIndexedParameters());
+        assertTrue(template.hasPlaceholders());
+        assertEquals(1, template.countNamedParameters());
+
+        assertEquals("用户 {name} 第 {0} 次 登录 操作 {bad-name} {", template.render("登录"));
+        assertEquals("用户 {name} 第 3 次 {} 操作 {bad-name} {", template.renderIndexed(3));
+        Map<String, Object> params = new HashMap<>();
+        params.put("name", "rose");
+        assertEquals("用户 rose 第 {0} 次 {} 操作 {bad-name} {", template.renderNamed(params));
+    }
+
+    @Test
+    void testPlaceholderValueIsNotRescanned() {
+        // 参数值中的占位符不会被后续参数替换
+        assertEquals("{} and x", FormatUtils.replacePlaceholders("{} and {}", "{}", "x"));
+        assertEquals("a%sb", FormatUtils.replaceCustomPlaceholder("%s%s", "%s", "a%s", "b"));
+    }
+
+    @Test
+    void testFormatDetection() {
+        Map<String, Object> params = new HashMap<>();
+        params.put("name", "rose");
+        assertEquals("hello rose", FormatUtils.format("hello {name}", params));
+        assertEquals("1-2", FormatUtils.format("{0}-{1}", new Object[] {1, 2}));
+        assertEquals("1-2", FormatUtils.format("{}-{}", new Object[] {1, 2}));
+        assertEquals("value: x", FormatUtils.format("value: {}", "x"));
+        assertEquals(1, FormatUtils.countNamedParameters("{a}{b-c}"));
+    }
+
+    @Test
+    void testFormatTo() {
+        StringBuilder builder = new StringBuilder("> ");
+        FormatUtils.formatTo(builder, "{} + {} = {}", Locale.US, TimeZone.getDefault(), 1, 2, 3);
+        assertEquals("> 1 + 2 = 3", builder.toString());
+
+        builder.setLength(0);
+        FormatUtils.formatTo(builder, "{1}-{0}", "a", "b");
+        assertEquals("b-a", builder.toString());
+
+        Map<String, Object> params = new HashMap<>();
+        params.put("name", "rose");
+        StringWriter writer = new StringWriter();
+        FormatUtils.formatTo(writer, "hello {name}", params);
+        FormatUtils.formatTo(writer, ", ids: {}", Locale.US, TimeZone.getDefault(), new int[] {1, 2});
+        assertEquals("hello rose, ids: [1, 2]", writer.toString());
+    }
+
     // 测试用的简单对象
     static class TestObject {
         private final String name;
@@ -0,0 +1,104 @@
+package io.github.rosestack.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.github.rosestack.exception.BaseException;
+import io.github.rosestack.exception.BusinessException;
+
+class FormattedMessageTest {
+    private static final Logger log = LoggerFactory.getLogger(FormattedMessageTest.class);
+
+    @Test
+    void testLazyFormatting() {
+        AtomicInteger calls = new AtomicInteger();
+        Object arg = new Object() {
+            @Override
+            public String toString() {
+                calls.incrementAndGet();
+                return "alice";
+            }
+        };
+
+        FormattedMessage message = FormattedMessage.of("用户 {} 不存在", arg);
+        assertFalse(message.isFormatted());
+        assertEquals(0, calls.get());
+
+        // 日志级别未开启时不会格式化
+        log.trace("{}", message);
+        assertEquals(0, calls.get());
+
+        assertEquals("用户 alice 不存在", message.toString());
+        assertEquals("用户 alice 不存在", message.toString());
+        assertEquals(1, calls.get());
+        assertTrue(message.isFormatted());
+        assertEquals(message.toString().length(), message.length());
+        assertEquals('a', message.charAt(3));
+    }
+
+    @Test
+    void testFormatting() {
+        assertEquals("b-a", FormattedMessage.of("{1}-{0}", "a", "b").toString());
+        assertEquals("user.not.found", FormattedMessage.of("user.not.found").toString());
+        assertEquals("null", FormattedMessage.of(null).toString());
+
+        Object broken = new Object() {
+            @Override
+            public String toString() {
+                throw new IllegalStateException();
+            }
+        };
+        assertEquals("value: {}", FormattedMessage.of("value: {}", broken).toString());
+    }
+
+    @Test
+    void testBaseException() throws Exception {
+        BaseException exception = new BusinessException("订单 {} 状态为 {}", "1001", "CLOSED");
+        assertFalse(exception.getFormattedMessage().isFormatted());
+        assertEquals("订单 {} 状态为 {}", exception.getMessageKey());
+        assertEquals("订单 1001 状态为 CLOSED", exception.getMessage());
+        assertTrue(exception.getFormattedMessage().isFormatted());
+
+        BaseException lazy = BusinessException.of(FormattedMessage.of("库存不足: {}", "SKU-1"));
+        assertEquals("库存不足: {}", lazy.getMessageKey());
+        assertArrayEquals(new Object[] {"SKU-1"}, lazy.getMessageArgs());
+        assertEquals("库存不足: SKU-1", lazy.getMessage());
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(BusinessException.of(FormattedMessage.of("a={}", 1)));
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            assertEquals("a=1", ((BaseException) in.readObject()).getMessage());
+        }
+    }
+
+    @Test
+    void testInitCause() {
+        IllegalStateException cause = new IllegalStateException();
+        BaseException lazy = BusinessException.of(FormattedMessage.of("库存不足: {}", "SKU-1"));
+        assertSame(lazy, lazy.initCause(cause));
+        assertSame(cause, lazy.getCause());
+
+        BaseException withCause = BusinessException.of(FormattedMessage.of("库存不足: {}", "SKU-1"), cause);
+        assertSame(cause, withCause.getCause());
+        assertThrows(IllegalStateException.class, () -> withCause.initCause(cause));
+    }
+
+    @Test
+    void testNullMessageKey() {
+        // null 仍然调用 BusinessException(String)，不会产生重载歧义
+        BaseException exception = new BusinessException(null);
+        assertNull(exception.getMessageKey());
+        assertNull(exception.getCause());
+    }
+}
@@ -3,9 +3,14 @@ package io.github.rosestack.util;
 import static org.junit.jupiter.api.Assertions.*;
 
 import java.math.BigDecimal;
+import java.text.NumberFormat;
 import java.text.SimpleDateFormat;
 import java.time.*;
 import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -164,4 +169,186 @@ class LocaleFormatUtilsTest {
         String result = LocaleFormatUtils.formatValue(456, Locale.getDefault());
         assertNotNull(result);
     }
+
+    @Test
+    void testFormatValueTo() {
+        StringBuilder builder = new StringBuilder();
+        LocaleFormatUtils.formatValueTo(builder, new long[] {1234L, 5L}, Locale.US, TimeZone.getDefault());
+        builder.append(' ');
+        LocaleFormatUtils.formatValueTo(builder, new boolean[] {true, false}, Locale.US, TimeZone.getDefault());
+        builder.append(' ');
+        LocaleFormatUtils.formatValueTo(builder, new char[] {'a', 'b'}, Locale.US, TimeZone.getDefault());
+        builder.append(' ');
+        LocaleFormatUtils.formatValueTo(
+                builder, Arrays.asList(1.5d, null, new int[] {7}), Locale.US, TimeZone.getDefault());
+        assertEquals("[1,234, 5] [true, false] [a, b] [1.5, null, [7]]", builder.toString());
+
+        assertEquals("[]", LocaleFormatUtils.formatValue(new short[0], Locale.US));
+        assertEquals("[1.25]", LocaleFormatUtils.formatValue(new float[] {1.25f}, Locale.US));
+    }
+
+    @Test
+    void testFormatIntegerMatchesNumberFormat() {
+        long[] values = {0, 7, -7, 999, 1000, -1234567, Long.MAX_VALUE, Long.MIN_VALUE};
+        for (Locale locale : NumberFormat.getAvailableLocales()) {
+            NumberFormat expected = NumberFormat.getInstance(locale);
+            for (long value : values) {
+                assertEquals(expected.format(value), LocaleFormatUtils.formatValue(value, locale), locale::toString);
+            }
+        }
+    }
+
+    @Test
+    void testConcurrentNumberFormatting() throws Exception {
+        int threads = 16;
+        int iterations = 2000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int seed = t;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < iterations; i++) {
+                        // 不同精度的BigDecimal与double交替格式化，互不影响
+                        BigDecimal decimal = BigDecimal.valueOf(seed * 1000L + i, seed % 6);
+                        NumberFormat expected = NumberFormat.getInstance(Locale.US);
+                        expected.setMaximumFractionDigits(decimal.scale());
+                        assertEquals(expected.format(decimal), LocaleFormatUtils.formatValue(decimal, Locale.US));
+                        assertEquals("3.142", LocaleFormatUtils.formatValue(Math.PI, Locale.US));
+                        assertEquals("1.234.567", LocaleFormatUtils.formatValue(1234567, Locale.GERMANY));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testObjectMapperConfigChangesAreApplied() {
+        ObjectMapper mapper = new ObjectMapper().disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        mapper.setDateFormat(new SimpleDateFormat("yyyy-MM-dd"));
+        mapper.setTimeZone(TimeZone.getTimeZone("UTC"));
+        LocaleFormatUtils.setObjectMapper(mapper);
+        Date date = new Date(1703489445123L);
+        TimeZone utc = TimeZone.getTimeZone("UTC");
+        assertEquals("2023-12-25", LocaleFormatUtils.formatValue(date, Locale.US, utc));
+
+        // 同一个ObjectMapper修改配置后，格式化结果随之变化
+        mapper.setDateFormat(new SimpleDateFormat("yyyy/MM/dd HH:mm"));
+        assertEquals("2023/12/25 07:30", LocaleFormatUtils.formatValue(date, Locale.US, utc));
+
+        mapper.enable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        assertEquals("1703489445123", LocaleFormatUtils.formatValue(date, Locale.US, utc));
+    }
+
+    @Test
+    void testDateTimeMatchesObjectMapper() throws Exception {
+        ObjectMapper pattern = new ObjectMapper().disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        pattern.setDateFormat(new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS Z"));
+        ObjectMapper iso = new ObjectMapper().disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        ObjectMapper timestamps = new ObjectMapper();
+
+        List<Object> values = Arrays.asList(
+                new Date(0),
+                new Date(1703489445123L),
+                new java.sql.Date(1703489445123L),
+                LocalDate.of(2023, 12, 25),
+                LocalTime.of(15, 30),
+                LocalDateTime.of(2023, 12, 25, 15, 30, 45, 120_000_000),
+                ZonedDateTime.of(2023, 12, 25, 15, 30, 45, 0, ZoneId.of("Asia/Shanghai")),
+                Instant.ofEpochSecond(1703489445));
+        TimeZone[] timeZones = {
+            TimeZone.getTimeZone("UTC"), TimeZone.getTimeZone("GMT+8"), TimeZone.getTimeZone("America/New_York")
+        };
+        for (ObjectMapper mapper : Arrays.asList(pattern, iso, timestamps)) {
+            LocaleFormatUtils.setObjectMapper(mapper);
+            for (Locale locale : Arrays.asList(Locale.US, Locale.CHINA, Locale.GERMANY)) {
+                for (TimeZone timeZone : timeZones) {
+                    for (Object value : values) {
+                        String expected;
+                        try {
+                            expected = mapper.copy()
+                                    .setLocale(locale)
+                                    .setTimeZone(timeZone)
+                                    .writeValueAsString(value)
+                                    .replace("\"", "");
+                        } catch (Exception e) {
+                            expected = value.toString();
+                        }
+                        assertEquals(expected, LocaleFormatUtils.formatValue(value, locale, timeZone), value::toString);
+                        assertEquals(
+                                "[" + expected + "]",
+                                LocaleFormatUtils.formatValueTo(new StringBuilder(), new Object[] {value}, locale, timeZone)
+                                        .toString());
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void testRegisterFormatter() {
+        LocaleFormatUtils.register(BaseEnum.class, (target, value, locale, timeZone) -> target.append(value.getName()));
+        LocaleFormatUtils.register(Money.class, (target, value, locale, timeZone) -> {
+            target.append(value.currency.getSymbol(locale)).append(' ');
+            LocaleFormatUtils.formatValueTo(target, value.amount, locale, timeZone);
+        });
+        try {
+            assertEquals("启用", LocaleFormatUtils.formatValue(Status.ENABLED, Locale.CHINA));
+            assertEquals(
+                    "$ 1,234.5", LocaleFormatUtils.formatValue(new Money(new BigDecimal("1234.5"), "USD"), Locale.US));
+            assertEquals(
+                    "[停用, € 1.000]",
+                    LocaleFormatUtils.formatValue(
+                            Arrays.asList(Status.DISABLED, new Money(new BigDecimal("1000"), "EUR")), Locale.GERMANY));
+
+            // 继承链上最近的类型优先
+            LocaleFormatUtils.register(Status.class, (target, value, locale, timeZone) -> target.append(value.getCode()));
+            assertEquals("1", LocaleFormatUtils.formatValue(Status.ENABLED, Locale.CHINA));
+        } finally {
+            LocaleFormatUtils.unregister(Status.class);
+            LocaleFormatUtils.unregister(BaseEnum.class);
+            LocaleFormatUtils.unregister(Money.class);
+        }
+
+        assertEquals("ENABLED", LocaleFormatUtils.formatValue(Status.ENABLED, Locale.CHINA));
+        assertThrows(IllegalArgumentException.class, () -> LocaleFormatUtils.register(Money.class, null));
+    }
+
+    enum Status implements BaseEnum {
+        ENABLED("1", "启用"),
+        DISABLED("0", "停用");
+
+        private final String code;
+        private final String name;
+
+        Status(String code, String name) {
+            this.code = code;
+            this.name = name;
+        }
+
+        @Override
+        public String getCode() {
+            return code;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+    }
+
+    static final class Money {
+        private final BigDecimal amount;
+        private final Currency currency;
+
+        Money(BigDecimal amount, String currencyCode) {
+            this.amount = amount;
+            this.currency = Currency.getInstance(currencyCode);
+        }
+    }
 }
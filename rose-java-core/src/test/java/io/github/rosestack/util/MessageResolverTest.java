@@ -0,0 +1,80 @@
+package io.github.rosestack.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.github.rosestack.exception.BusinessException;
+
+class MessageResolverTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testGetMessage() throws IOException {
+        write("messages.properties", "user.not.found=User {} not found\norder.closed=Order {1} closed by {0}\n");
+        write("messages_zh_CN.properties", "user.not.found=用户 {} 不存在\n");
+        write("errors.properties", "user.not.found=ignored\nsystem.busy=System busy\n");
+
+        try (URLClassLoader classLoader = classLoader()) {
+            MessageResolver resolver = MessageResolver.of(classLoader, "messages", "errors");
+
+            assertEquals("用户 alice 不存在", resolver.getMessage("user.not.found", Locale.CHINA, "alice"));
+            assertEquals("User alice not found", resolver.getMessage("user.not.found", Locale.US, "alice"));
+            // 缺少的键从基础资源包和后续资源包中查找
+            assertEquals("Order 42 closed by bob", resolver.getMessage("order.closed", Locale.CHINA, "bob", "42"));
+            assertEquals("System busy", resolver.getMessage("system.busy", Locale.CHINA));
+            assertEquals("unknown.key", resolver.getMessage("unknown.key", Locale.CHINA));
+            assertEquals("value a", resolver.getMessage("value {}", Locale.CHINA, "a"));
+            assertTrue(resolver.contains("system.busy", Locale.US));
+            assertFalse(resolver.contains("unknown.key", Locale.US));
+            assertSame(
+                    resolver.getTemplate("user.not.found", Locale.CHINA),
+                    resolver.getTemplate("user.not.found", Locale.CHINA));
+
+            BusinessException exception = new BusinessException("user.not.found", "bob");
+            assertEquals("用户 bob 不存在", exception.getLocalizedMessage(resolver, Locale.SIMPLIFIED_CHINESE));
+        }
+    }
+
+    @Test
+    void testReload() throws IOException {
+        write("messages.properties", "greeting=Hello {}\n");
+
+        try (URLClassLoader classLoader = classLoader()) {
+            MessageResolver resolver = MessageResolver.of(classLoader, "messages");
+            assertEquals("Hello rose", resolver.getMessage("greeting", Locale.US, "rose"));
+
+            write("messages.properties", "greeting=Hi {}\n");
+            assertEquals("Hello rose", resolver.getMessage("greeting", Locale.US, "rose"));
+
+            resolver.reload();
+            assertEquals("Hi rose", resolver.getMessage("greeting", Locale.US, "rose"));
+        }
+    }
+
+    @Test
+    void testInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> MessageResolver.of(getClass().getClassLoader()));
+        assertThrows(
+                IllegalArgumentException.class, () -> MessageResolver.of(getClass().getClassLoader(), (String) null));
+    }
+
+    private void write(String name, String content) throws IOException {
+        Files.write(dir.resolve(name), content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private URLClassLoader classLoader() throws IOException {
+        return new URLClassLoader(new URL[] {dir.toUri().toURL()}, null);
+    }
+}
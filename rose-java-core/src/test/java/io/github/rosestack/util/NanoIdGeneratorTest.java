@@ -0,0 +1,113 @@
+package io.github.rosestack.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+class NanoIdGeneratorTest {
+
+    @Test
+    void testNextId() {
+        NanoIdGenerator generator = NanoIdGenerator.getDefault();
+        String id = generator.nextId();
+        assertEquals(NanoId.DEFAULT_SIZE, id.length());
+        assertTrue(id.matches("[_\\-0-9a-zA-Z]+"));
+        assertEquals(40, generator.nextId(40).length());
+
+        char[] chars = new char[25];
+        generator.nextId(chars, 2);
+        assertEquals(0, chars[0]);
+        assertNotEquals(0, chars[22]);
+        assertEquals(0, chars[23]);
+
+        byte[] bytes = new byte[21];
+        generator.nextId(bytes, 0);
+        assertTrue(new String(bytes, StandardCharsets.US_ASCII).matches("[_\\-0-9a-zA-Z]{21}"));
+
+        assertThrows(IndexOutOfBoundsException.class, () -> generator.nextId(new char[20], 0));
+        assertThrows(IllegalArgumentException.class, () -> generator.nextId(0));
+    }
+
+    @Test
+    void testCustomAlphabet() {
+        char[] alphabet = "0123456789".toCharArray();
+        NanoIdGenerator generator = NanoIdGenerator.of(alphabet, 12, () -> new Random(7));
+        int[] counts = new int[10];
+        for (int i = 0; i < 10000; i++) {
+            for (char c : generator.nextId().toCharArray()) {
+                counts[c - '0']++;
+            }
+        }
+        // 非2的幂长度的字母表使用拒绝采样，各字符出现次数应当接近
+        for (int count : counts) {
+            assertTrue(Math.abs(count - 12000) < 1000, String.valueOf(count));
+        }
+
+        assertEquals("aaaa", NanoIdGenerator.of(new char[] {'a'}, 4).nextId());
+        assertThrows(
+                IllegalStateException.class,
+                () -> NanoIdGenerator.of("甲乙".toCharArray(), 4).nextId(new byte[4], 0));
+        assertThrows(IllegalArgumentException.class, () -> NanoIdGenerator.of(new char[256], 4));
+        assertThrows(IllegalArgumentException.class, () -> NanoIdGenerator.of(alphabet, 0));
+    }
+
+    @Test
+    void testConcurrentNextId() throws Exception {
+        int threads = 64;
+        int iterations = 2000;
+        Set<String> ids = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < iterations; i++) {
+                        ids.add(NanoId.randomNanoId());
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(threads * iterations, ids.size());
+    }
+
+    @Test
+    void testGenerate() {
+        NanoIdGenerator generator = NanoIdGenerator.getDefault();
+        assertEquals(0, generator.generate(0).length);
+        assertThrows(IllegalArgumentException.class, () -> generator.generate(-1));
+
+        for (boolean parallel : new boolean[] {false, true}) {
+            String[] ids = generator.generate(10_000, parallel);
+            assertEquals(10_000, ids.length);
+            assertEquals(ids.length, new HashSet<>(Arrays.asList(ids)).size());
+            for (String id : ids) {
+                assertEquals(NanoId.DEFAULT_SIZE, id.length());
+            }
+        }
+
+        NanoIdGenerator digits = NanoIdGenerator.of("0123456789".toCharArray(), 8);
+        String[] target = new String[5000];
+        digits.fill(target, true);
+        for (String id : target) {
+            assertTrue(id.matches("[0-9]{8}"), id);
+        }
+    }
+}
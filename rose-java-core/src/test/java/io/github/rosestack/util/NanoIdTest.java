@@ -17,6 +17,7 @@ class NanoIdTest {
     void testNanoId() {
         Assertions.assertEquals(DEFAULT_SIZE, NanoId.randomNanoId().length());
         Assertions.assertEquals(10, NanoId.randomNanoId(10).length());
+        Assertions.assertEquals(100, NanoId.randomNanoIds(100).length);
         Assertions.assertEquals(
                 10, NanoId.randomNanoId(new Random(), DEFAULT_ALPHABET, 10).length());
 
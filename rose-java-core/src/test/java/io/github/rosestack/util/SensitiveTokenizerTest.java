@@ -0,0 +1,126 @@
+package io.github.rosestack.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * SensitiveTokenizer 测试类 测试保留格式的可逆令牌化
+ */
+class SensitiveTokenizerTest {
+    private final SensitiveTokenizer tokenizer =
+            SensitiveTokenizer.of("0123456789abcdef-test-key".getBytes(StandardCharsets.UTF_8));
+
+    @Test
+    void testPhone() {
+        String phone = "13812348000";
+        String token = tokenizer.tokenize(phone, SensitiveType.PHONE);
+
+        assertNotEquals(phone, token);
+        assertTrue(SensitiveUtils.PHONE_PATTERN.matcher(token).matches());
+        assertEquals("138", token.substring(0, 3));
+        assertEquals(token, tokenizer.tokenize(phone, SensitiveType.PHONE));
+        assertEquals(phone, tokenizer.detokenize(token, SensitiveType.PHONE));
+    }
+
+    @Test
+    void testBankCardKeepsLuhn() {
+        String bankCard = "6222021234567890128";
+        assertTrue(isLuhnValid(bankCard));
+
+        String token = tokenizer.tokenize(bankCard, SensitiveType.BANK_CARD);
+        assertEquals(bankCard.length(), token.length());
+        assertEquals("622202", token.substring(0, 6));
+        assertTrue(isLuhnValid(token));
+        assertEquals(bankCard, tokenizer.detokenize(token, SensitiveType.BANK_CARD));
+
+        // 校验位错误的卡号同样可以还原
+        String invalid = "6222021234567890127";
+        String invalidToken = tokenizer.tokenize(invalid, SensitiveType.BANK_CARD);
+        assertEquals(invalid, tokenizer.detokenize(invalidToken, SensitiveType.BANK_CARD));
+    }
+
+    @Test
+    void testIdCard() {
+        String idCard = "11010519491231002X";
+        String token = tokenizer.tokenize(idCard, SensitiveType.ID_CARD);
+
+        assertEquals(18, token.length());
+        assertEquals("110105", token.substring(0, 6));
+        assertEquals(idCard, tokenizer.detokenize(token, SensitiveType.ID_CARD));
+
+        String idCard15 = "110105491231002";
+        String token15 = tokenizer.tokenize(idCard15, SensitiveType.ID_CARD);
+        assertEquals(idCard15, tokenizer.detokenize(token15, SensitiveType.ID_CARD));
+    }
+
+    @Test
+    void testEmailAndIpv4() {
+        String email = "rose.stack@example.com";
+        String token = tokenizer.tokenize(email, SensitiveType.EMAIL);
+        assertTrue(token.endsWith("@example.com"));
+        assertEquals('.', token.charAt(4));
+        assertEquals(email, tokenizer.detokenize(token, SensitiveType.EMAIL));
+
+        String ip = "192.168.1.100";
+        String ipToken = tokenizer.tokenize(ip, SensitiveType.IPV4);
+        assertTrue(ipToken.startsWith("192.168."));
+        assertTrue(SensitiveUtils.IPV4_PATTERN.matcher(ipToken).matches());
+        assertEquals(ip, tokenizer.detokenize(ipToken, SensitiveType.IPV4));
+    }
+
+    @Test
+    void testKeyedAndUnsupported() {
+        SensitiveTokenizer other = SensitiveTokenizer.of("another-secret-key-16".getBytes(StandardCharsets.UTF_8), 0);
+        assertNotEquals(
+                tokenizer.tokenize("13812348000", SensitiveType.PHONE),
+                other.tokenize("13812348000", SensitiveType.PHONE));
+        assertEquals("not-a-phone", tokenizer.tokenize("not-a-phone", SensitiveType.PHONE));
+        assertThrows(IllegalArgumentException.class, () -> tokenizer.tokenize("张三", SensitiveType.NAME));
+        assertThrows(IllegalArgumentException.class, () -> SensitiveTokenizer.of(new byte[8]));
+    }
+
+    @Test
+    void testBatchIsPermutation() {
+        long[] values = new long[10000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i;
+        }
+        long[] tokens = new long[values.length];
+        tokenizer.tokenize(values, 4, tokens);
+
+        Set<Long> distinct = new HashSet<>();
+        for (long token : tokens) {
+            assertTrue(token >= 0 && token < 10000);
+            distinct.add(token);
+        }
+        assertEquals(values.length, distinct.size());
+
+        long[] restored = new long[values.length];
+        tokenizer.detokenize(tokens, 4, restored);
+        assertArrayEquals(values, restored);
+
+        String[] phones = {"13812348000", "15900001111", null};
+        String[] phoneTokens = tokenizer.tokenize(phones, SensitiveType.PHONE);
+        assertNull(phoneTokens[2]);
+        assertArrayEquals(phones, tokenizer.detokenize(phoneTokens, SensitiveType.PHONE));
+    }
+
+    private static boolean isLuhnValid(String number) {
+        int sum = 0;
+        boolean doubled = false;
+        for (int i = number.length() - 1; i >= 0; i--) {
+            int d = number.charAt(i) - '0';
+            if (doubled) {
+                d = d * 2 > 9 ? d * 2 - 9 : d * 2;
+            }
+            sum += d;
+            doubled = !doubled;
+        }
+        return sum % 10 == 0;
+    }
+}
@@ -0,0 +1,94 @@
+package io.github.rosestack.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * SensitiveUtils 测试类 测试内置脱敏类型与策略注册
+ */
+class SensitiveUtilsTest {
+    private static final Pattern PASSPORT_PATTERN = Pattern.compile("^[EGDSP]\\d{8}$");
+
+    @AfterEach
+    void tearDown() {
+        SensitiveUtils.unregister("PASSPORT");
+        SensitiveUtils.register(SensitiveType.NAME, SensitiveUtils::maskName);
+        SensitiveUtils.setDetectionPriority(SensitiveType.BANK_CARD.name(), 40);
+    }
+
+    @Test
+    void testMaskBuiltinTypes() {
+        assertEquals("138****8000", SensitiveUtils.mask("13812348000", SensitiveType.PHONE));
+        assertEquals("张*三", SensitiveUtils.mask("张小三", SensitiveType.NAME));
+        assertEquals("6222********1234", SensitiveUtils.mask("6222000011111234", SensitiveType.BANK_CARD));
+        assertEquals("192.168.***.***", SensitiveUtils.mask("192.168.1.100", SensitiveType.IPV4));
+        assertEquals("****", SensitiveUtils.mask("secret", SensitiveType.PASSWORD));
+        assertEquals("raw", SensitiveUtils.mask("raw", SensitiveType.CUSTOM));
+        assertEquals("138****8000", SensitiveType.PHONE.mask("13812348000"));
+    }
+
+    @Test
+    void testReplaceBuiltinMasker() {
+        SensitiveUtils.register(SensitiveType.NAME, value -> value.charAt(0) + "**");
+        assertEquals("张**", SensitiveUtils.mask("张小三", SensitiveType.NAME));
+
+        assertThrows(
+                IllegalArgumentException.class, () -> SensitiveUtils.register(SensitiveType.NAME, SensitiveType.NAME));
+        assertThrows(
+                IllegalArgumentException.class, () -> SensitiveUtils.register(SensitiveType.NAME, SensitiveType.EMAIL));
+        assertEquals("张**", SensitiveUtils.mask("张小三", SensitiveType.NAME));
+        SensitiveUtils.register(SensitiveStrategy.of("NICKNAME", SensitiveType.NAME));
+        assertEquals("张**", SensitiveUtils.mask("张小三", "NICKNAME"));
+        SensitiveUtils.unregister("NICKNAME");
+    }
+
+    @Test
+    void testCustomStrategy() {
+        SensitiveUtils.register(SensitiveStrategy.of(
+                "PASSPORT", PASSPORT_PATTERN, value -> SensitiveUtils.maskCustom(value, 1, 3, '*'), 5));
+
+        assertEquals("E*****678", SensitiveUtils.mask("E12345678", "PASSPORT"));
+        assertEquals("E*****678", SensitiveUtils.maskByPattern("E12345678"));
+        assertEquals("unknown", SensitiveUtils.mask("unknown", "NOT_REGISTERED"));
+        assertNotNull(SensitiveUtils.getStrategy("PASSPORT"));
+    }
+
+    @Test
+    void testDetectionPriority() {
+        // 默认优先级下16位数字识别为银行卡
+        assertEquals("6222********1234", SensitiveUtils.maskByPattern("6222000011111234"));
+        assertEquals("138****8000", SensitiveUtils.maskByPattern("13812348000"));
+
+        SensitiveUtils.register(SensitiveStrategy.of("PASSPORT", Pattern.compile("^\\d{16}$"), value -> "P", 100));
+        assertEquals("6222********1234", SensitiveUtils.maskByPattern("6222000011111234"));
+
+        SensitiveUtils.setDetectionPriority("PASSPORT", 1);
+        assertEquals("P", SensitiveUtils.maskByPattern("6222000011111234"));
+        assertEquals("PASSPORT", SensitiveUtils.getDetectors().get(0).getName());
+    }
+
+    @Test
+    void testMaskSensitiveFields() {
+        SensitiveUtils.register(SensitiveStrategy.of("PASSPORT", value -> "P****"));
+
+        Map<String, Object> user = new HashMap<>();
+        user.put("phone", "13812348000");
+        user.put("passport", "E12345678");
+        user.put("nickname", "rose");
+
+        Map<String, SensitiveMasker> maskers = new HashMap<>();
+        maskers.put("phone", SensitiveType.PHONE);
+        maskers.put("passport", SensitiveUtils.getStrategy("PASSPORT"));
+
+        Map<String, Object> masked = SensitiveUtils.maskSensitiveFields(user, maskers);
+        assertEquals("138****8000", masked.get("phone"));
+        assertEquals("P****", masked.get("passport"));
+        assertEquals("rose", masked.get("nickname"));
+    }
+}
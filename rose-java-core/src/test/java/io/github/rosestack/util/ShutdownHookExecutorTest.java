@@ -0,0 +1,269 @@
+package io.github.rosestack.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.github.rosestack.lang.Prioritized;
+import io.github.rosestack.util.ShutdownHookReport.CallbackResult;
+import io.github.rosestack.util.ShutdownHookReport.Status;
+
+class ShutdownHookExecutorTest {
+
+    @Test
+    void testTiersRunInPriorityOrder() {
+        List<String> order = Collections.synchronizedList(new ArrayList<>());
+        List<Runnable> callbacks = Arrays.asList(
+                () -> order.add("plain"),
+                new PrioritizedCallback(10, () -> order.add("low")),
+                new PrioritizedCallback(-10, () -> order.add("high")),
+                new PrioritizedCallback(0, () -> order.add("normal")));
+
+        ShutdownHookReport report = new ShutdownHookExecutor(4, 1000, 5000).execute(callbacks);
+
+        assertEquals(Arrays.asList("high", "normal", "low", "plain"), order);
+        assertTrue(report.isSuccessful());
+        assertEquals(3, report.getResults().get(3).getTier());
+    }
+
+    @Test
+    void testSameTierRunsConcurrently() {
+        CountDownLatch latch = new CountDownLatch(3);
+        Runnable callback = () -> {
+            latch.countDown();
+            try {
+                // 三个回调只有并发执行时才能同时通过
+                assertTrue(latch.await(5, TimeUnit.SECONDS));
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        };
+
+        ShutdownHookReport report =
+                new ShutdownHookExecutor(3, 10_000, 10_000).execute(Arrays.asList(callback, callback, callback));
+        assertEquals(3, report.count(Status.COMPLETED));
+    }
+
+    @Test
+    void testFailuresAndTimeouts() {
+        AtomicInteger ran = new AtomicInteger();
+        List<Runnable> callbacks = Arrays.asList(
+                new PrioritizedCallback(0, () -> {
+                    throw new IllegalStateException("broken");
+                }),
+                new PrioritizedCallback(0, ShutdownHookExecutorTest::sleepForever),
+                new PrioritizedCallback(1, ran::incrementAndGet));
+
+        long start = System.nanoTime();
+        ShutdownHookReport report = new ShutdownHookExecutor(1, 200, 10_000).execute(callbacks);
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 5000);
+
+        assertEquals(1, ran.get());
+        List<CallbackResult> results = report.getResults();
+        assertEquals(Status.FAILED, results.get(0).getStatus());
+        assertEquals("broken", results.get(0).getError().getMessage());
+        assertEquals(Status.TIMED_OUT, results.get(1).getStatus());
+        assertEquals(Status.COMPLETED, results.get(2).getStatus());
+        assertFalse(report.isDeadlineExceeded());
+        assertFalse(report.isSuccessful());
+    }
+
+    @Test
+    void testFutureReturnedAfterTimeoutIsCancelled() {
+        CompletableFuture<Object> pending = new CompletableFuture<>();
+        List<ShutdownTask> tasks = Collections.singletonList(ShutdownTask.async("slow-start", () -> {
+            sleepForever();
+            // 被中断后延迟返回，确保超时处理时 Future 尚未返回
+            Thread.interrupted();
+            sleep(200);
+            return pending;
+        }));
+
+        ShutdownHookReport report = new ShutdownHookExecutor(1, 200, 10_000).execute(Collections.emptyList(), tasks);
+
+        assertEquals(Status.TIMED_OUT, report.getResults().get(0).getStatus());
+        assertThrows(CancellationException.class, () -> pending.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testGlobalDeadline() {
+        AtomicInteger ran = new AtomicInteger();
+        List<Runnable> callbacks = Arrays.asList(
+                new PrioritizedCallback(0, ShutdownHookExecutorTest::sleepForever),
+                new PrioritizedCallback(1, ran::incrementAndGet));
+
+        ShutdownHookReport report = new ShutdownHookExecutor(2, 10_000, 200).execute(callbacks);
+
+        assertTrue(report.isDeadlineExceeded());
+        assertEquals(0, ran.get());
+        assertEquals(1, report.count(Status.TIMED_OUT));
+        assertEquals(1, report.count(Status.SKIPPED));
+    }
+
+    @Test
+    void testTasksRunInDependencyOrder() {
+        List<String> order = Collections.synchronizedList(new ArrayList<>());
+        CompletableFuture<Void> drained = new CompletableFuture<>();
+        List<ShutdownTask> tasks = Arrays.asList(
+                ShutdownTask.of("pool", () -> order.add("pool"), "metrics", "queues"),
+                ShutdownTask.of("metrics", () -> order.add("metrics"), "queues"),
+                ShutdownTask.async("queues", () -> {
+                    // 异步任务在 future 完成前不占用线程
+                    new Thread(() -> {
+                        order.add("queues");
+                        drained.complete(null);
+                    }).start();
+                    return drained;
+                }, "http", "unknown"),
+                ShutdownTask.of("http", () -> order.add("http")));
+
+        ShutdownHookReport report =
+                new ShutdownHookExecutor(1, 5000, 10_000).execute(Collections.emptyList(), tasks);
+
+        assertEquals(Arrays.asList("http", "queues", "metrics", "pool"), order);
+        assertTrue(report.isSuccessful());
+        assertEquals("pool", report.getResults().get(0).getName());
+        assertSame(tasks.get(0), report.getResults().get(0).getTask());
+        assertNull(report.getResults().get(0).getCallback());
+        assertEquals(-1, report.getResults().get(0).getTier());
+    }
+
+    @Test
+    void testTasksRunAlongCriticalPath() {
+        CountDownLatch latch = new CountDownLatch(2);
+        Runnable meet = () -> {
+            latch.countDown();
+            try {
+                // 两条独立的依赖链只有并行时才能同时到达
+                assertTrue(latch.await(5, TimeUnit.SECONDS));
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        };
+        AtomicInteger ran = new AtomicInteger();
+        List<ShutdownTask> tasks = Arrays.asList(
+                ShutdownTask.of("a1", ran::incrementAndGet),
+                ShutdownTask.of("a2", meet, "a1"),
+                ShutdownTask.of("b1", meet),
+                ShutdownTask.of("b2", ran::incrementAndGet, "b1"));
+        List<Runnable> callbacks = Collections.singletonList(ran::incrementAndGet);
+
+        ShutdownHookReport report = new ShutdownHookExecutor(2, 10_000, 10_000).execute(callbacks, tasks);
+
+        assertEquals(5, report.count(Status.COMPLETED));
+        assertEquals(3, ran.get());
+    }
+
+    @Test
+    void testFailedAndCyclicTasks() {
+        AtomicInteger ran = new AtomicInteger();
+        CompletableFuture<Object> failed = new CompletableFuture<>();
+        failed.completeExceptionally(new IllegalStateException("broken"));
+        List<ShutdownTask> tasks = Arrays.asList(
+                ShutdownTask.async("failed", () -> failed),
+                ShutdownTask.of("after-failed", ran::incrementAndGet, "failed"),
+                ShutdownTask.async("hanging", CompletableFuture::new),
+                ShutdownTask.of("after-hanging", ran::incrementAndGet, "hanging"),
+                ShutdownTask.of("x", ran::incrementAndGet, "y"),
+                ShutdownTask.of("y", ran::incrementAndGet, "x"),
+                ShutdownTask.of("after-cycle", ran::incrementAndGet, "x"));
+
+        ShutdownHookReport report = new ShutdownHookExecutor(2, 200, 10_000).execute(Collections.emptyList(), tasks);
+
+        assertEquals(2, ran.get());
+        List<CallbackResult> results = report.getResults();
+        assertEquals(Status.FAILED, results.get(0).getStatus());
+        assertEquals("broken", results.get(0).getError().getMessage());
+        assertEquals(Status.COMPLETED, results.get(1).getStatus());
+        assertEquals(Status.TIMED_OUT, results.get(2).getStatus());
+        assertEquals(Status.COMPLETED, results.get(3).getStatus());
+        assertEquals(3, report.count(Status.SKIPPED));
+        assertTrue(results.get(6).getError() instanceof IllegalStateException);
+
+        List<ShutdownTask> duplicates = Arrays.asList(ShutdownTask.of("a", ran::incrementAndGet),
+                ShutdownTask.of("a", ran::incrementAndGet));
+        assertThrows(IllegalArgumentException.class,
+                () -> new ShutdownHookExecutor(1, 200, 1000).execute(Collections.emptyList(), duplicates));
+    }
+
+    @Test
+    void testTimingAndSlowStackDump(@TempDir Path dir) throws IOException {
+        List<Runnable> callbacks = Arrays.asList(
+                new PrioritizedCallback(0, () -> sleep(300)),
+                new PrioritizedCallback(1, () -> sleep(20)));
+        List<ShutdownTask> tasks = Collections.singletonList(ShutdownTask.of("quick", () -> {}));
+
+        ShutdownHookReport report = new ShutdownHookExecutor(2, 5000, 10_000, 100).execute(callbacks, tasks);
+
+        CallbackResult slow = report.getResults().get(0);
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(slow.getDurationNanos()) >= 300);
+        assertTrue(Arrays.stream(slow.getStackTrace()).anyMatch(e -> e.getMethodName().equals("sleep")));
+        CallbackResult fast = report.getResults().get(1);
+        assertNull(fast.getStackTrace());
+        // 第二层在第一层结束后才开始
+        assertTrue(fast.getStartNanos() >= slow.getStartNanos() + slow.getDurationNanos());
+
+        Map<String, Long> phases = report.getPhaseDurations(TimeUnit.MILLISECONDS);
+        assertEquals(Arrays.asList("tier-0", "tier-1", "tasks"), new ArrayList<>(phases.keySet()));
+        assertTrue(phases.get("tier-0") >= 300);
+        assertTrue(report.getDurationNanos() >= slow.getDurationNanos() + fast.getDurationNanos());
+
+        Path file = dir.resolve("shutdown-report.json");
+        ShutdownHookCallbacksThread.publishReport(report, file.toString());
+        Map<?, ?> json = JsonUtils.fromString(new String(Files.readAllBytes(file), "UTF-8"), Map.class);
+        assertEquals(Boolean.TRUE, json.get("successful"));
+        assertEquals(3, ((List<?>) json.get("callbacks")).size());
+        assertEquals(report.getPhaseDurations(TimeUnit.MILLISECONDS).keySet(), ((Map<?, ?>) json.get("phases")).keySet());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleepForever() {
+        try {
+            Thread.sleep(Long.MAX_VALUE);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    static final class PrioritizedCallback implements Runnable, Prioritized {
+        private final int priority;
+        private final Runnable delegate;
+
+        PrioritizedCallback(int priority, Runnable delegate) {
+            this.priority = priority;
+            this.delegate = delegate;
+        }
+
+        @Override
+        public int getPriority() {
+            return priority;
+        }
+
+        @Override
+        public void run() {
+            delegate.run();
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package io.github.rosestack.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+class ShutdownHookUtilsTest {
+
+    @Test
+    void testRegisterOnFirstCallback() {
+        Runnable callback = () -> {};
+        try {
+            assertTrue(ShutdownHookUtils.addShutdownHookCallback(callback));
+            ShutdownHookUtils.registerShutdownHook();
+            Set<Thread> threads =
+                    ShutdownHookUtils.filterShutdownHookThreads(ShutdownHookUtils.SHUTDOWN_HOOK_CALLBACKS_THREAD_FILTER);
+            assertEquals(1, threads.size());
+            assertTrue(ShutdownHookUtils.getShutdownHookThreads().containsAll(threads));
+        } finally {
+            ShutdownHookUtils.removeShutdownHookCallback(callback);
+        }
+    }
+
+    @Test
+    void testAddAndRemoveShutdownHookThread() {
+        Thread hook = new Thread(() -> {}, "ShutdownHookUtilsTest");
+        assertTrue(ShutdownHookUtils.addShutdownHookThread(hook));
+        assertFalse(ShutdownHookUtils.addShutdownHookThread(hook));
+        assertTrue(ShutdownHookUtils.getShutdownHookThreads().contains(hook));
+
+        Set<Thread> removed = ShutdownHookUtils.filterShutdownHookThreads(t -> t == hook, true);
+        assertEquals(1, removed.size());
+        assertFalse(ShutdownHookUtils.getShutdownHookThreads().contains(hook));
+        assertFalse(ShutdownHookUtils.removeShutdownHookThread(hook));
+        assertFalse(ShutdownHookUtils.removeShutdownHookThread(null));
+    }
+
+    @Test
+    void testIntrospectionSupportIsProbedSafely() {
+        // 在强封装的 JDK 上不可用，但不能抛出异常
+        boolean supported = ShutdownHookUtils.isShutdownHookIntrospectionSupported();
+        assertEquals(supported, ShutdownHookUtils.isShutdownHookIntrospectionSupported());
+    }
+
+    @Test
+    void testDryRun() {
+        AtomicInteger ran = new AtomicInteger();
+        Runnable callback = ran::incrementAndGet;
+        ShutdownTask task = ShutdownTask.of("dry-run", ran::incrementAndGet);
+        assertTrue(ShutdownHookUtils.addShutdownHookCallback(callback));
+        assertTrue(ShutdownHookUtils.addShutdownTask(task));
+        assertFalse(ShutdownHookUtils.addShutdownTask(ShutdownTask.of("dry-run", ran::incrementAndGet)));
+        try {
+            ShutdownHookReport report = ShutdownHookUtils.dryRunShutdownHooks();
+            assertEquals(2, ran.get());
+            assertTrue(report.getResults().stream().anyMatch(result -> result.getCallback() == callback));
+            assertTrue(report.getResults().stream().anyMatch(result -> result.getTask() == task));
+            assertTrue(ShutdownHookUtils.getShutdownHookCallbacks().contains(callback));
+            assertSame(task, ShutdownHookUtils.getShutdownTasks().get("dry-run"));
+        } finally {
+            ShutdownHookUtils.removeShutdownHookCallback(callback);
+            ShutdownHookUtils.removeShutdownTask("dry-run");
+        }
+    }
+}
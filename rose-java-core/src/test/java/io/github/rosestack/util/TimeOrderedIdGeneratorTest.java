@@ -0,0 +1,153 @@
+package io.github.rosestack.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+class TimeOrderedIdGeneratorTest {
+    private static final long NOW = 1760000000000L;
+
+    @Test
+    void testSnowflakeId() {
+        AtomicLong clock = new AtomicLong(NOW);
+        TimeOrderedIdGenerator generator = newGenerator(5, 1, clock);
+
+        long first = generator.nextSnowflakeId();
+        assertTrue(first > 0);
+        assertEquals(NOW, generator.getTimestamp(first));
+        assertEquals(5, TimeOrderedIdGenerator.getWorkerId(first));
+
+        long previous = first;
+        for (int i = 0; i < 10_000; i++) {
+            long id = generator.nextSnowflakeId();
+            assertTrue(id > previous);
+            previous = id;
+        }
+        // 同一毫秒内超过4096个时借用后续毫秒
+        assertTrue(generator.getTimestamp(previous) > NOW);
+
+        clock.set(NOW + 10_000);
+        assertEquals(NOW + 10_000, generator.getTimestamp(generator.nextSnowflakeId()));
+    }
+
+    @Test
+    void testClockBackwards() {
+        AtomicLong clock = new AtomicLong(NOW);
+        TimeOrderedIdGenerator generator = newGenerator(0, 1, clock);
+        long id = generator.nextSnowflakeId();
+        UUID uuid = generator.nextUuidV7();
+
+        clock.set(NOW - 500);
+        assertTrue(generator.nextSnowflakeId() > id);
+        assertTrue(generator.nextUuidV7().compareTo(uuid) > 0);
+
+        clock.set(NOW - 5000);
+        assertThrows(IllegalStateException.class, generator::nextSnowflakeId);
+        assertThrows(IllegalStateException.class, generator::nextUuidV7);
+    }
+
+    @Test
+    void testUuidV7AndUlid() {
+        AtomicLong clock = new AtomicLong(NOW);
+        TimeOrderedIdGenerator generator = newGenerator(0, 1, clock);
+
+        UUID uuid = generator.nextUuidV7();
+        assertEquals(7, uuid.version());
+        assertEquals(2, uuid.variant());
+        assertEquals(NOW, uuid.getMostSignificantBits() >>> 16);
+
+        String previous = generator.nextUlid();
+        assertEquals(26, previous.length());
+        assertEquals(NOW, Uuids.crockfordToUuid(previous).getMostSignificantBits() >>> 16);
+        for (int i = 0; i < 1000; i++) {
+            if (i % 100 == 0) {
+                clock.addAndGet(1);
+            }
+            String ulid = generator.nextUlid();
+            assertTrue(ulid.compareTo(previous) > 0);
+            previous = ulid;
+
+            UUID next = generator.nextUuidV7();
+            assertTrue(Long.compareUnsigned(next.getMostSignificantBits(), uuid.getMostSignificantBits()) > 0);
+            uuid = next;
+        }
+    }
+
+    @Test
+    void testEncoders() {
+        UUID uuid = TimeOrderedIdGenerator.getDefault().nextUuidV7();
+        assertEquals(uuid, Uuids.crockfordToUuid(Uuids.uuidToCrockford(uuid)));
+        assertEquals(uuid, Uuids.crockfordToUuid(Uuids.uuidToCrockford(uuid).toLowerCase()));
+        assertEquals("7ZZZZZZZZZZZZZZZZZZZZZZZZZ", Uuids.uuidToCrockford(new UUID(-1L, -1L)));
+        assertThrows(IllegalArgumentException.class, () -> Uuids.crockfordToUuid("8ZZZZZZZZZZZZZZZZZZZZZZZZZ"));
+        assertThrows(IllegalArgumentException.class, () -> Uuids.crockfordToUuid("0000000000000000000000000U"));
+
+        for (long value : new long[] {0L, 1L, -1L, Long.MIN_VALUE, Long.MAX_VALUE, 1234567890123L}) {
+            assertEquals(value, Uuids.crockfordToLong(Uuids.longToCrockford(value)));
+            assertEquals(value, Uuids.base64ToLong(Uuids.longToBase64(value)));
+            assertEquals(11, Uuids.longToBase64(value).length());
+        }
+        assertEquals("0000000000001", Uuids.longToCrockford(1L));
+        assertEquals(1L, Uuids.crockfordToLong("000000000000I"));
+        assertTrue(Uuids.longToCrockford(1L << 40).compareTo(Uuids.longToCrockford((1L << 40) - 1)) > 0);
+    }
+
+    @Test
+    void testStripedConcurrentGeneration() throws Exception {
+        TimeOrderedIdGenerator generator = TimeOrderedIdGenerator.of(1, TimeOrderedIdGenerator.DEFAULT_EPOCH_MILLIS, 8);
+        int threads = 16;
+        int iterations = 20_000;
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    long previous = 0;
+                    for (int i = 0; i < iterations; i++) {
+                        long id = generator.nextSnowflakeId();
+                        assertTrue(id > previous);
+                        previous = id;
+                        ids.add(id);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(threads * iterations, ids.size());
+    }
+
+    @Test
+    void testInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> TimeOrderedIdGenerator.of(1024));
+        assertThrows(IllegalArgumentException.class, () -> TimeOrderedIdGenerator.of(-1));
+        assertThrows(IllegalArgumentException.class, () -> TimeOrderedIdGenerator.of(0, 0, 3));
+        assertThrows(IllegalArgumentException.class, () -> TimeOrderedIdGenerator.of(0, 0, 128));
+    }
+
+    private static TimeOrderedIdGenerator newGenerator(int workerId, int stripes, AtomicLong clock) {
+        return new TimeOrderedIdGenerator(
+                workerId,
+                TimeOrderedIdGenerator.DEFAULT_EPOCH_MILLIS,
+                stripes,
+                TimeOrderedIdGenerator.DEFAULT_MAX_BACKWARD_MILLIS,
+                clock::get,
+                () -> new Random(42));
+    }
+}
@@ -0,0 +1,155 @@
+package io.github.rosestack.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+class UuidSetTest {
+
+    @Test
+    void testAddContainsRemove() {
+        UuidSet set = new UuidSet();
+        UUID uuid = UUID.randomUUID();
+        UUID nil = new UUID(0, 0);
+
+        assertTrue(set.isEmpty());
+        assertTrue(set.add(uuid));
+        assertFalse(set.add(uuid));
+        assertTrue(set.add(nil));
+        assertFalse(set.add(0, 0));
+        assertEquals(2, set.size());
+        assertTrue(set.contains(uuid));
+        assertTrue(set.contains(nil));
+        assertTrue(set.containsBase64(Uuids.uuidToBase64(uuid)));
+
+        assertTrue(set.remove(nil));
+        assertFalse(set.contains(nil));
+        assertTrue(set.remove(uuid));
+        assertFalse(set.remove(uuid));
+        assertTrue(set.isEmpty());
+
+        assertTrue(set.addBase64(Uuids.uuidToBase64(uuid)));
+        assertTrue(set.contains(uuid));
+        set.clear();
+        assertFalse(set.contains(uuid));
+    }
+
+    @Test
+    void testMatchesHashSet() {
+        Random random = new Random(11);
+        UuidSet set = new UuidSet(4);
+        Set<UUID> expected = new HashSet<>();
+        List<UUID> pool = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            // 高位相同、低位连续的 UUID 容易聚集，用来覆盖删除时的元素前移
+            pool.add(i % 2 == 0 ? new UUID(random.nextLong(), random.nextLong()) : new UUID(42, i));
+        }
+        pool.add(new UUID(0, 0));
+
+        for (int i = 0; i < 100_000; i++) {
+            UUID uuid = pool.get(random.nextInt(pool.size()));
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(uuid), set.remove(uuid));
+            } else {
+                assertEquals(expected.add(uuid), set.add(uuid));
+            }
+            assertEquals(expected.size(), set.size());
+        }
+        for (UUID uuid : pool) {
+            assertEquals(expected.contains(uuid), set.contains(uuid));
+        }
+
+        Set<UUID> iterated = new HashSet<>();
+        set.forEach((msb, lsb) -> assertTrue(iterated.add(new UUID(msb, lsb))));
+        assertEquals(expected, iterated);
+
+        Set<UUID> decoded = new HashSet<>();
+        for (String base64 : set.toBase64()) {
+            decoded.add(Uuids.base64ToUuid(base64));
+        }
+        assertEquals(expected, decoded);
+    }
+
+    @Test
+    void testBulkOperations() {
+        long[] bits = Uuids.randomUuidBits(10_000);
+        UuidSet set = new UuidSet();
+        assertEquals(10_000, set.addAll(bits));
+        assertEquals(0, set.addAll(bits));
+        assertTrue(set.containsAll(bits));
+
+        long[] copy = set.toBits();
+        assertEquals(bits.length, copy.length);
+        assertEquals(10_000, UuidSet.of(toUuids(copy)).size());
+
+        long[] probe = {bits[0], bits[1], 1, 2};
+        boolean[] result = new boolean[2];
+        assertEquals(1, set.contains(probe, result));
+        assertArrayEquals(new boolean[] {true, false}, result);
+        assertFalse(set.containsAll(probe));
+        assertThrows(IllegalArgumentException.class, () -> set.addAll(new long[3]));
+    }
+
+    @Test
+    void testUuidMap() {
+        UuidMap<String> map = new UuidMap<>(2);
+        UUID nil = new UUID(0, 0);
+        List<UUID> keys = toUuids(Uuids.randomUuidBits(1000));
+        keys.add(nil);
+        for (UUID key : keys) {
+            assertNull(map.put(key, key.toString()));
+        }
+        assertEquals(keys.size(), map.size());
+        assertEquals(nil.toString(), map.put(nil, "nil"));
+        assertEquals("nil", map.get(0, 0));
+
+        for (UUID key : keys.subList(0, 500)) {
+            assertEquals(key.toString(), map.remove(key));
+        }
+        assertEquals(501, map.size());
+        for (UUID key : keys.subList(500, 1000)) {
+            assertEquals(key.toString(), map.getBase64(Uuids.uuidToBase64(key)));
+            assertTrue(map.containsKey(key));
+        }
+        assertNull(map.get(keys.get(0)));
+        assertEquals("x", map.getOrDefault(1, 2, "x"));
+
+        UUID key = keys.get(0);
+        assertNull(map.putIfAbsent(key.getMostSignificantBits(), key.getLeastSignificantBits(), "a"));
+        assertEquals("a", map.putIfAbsent(key.getMostSignificantBits(), key.getLeastSignificantBits(), "b"));
+        assertEquals(
+                "3", map.computeIfAbsent(3, 3, uuid -> String.valueOf(uuid.getLeastSignificantBits())));
+        assertEquals("3", map.computeIfAbsent(3, 3, uuid -> "4"));
+        assertEquals("3", map.putBase64(Uuids.toBase64(3, 3), "c"));
+        assertEquals("c", map.get(3, 3));
+
+        int[] count = new int[1];
+        map.forEach((msb, lsb, value) -> {
+            assertEquals(value, map.get(msb, lsb));
+            count[0]++;
+        });
+        assertEquals(map.size(), count[0]);
+        assertEquals(map.size(), map.keysToBase64().length);
+        assertEquals(map.size() * 2, map.keysToBits().length);
+        assertThrows(IllegalArgumentException.class, () -> map.put(1, 1, null));
+
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertNull(map.get(0, 0));
+    }
+
+    private static List<UUID> toUuids(long[] bits) {
+        List<UUID> uuids = new ArrayList<>();
+        for (int i = 0; i < bits.length; i += 2) {
+            uuids.add(new UUID(bits[i], bits[i + 1]));
+        }
+        return uuids;
+    }
+}
@@ -2,6 +2,13 @@ package io.github.rosestack.util;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.Random;
 import java.util.UUID;
 
 import org.junit.jupiter.api.Test;
@@ -42,4 +49,96 @@ class UuidsTest {
         assertNotNull(simpleUUID);
         assertTrue(simpleUUID.length() > 0);
     }
+
+    @Test
+    void testBatchGeneration() {
+        for (boolean parallel : new boolean[] {false, true}) {
+            String[] ids = Uuids.fastRandomUUIDs(10_000, parallel);
+            assertEquals(ids.length, new HashSet<>(Arrays.asList(ids)).size());
+            for (String id : ids) {
+                assertEquals(22, id.length());
+                UUID uuid = Uuids.base64ToUuid(id);
+                assertEquals(4, uuid.version());
+                assertEquals(2, uuid.variant());
+            }
+
+            long[] bits = Uuids.randomUuidBits(10_000, parallel);
+            assertEquals(20_000, bits.length);
+            Set<UUID> uuids = new HashSet<>();
+            for (int i = 0; i < bits.length; i += 2) {
+                UUID uuid = new UUID(bits[i], bits[i + 1]);
+                assertEquals(4, uuid.version());
+                assertEquals(2, uuid.variant());
+                uuids.add(uuid);
+            }
+            assertEquals(10_000, uuids.size());
+        }
+
+        assertEquals(0, Uuids.fastRandomUUIDs(0).length);
+        assertThrows(IllegalArgumentException.class, () -> Uuids.fillRandomUuidBits(new long[3]));
+    }
+
+    @Test
+    void testBase64MatchesJdkCodec() {
+        Random random = new Random(7);
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        for (int i = 0; i < 10_000; i++) {
+            UUID uuid = i == 0 ? new UUID(-1L, -1L) : new UUID(random.nextLong(), random.nextLong());
+            byte[] bytes = ByteBuffer.allocate(16)
+                    .putLong(uuid.getMostSignificantBits())
+                    .putLong(uuid.getLeastSignificantBits())
+                    .array();
+            String expected = encoder.encodeToString(bytes);
+
+            assertEquals(expected, Uuids.uuidToBase64(uuid));
+            assertEquals(uuid, Uuids.base64ToUuid(expected));
+            assertEquals(uuid, Uuids.base64ToUuid(expected + "=="));
+        }
+    }
+
+    @Test
+    void testBase64WithOffset() {
+        UUID uuid = UuidCreator.getTimeOrderedEpoch();
+        String encoded = Uuids.uuidToBase64(uuid);
+
+        char[] chars = new char[26];
+        Uuids.writeBase64(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits(), chars, 2);
+        assertEquals(encoded, new String(chars, 2, 22));
+        assertEquals(uuid, Uuids.base64ToUuid(new String(chars), 2));
+
+        byte[] bytes = new byte[24];
+        Uuids.writeBase64(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits(), bytes, 1);
+        assertEquals(encoded, new String(bytes, 1, 22, StandardCharsets.US_ASCII));
+        assertEquals(uuid, Uuids.base64ToUuid(bytes, 1));
+        long[] bits = new long[4];
+        Uuids.decodeBase64(bytes, 1, bits, 2);
+        assertEquals(uuid.getMostSignificantBits(), bits[2]);
+        assertEquals(uuid.getLeastSignificantBits(), bits[3]);
+
+        assertEquals("id=" + encoded, Uuids.appendBase64(new StringBuilder("id="), uuid).toString());
+
+        assertThrows(IndexOutOfBoundsException.class, () -> Uuids.writeBase64(0, 0, new char[22], 1));
+        assertThrows(IllegalArgumentException.class, () -> Uuids.base64ToUuid(encoded.substring(1)));
+        assertThrows(IllegalArgumentException.class, () -> Uuids.base64ToUuid(encoded.substring(1) + "+"));
+        // 最后一个字符的低4位必须为0
+        assertThrows(IllegalArgumentException.class, () -> Uuids.base64ToUuid(encoded.substring(0, 21) + "B"));
+    }
+
+    @Test
+    void testLongBase64MatchesJdk() {
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        Random random = new Random(42);
+        for (int i = 0; i < 1000; i++) {
+            long value = i < 4 ? new long[] {0L, -1L, Long.MIN_VALUE, Long.MAX_VALUE}[i] : random.nextLong();
+            String encoded = Uuids.longToBase64(value);
+            assertEquals(encoder.encodeToString(ByteBuffer.allocate(8).putLong(value).array()), encoded);
+            assertEquals(value, Uuids.base64ToLong(encoded));
+            assertEquals(value, Uuids.base64ToLong(encoded + "="));
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> Uuids.base64ToLong("AAAAAAAAAA"));
+        assertThrows(IllegalArgumentException.class, () -> Uuids.base64ToLong("AAAAAAAAAA+"));
+        // 最后一个字符的低2位必须为0
+        assertThrows(IllegalArgumentException.class, () -> Uuids.base64ToLong("AAAAAAAAAAB"));
+    }
 }
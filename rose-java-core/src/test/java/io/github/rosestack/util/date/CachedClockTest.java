@@ -0,0 +1,49 @@
+package io.github.rosestack.util.date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+
+import org.junit.jupiter.api.Test;
+
+class CachedClockTest {
+
+    @Test
+    void testCachedValues() {
+        ZoneId zone = ZoneId.of("Asia/Shanghai");
+        // 刻度足够长，断言期间快照不变
+        try (CachedClock clock = CachedClock.start(60_000, zone)) {
+            assertTrue(Math.abs(System.currentTimeMillis() - clock.millis()) < 1000);
+
+            LocalDateTime now = clock.getLocalDateTime();
+            assertTrue(Duration.between(now, LocalDateTime.now(zone)).abs().getSeconds() < 2);
+            assertEquals(now.toLocalDate(), clock.getLocalDate());
+            assertEquals(now.toLocalDate().atStartOfDay(), clock.getStartDay());
+            assertEquals(now.toLocalDate().atTime(LocalTime.MAX), clock.getEndDay());
+            assertEquals(DateUtils.format(now, DatePattern.NORM_DATETIME), clock.getNormDateTime());
+            assertEquals(DateUtils.format(now.toLocalDate(), DatePattern.NORM_DATE), clock.getNormDate());
+        }
+    }
+
+    @Test
+    void testTick() throws InterruptedException {
+        try (CachedClock clock = CachedClock.start(1, ZoneId.systemDefault())) {
+            long before = clock.millis();
+            Thread.sleep(50);
+            assertTrue(clock.millis() > before);
+        }
+    }
+
+    @Test
+    void testSharedClocks() {
+        assertSame(CachedClock.second(), CachedClock.second());
+        assertEquals(1000, CachedClock.second().getTickMillis());
+        assertEquals(1, CachedClock.millisecond().getTickMillis());
+        assertEquals(CachedClock.second().getLocalDate(), DateUtils.getCoarseLocalDate());
+        assertThrows(IllegalArgumentException.class, () -> CachedClock.second().close());
+        assertThrows(IllegalArgumentException.class, () -> CachedClock.start(0, ZoneId.systemDefault()));
+    }
+}
@@ -0,0 +1,130 @@
+package io.github.rosestack.util.date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.TemporalAccessor;
+import java.time.temporal.TemporalQueries;
+import java.util.Locale;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class DateUtilsTest {
+
+    @Test
+    void testFormatterCache() {
+        ZoneId zone = ZoneId.of("Asia/Shanghai");
+        DateTimeFormatter formatter = DatePattern.createFormatter("yyyy/MM/dd", Locale.CHINA, zone);
+        assertSame(formatter, DatePattern.createFormatter("yyyy/MM/dd", Locale.CHINA, zone));
+        assertNotSame(formatter, DatePattern.createFormatter("yyyy/MM/dd", Locale.US, zone));
+        assertEquals(zone, formatter.getZone());
+    }
+
+    @Test
+    void testFormatFixedLayouts() {
+        LocalDateTime[] values = {
+            LocalDateTime.of(2023, 12, 25, 15, 30, 45, 123_000_000),
+            LocalDateTime.of(1, 1, 1, 0, 0),
+            LocalDateTime.of(9999, 12, 31, 23, 59, 59),
+            LocalDateTime.of(10000, 1, 1, 0, 0),
+            LocalDateTime.of(0, 6, 1, 8, 0),
+            LocalDateTime.of(-5, 6, 1, 8, 0)
+        };
+        String[] patterns = {DatePattern.NORM_DATETIME, DatePattern.PURE_DATETIME, DatePattern.NORM_DATE};
+        for (String pattern : patterns) {
+            DateTimeFormatter formatter = DateTimeFormatter.ofPattern(pattern, Locale.CHINA);
+            for (LocalDateTime value : values) {
+                assertEquals(formatter.format(value), DateUtils.format(value, pattern), pattern + " " + value);
+            }
+        }
+        assertEquals("2023-12-25", DateUtils.format(LocalDate.of(2023, 12, 25), DatePattern.NORM_DATE));
+        assertEquals("2023/12/25", DateUtils.format(LocalDate.of(2023, 12, 25), "yyyy/MM/dd"));
+        assertEquals("2023年12月25日", DateUtils.format(LocalDateTime.of(2023, 12, 25, 1, 2), DatePattern.CHINESE_DATE));
+    }
+
+    @Test
+    void testParse() {
+        LocalDateTime expected = LocalDateTime.of(2023, 12, 25, 15, 30, 45);
+        assertEquals(expected, DateUtils.parse("2023-12-25 15:30:45", DatePattern.NORM_DATETIME));
+        assertEquals(expected, DateUtils.parse("20231225153045", DatePattern.PURE_DATETIME));
+        assertEquals(expected.toLocalDate().atStartOfDay(), DateUtils.parse("2023-12-25", DatePattern.NORM_DATE));
+        assertEquals(expected.toLocalDate(), DateUtils.parseDate("2023-12-25", DatePattern.NORM_DATE));
+        assertEquals(expected.toLocalDate(), DateUtils.parseDate("20231225", DatePattern.PURE_DATE));
+        assertEquals(expected, DateUtils.parse("2023年12月25日15时30分45秒", DatePattern.CHINESE_DATE_TIME));
+
+        // 不合法的取值交给通用格式化器处理，与 DateTimeFormatter 的行为一致
+        assertEquals(
+                LocalDateTime.parse("2023-02-30 00:00:00", DatePattern.createFormatter(DatePattern.NORM_DATETIME)),
+                DateUtils.parse("2023-02-30 00:00:00", DatePattern.NORM_DATETIME));
+        assertThrows(
+                DateTimeParseException.class, () -> DateUtils.parse("2023-13-01 00:00:00", DatePattern.NORM_DATETIME));
+        assertThrows(
+                DateTimeParseException.class, () -> DateUtils.parse("2023-12-25T15:30:45", DatePattern.NORM_DATETIME));
+        assertThrows(DateTimeParseException.class, () -> DateUtils.parse("15:30:45", DatePattern.NORM_TIME));
+    }
+
+    @Test
+    void testParseFixedLayoutsMatchFormatter() {
+        String[] patterns = {
+            DatePattern.NORM_DATETIME,
+            DatePattern.NORM_DATETIME_MS,
+            DatePattern.PURE_DATETIME,
+            DatePattern.PURE_DATE,
+            DatePattern.ISO8601
+        };
+        Random random = new Random(42);
+        for (String pattern : patterns) {
+            DateTimeFormatter formatter = DateTimeFormatter.ofPattern(pattern, Locale.CHINA);
+            for (int i = 0; i < 2000; i++) {
+                LocalDateTime value = LocalDateTime.ofEpochSecond(
+                                random.nextInt(Integer.MAX_VALUE) * 3L, random.nextInt(1000) * 1_000_000, ZoneOffset.UTC)
+                        .minusYears(random.nextInt(1500));
+                String text = formatter.format(value);
+                LocalDateTime expected = DateUtils.parse(text, pattern);
+                assertEquals(parseWithFormatter(text, formatter), expected, text);
+
+                byte[] bytes = ("  " + text + "  ").getBytes(StandardCharsets.US_ASCII);
+                assertEquals(expected, DateUtils.parse(bytes, 2, text.length(), pattern));
+                ByteBuffer buffer = ByteBuffer.wrap(bytes, 2, text.length());
+                assertEquals(expected, DateUtils.parse(buffer, pattern));
+                assertEquals(2, buffer.position());
+
+                long millis = DateUtils.toMilliseconds(expected);
+                assertEquals(millis, DateUtils.parseMillis(text, pattern), text);
+                assertEquals(millis, DateUtils.parseMillis(bytes, 2, text.length(), pattern));
+                assertEquals(millis, DateUtils.parseMillis(buffer, pattern));
+            }
+        }
+    }
+
+    @Test
+    void testParseMalformedFallsBack() {
+        byte[] bytes = "2023-02-29 10:00:00".getBytes(StandardCharsets.US_ASCII);
+        assertEquals(
+                LocalDateTime.of(2023, 2, 28, 10, 0),
+                DateUtils.parse(bytes, 0, bytes.length, DatePattern.NORM_DATETIME));
+        assertEquals(
+                DateUtils.toMilliseconds(LocalDateTime.of(2023, 2, 28, 10, 0)),
+                DateUtils.parseMillis(ByteBuffer.wrap(bytes), DatePattern.NORM_DATETIME));
+        assertThrows(
+                DateTimeParseException.class, () -> DateUtils.parseMillis("2023-1-1 10:00:00", DatePattern.NORM_DATETIME));
+        assertThrows(
+                DateTimeParseException.class,
+                () -> DateUtils.parse("2023-01-01 10:00:00.12x", DatePattern.NORM_DATETIME_MS));
+    }
+
+    private static LocalDateTime parseWithFormatter(String text, DateTimeFormatter formatter) {
+        TemporalAccessor parsed = formatter.parse(text);
+        LocalTime time = parsed.query(TemporalQueries.localTime());
+        return LocalDateTime.of(parsed.query(TemporalQueries.localDate()), time != null ? time : LocalTime.MIDNIGHT);
+    }
+}